@@ -0,0 +1,223 @@
+package com.augmentedframework.benchmarks;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * BenchmarkRunner runs the JMH suites with the GC profiler at every requested thread count,
+ * writes the results as a JSON baseline and compares them against a previous baseline.
+ * <pre>
+ * java -jar target/benchmarks.jar [--threads 1,4] [--baseline baselines/baseline.json]
+ *      [--tolerance 0.1] [--out target/benchmark-results.json] [--save] [include regex...]
+ * </pre>
+ * --threads defaults to 1 and the number of processors. --save writes the results to the
+ * baseline file. A score or allocation rate worse than the baseline by more than the
+ * tolerance is reported as a regression and the runner exits with status 1.
+ *
+ * @author YSabato
+ * @version 1.0
+ * @since 10/18/2026
+ */
+public final class BenchmarkRunner {
+    // allocation differences below this many bytes per operation are noise
+    private static final double ALLOCATION_SLACK = 16;
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        List<Integer> threads = new ArrayList<>(List.of(1, Runtime.getRuntime().availableProcessors()));
+        Path baseline = Paths.get("baselines", "baseline.json");
+        Path out = Paths.get("target", "benchmark-results.json");
+        double tolerance = 0.1;
+        boolean save = false;
+        List<String> includes = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--threads":
+                    threads.clear();
+                    Arrays.stream(args[++i].split(",")).map(String::trim).map(Integer::valueOf).forEach(threads::add);
+                    break;
+                case "--baseline":
+                    baseline = Paths.get(args[++i]);
+                    break;
+                case "--tolerance":
+                    tolerance = Double.parseDouble(args[++i]);
+                    break;
+                case "--out":
+                    out = Paths.get(args[++i]);
+                    break;
+                case "--save":
+                    save = true;
+                    break;
+                default:
+                    includes.add(args[i]);
+                    break;
+            }
+        }
+        if (includes.isEmpty()) {
+            includes.add("com\\.augmentedframework\\..*Benchmark");
+        }
+
+        JSONArray results = new JSONArray();
+        for (int count : threads.stream().distinct().sorted().toList()) {
+            ChainedOptionsBuilder options = new OptionsBuilder().threads(count).addProfiler(GCProfiler.class).shouldFailOnError(true);
+            includes.forEach(options::include);
+            for (RunResult run : new Runner(options.build()).run()) {
+                results.put(toJson(run));
+            }
+        }
+        JSONObject current = new JSONObject()
+                .put("created", Instant.now().toString())
+                .put("jvm", System.getProperty("java.vm.name") + " " + System.getProperty("java.version"))
+                .put("os", System.getProperty("os.name") + " " + System.getProperty("os.arch"))
+                .put("processors", Runtime.getRuntime().availableProcessors())
+                .put("results", results);
+        write(out, current);
+        printScaling(results);
+
+        int regressions = 0;
+        if (Files.exists(baseline)) {
+            regressions = compare(new JSONObject(Files.readString(baseline)), current, tolerance);
+        } else {
+            System.out.println("No baseline at " + baseline + ", nothing to compare");
+        }
+        if (save) {
+            write(baseline, current);
+            System.out.println("Saved baseline " + baseline);
+        }
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static JSONObject toJson(RunResult run) {
+        Result<?> primary = run.getPrimaryResult();
+        Map<String, String> params = new TreeMap<>();
+        if (run.getParams().getParamsKeys() != null) {
+            run.getParams().getParamsKeys().forEach(key -> params.put(key, run.getParams().getParam(key)));
+        }
+        JSONObject result = new JSONObject()
+                .put("benchmark", shortName(run.getParams().getBenchmark()))
+                .put("params", new JSONObject(params))
+                .put("threads", run.getParams().getThreads())
+                .put("mode", run.getParams().getMode().shortLabel())
+                .put("score", primary.getScore())
+                .put("error", Double.isNaN(primary.getScoreError()) ? 0 : primary.getScoreError())
+                .put("unit", primary.getScoreUnit());
+        Map<String, Result<?>> secondary = new HashMap<>();
+        run.getSecondaryResults().forEach((name, value) -> secondary.put(name.replace("·", ""), value));
+        if (secondary.containsKey("gc.alloc.rate.norm")) {
+            result.put("allocBytesPerOp", secondary.get("gc.alloc.rate.norm").getScore());
+        }
+        if (secondary.containsKey("gc.alloc.rate")) {
+            result.put("allocMBPerSec", secondary.get("gc.alloc.rate").getScore());
+        }
+        if (secondary.containsKey("gc.count")) {
+            result.put("gcCount", secondary.get("gc.count").getScore());
+        }
+        return result;
+    }
+
+    private static String shortName(String benchmark) {
+        String[] parts = benchmark.split("\\.");
+        return parts.length < 2 ? benchmark : parts[parts.length - 2] + "." + parts[parts.length - 1];
+    }
+
+    private static String key(JSONObject result, boolean withThreads) {
+        return result.getString("benchmark") + result.getJSONObject("params").toMap() + (withThreads ? " x" + result.getInt("threads") : "");
+    }
+
+    /**
+     * Prints throughput per thread count relative to one thread; 1.0 per thread is linear scaling
+     */
+    private static void printScaling(JSONArray results) {
+        Map<String, Double> singleThread = new HashMap<>();
+        for (Object item : results) {
+            JSONObject result = (JSONObject) item;
+            if (result.getInt("threads") == 1) {
+                singleThread.put(key(result, false), result.getDouble("score"));
+            }
+        }
+        System.out.println();
+        System.out.println(String.format("%-70s %7s %14s %12s %10s", "Benchmark", "Threads", "Score", "B/op", "Scaling"));
+        for (Object item : results) {
+            JSONObject result = (JSONObject) item;
+            Double base = singleThread.get(key(result, false));
+            String scaling = "";
+            if (base != null && base > 0) {
+                int count = result.getInt("threads");
+                // average time grows with contention, throughput should grow with threads
+                double speedup = "avgt".equals(result.getString("mode")) ? count * base / result.getDouble("score") : result.getDouble("score") / base;
+                scaling = String.format("%.2fx", speedup);
+            }
+            System.out.println(String.format("%-70s %7d %14.3f %12.1f %10s", result.getString("benchmark") + result.getJSONObject("params").toMap(),
+                    result.getInt("threads"), result.getDouble("score"), result.optDouble("allocBytesPerOp", 0), scaling));
+        }
+    }
+
+    /**
+     * Compares score and allocation per operation with the baseline
+     *
+     * @return number of regressions
+     */
+    private static int compare(JSONObject baseline, JSONObject current, double tolerance) {
+        Map<String, JSONObject> previous = new LinkedHashMap<>();
+        for (Object item : baseline.getJSONArray("results")) {
+            previous.put(key((JSONObject) item, true), (JSONObject) item);
+        }
+        System.out.println();
+        System.out.println("Compared with baseline from " + baseline.optString("created") + " (" + baseline.optString("jvm") + ", "
+                + baseline.optInt("processors") + " processors)");
+        int regressions = 0;
+        for (Object item : current.getJSONArray("results")) {
+            JSONObject result = (JSONObject) item;
+            JSONObject before = previous.get(key(result, true));
+            if (before == null) {
+                continue;
+            }
+            double change = result.getDouble("score") / before.getDouble("score") - 1;
+            boolean lowerIsBetter = "avgt".equals(result.getString("mode")) || "ss".equals(result.getString("mode")) || "sample".equals(result.getString("mode"));
+            boolean slower = lowerIsBetter ? change > tolerance : change < -tolerance;
+            double allocation = result.optDouble("allocBytesPerOp", 0);
+            double allocationBefore = before.optDouble("allocBytesPerOp", 0);
+            boolean allocates = allocation - allocationBefore > ALLOCATION_SLACK && allocation > allocationBefore * (1 + tolerance);
+            if (slower || allocates) {
+                regressions++;
+            }
+            System.out.println(String.format("%-8s %-70s score %+.1f%%, B/op %.1f -> %.1f", slower || allocates ? "REGRESS" : "ok",
+                    key(result, true), change * 100, allocationBefore, allocation));
+        }
+        System.out.println(regressions + " regression(s) beyond " + Math.round(tolerance * 100) + "%");
+        return regressions;
+    }
+
+    private static void write(Path file, JSONObject json) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.write(file, json.toString(2).getBytes(StandardCharsets.UTF_8));
+        System.out.println("Wrote " + file);
+    }
+}
@@ -0,0 +1,69 @@
+package com.augmentedframework.benchmarks;
+
+import com.augmentedframework.ui.config.grid.BrowserStackCapabilitiesConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.remote.DesiredCapabilities;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building BrowserStack capabilities from a configuration and applying per-test overrides,
+ * done once for every session request. Each thread works on its own configuration.
+ *
+ * @author YSabato
+ * @version 1.0
+ * @since 10/18/2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CapabilitiesBenchmark {
+    private static final Map<String, String> OVERRIDES = Map.of(
+            "browser", "Edge",
+            "browser_version", "latest-1",
+            "os_version", "10",
+            "maskCommands", "setValues, getValues, setCookies");
+
+    private BrowserStackCapabilitiesConfiguration configuration;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        configuration = new BrowserStackCapabilitiesConfiguration();
+        configuration.setOs("Windows");
+        configuration.setOs_version("11");
+        configuration.setBrowser("Chrome");
+        configuration.setBrowser_version("latest");
+        configuration.setProjectName("Augmented");
+        configuration.setBuild("benchmark");
+        configuration.setName("capabilities");
+        configuration.setDebug("true");
+        configuration.setVideo("false");
+        configuration.setResolution("1920x1080");
+        configuration.setIdleTimeout("300");
+    }
+
+    @Benchmark
+    public DesiredCapabilities getDesiredCapabilities() {
+        return configuration.getDesiredCapabilities();
+    }
+
+    @Benchmark
+    public BrowserStackCapabilitiesConfiguration override() {
+        configuration.override(OVERRIDES);
+        return configuration;
+    }
+}
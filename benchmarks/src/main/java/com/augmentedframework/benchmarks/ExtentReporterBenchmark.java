@@ -0,0 +1,93 @@
+package com.augmentedframework.benchmarks;
+
+import com.augmentedframework.utils.EnvironmentPropertiesReader;
+import com.augmentedframework.utils.ExtentReporter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of ExtentReporter.info, which every Log message ends in, while the report holds the given
+ * number of other running tests. Each benchmark thread is its own running test, registered through
+ * the public API and restarted every iteration. An iteration logs a batch of 1000 messages, about
+ * what a long test logs, since a report node gets slower to log to as it grows; the score is the
+ * time per batch. Report flushes are switched off, so
+ * only the logging call is measured.
+ *
+ * @author YSabato
+ * @version 1.0
+ * @since 10/18/2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, batchSize = 1000)
+@Measurement(iterations = 20, batchSize = 1000)
+@Fork(1)
+public class ExtentReporterBenchmark {
+
+    @Param({"1", "1000"})
+    public int runningTests;
+
+    private final List<ITestResult> others = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void register() {
+        System.setProperty("report.flushEvery", String.valueOf(Integer.MAX_VALUE));
+        System.setProperty("report.maxTestsPerFile", "0");
+        EnvironmentPropertiesReader.getInstance().reload();
+        ITestResult current = Reporter.getCurrentTestResult();
+        for (int i = 0; i < runningTests; i++) {
+            ITestResult other = FakeTestResult.of("runningTest" + i, true);
+            Reporter.setCurrentTestResult(other);
+            ExtentReporter.info("started");
+            others.add(other);
+        }
+        Reporter.setCurrentTestResult(current);
+    }
+
+    @TearDown(Level.Trial)
+    public void end() {
+        others.forEach(ExtentReporter::endTest);
+        others.clear();
+    }
+
+    @State(Scope.Thread)
+    public static class TestThread {
+        private ITestResult iTestResult;
+
+        // takes the benchmark state so the other tests are registered first
+        @Setup(Level.Iteration)
+        public void setUp(ExtentReporterBenchmark benchmark) {
+            iTestResult = FakeTestResult.of("info-" + Thread.currentThread().getName(), true);
+            Reporter.setCurrentTestResult(iTestResult);
+            ExtentReporter.info("started");
+        }
+
+        @TearDown(Level.Iteration)
+        public void tearDown() {
+            ExtentReporter.endTest(iTestResult);
+        }
+    }
+
+    @Benchmark
+    public void info(TestThread thread) {
+        ExtentReporter.info("Clicked on the login button");
+    }
+}
@@ -0,0 +1,102 @@
+package com.augmentedframework.benchmarks;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * FakeDriver answers every script with a fixed page state and every other call with empty
+ * values, so page readiness code can be measured without a browser round trip.
+ *
+ * @author YSabato
+ * @version 1.0
+ * @since 10/18/2026
+ */
+public class FakeDriver implements WebDriver, JavascriptExecutor {
+    private final Map<String, Object> state;
+
+    /**
+     * @param state - value returned by every executeScript call
+     */
+    public FakeDriver(Map<String, Object> state) {
+        this.state = state;
+    }
+
+    @Override
+    public Object executeScript(String script, Object... args) {
+        return state;
+    }
+
+    @Override
+    public Object executeAsyncScript(String script, Object... args) {
+        return state;
+    }
+
+    @Override
+    public void get(String url) {
+    }
+
+    @Override
+    public String getCurrentUrl() {
+        return "https://example.com/";
+    }
+
+    @Override
+    public String getTitle() {
+        return "Example";
+    }
+
+    @Override
+    public List<WebElement> findElements(By by) {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public WebElement findElement(By by) {
+        throw new UnsupportedOperationException("FakeDriver has no elements");
+    }
+
+    @Override
+    public String getPageSource() {
+        return "";
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public void quit() {
+    }
+
+    @Override
+    public Set<String> getWindowHandles() {
+        return Collections.emptySet();
+    }
+
+    @Override
+    public String getWindowHandle() {
+        return "";
+    }
+
+    @Override
+    public TargetLocator switchTo() {
+        throw new UnsupportedOperationException("FakeDriver has no windows");
+    }
+
+    @Override
+    public Navigation navigate() {
+        throw new UnsupportedOperationException("FakeDriver has no navigation");
+    }
+
+    @Override
+    public Options manage() {
+        throw new UnsupportedOperationException("FakeDriver has no options");
+    }
+}
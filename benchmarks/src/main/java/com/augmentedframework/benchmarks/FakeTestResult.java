@@ -0,0 +1,102 @@
+package com.augmentedframework.benchmarks;
+
+import org.testng.ITestClass;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.io.File;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * FakeTestResult builds the TestNG objects Log and ExtentReporter read from the current test
+ * result, so framework code can run outside a TestNG run. Attributes are kept per object;
+ * every other method not listed returns null, false or zero.
+ *
+ * @author YSabato
+ * @version 1.0
+ * @since 10/18/2026
+ */
+public final class FakeTestResult {
+    private static final String OUTPUT_DIRECTORY = "target" + File.separator + "benchmark-output" + File.separator + "benchmarks";
+    private static final XmlTest xmlTest = new XmlTest(new XmlSuite());
+    private static final AtomicInteger ids = new AtomicInteger();
+
+    private FakeTestResult() {
+    }
+
+    /**
+     * Returns a test result for the given method name
+     *
+     * @param name - method name
+     * @param isTest - true for a @Test method, false for a configuration method
+     * @return fake test result
+     */
+    public static ITestResult of(String name, boolean isTest) {
+        new File(OUTPUT_DIRECTORY).mkdirs();
+        ITestContext context = proxy(ITestContext.class, Map.of(
+                "getOutputDirectory", OUTPUT_DIRECTORY,
+                "getCurrentXmlTest", xmlTest,
+                "getName", "benchmarks"));
+        ITestClass testClass = proxy(ITestClass.class, Map.of(
+                "getRealClass", FakeTestResult.class,
+                "getName", FakeTestResult.class.getName()));
+        ITestNGMethod method = proxy(ITestNGMethod.class, Map.of(
+                "isTest", isTest,
+                "getMethodName", name,
+                "getGroups", new String[0],
+                "getTestClass", testClass));
+        return proxy(ITestResult.class, Map.of(
+                "id", name + "@" + ids.incrementAndGet(),
+                "getName", name,
+                "getMethod", method,
+                "getTestClass", testClass,
+                "getTestContext", context,
+                "getParameters", new Object[0],
+                "isSuccess", true));
+    }
+
+    private static <T> T proxy(Class<T> type, Map<String, Object> values) {
+        Map<String, Object> attributes = new ConcurrentHashMap<>();
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (instance, method, args) -> {
+            switch (method.getName()) {
+                case "getAttribute":
+                    return attributes.get((String) args[0]);
+                case "setAttribute":
+                    attributes.put((String) args[0], args[1]);
+                    return null;
+                case "removeAttribute":
+                    return attributes.remove((String) args[0]);
+                case "getAttributeNames":
+                    return attributes.keySet();
+                case "hashCode":
+                    return System.identityHashCode(instance);
+                case "equals":
+                    return instance == args[0];
+                case "toString":
+                    return type.getSimpleName() + "[" + values.getOrDefault("getName", values.get("getMethodName")) + "]";
+                default:
+                    break;
+            }
+            if (values.containsKey(method.getName())) {
+                return values.get(method.getName());
+            }
+            Class<?> returnType = method.getReturnType();
+            if (returnType == boolean.class) {
+                return false;
+            }
+            if (returnType == int.class) {
+                return 0;
+            }
+            if (returnType == long.class) {
+                return 0L;
+            }
+            return null;
+        }));
+    }
+}
@@ -0,0 +1,85 @@
+package com.augmentedframework.benchmarks;
+
+import com.augmentedframework.utils.JsonUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JsonUtil comparisons of API style documents: an object with an array of items. Covers the
+ * streaming path for identical documents, the tree fallback for reordered members and
+ * unordered arrays, and collecting differences.
+ *
+ * @author YSabato
+ * @version 1.0
+ * @since 10/18/2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonComparisonBenchmark {
+    private static final JsonUtil.Options STRICT = JsonUtil.Options.strict();
+    private static final JsonUtil.Options LENIENT = JsonUtil.Options.lenient();
+
+    @Param({"10", "1000"})
+    public int items;
+
+    private String expected;
+    private String identical;
+    private String reordered;
+    private String changed;
+
+    @Setup
+    public void setUp() {
+        List<String> ordered = new ArrayList<>();
+        List<String> membersReordered = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            ordered.add(String.format("{\"id\":%d,\"name\":\"item-%d\",\"price\":%d.5,\"tags\":[\"a\",\"b\"],\"active\":true}", i, i, i));
+            membersReordered.add(String.format("{\"active\":true,\"tags\":[\"a\",\"b\"],\"price\":%d.5,\"name\":\"item-%d\",\"id\":%d}", i, i, i));
+        }
+        Collections.shuffle(membersReordered, new Random(17));
+        List<String> withChange = new ArrayList<>(ordered);
+        withChange.set(items / 2, withChange.get(items / 2).replace("\"active\":true", "\"active\":false"));
+
+        expected = document(ordered);
+        identical = document(ordered);
+        reordered = document(membersReordered);
+        changed = document(withChange);
+    }
+
+    private static String document(List<String> items) {
+        return "{\"page\":1,\"total\":" + items.size() + ",\"items\":[" + String.join(",", items) + "]}";
+    }
+
+    @Benchmark
+    public boolean strictIdentical() {
+        return JsonUtil.isEqual(expected, identical, STRICT);
+    }
+
+    @Benchmark
+    public boolean lenientReordered() {
+        return JsonUtil.isEqual(expected, reordered, LENIENT);
+    }
+
+    @Benchmark
+    public JsonUtil.Result strictWithDifference() {
+        return JsonUtil.compare(expected, changed, STRICT);
+    }
+}
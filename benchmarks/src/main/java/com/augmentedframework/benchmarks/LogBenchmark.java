@@ -0,0 +1,77 @@
+package com.augmentedframework.benchmarks;
+
+import com.augmentedframework.utils.EnvironmentPropertiesReader;
+import com.augmentedframework.utils.Log;
+import com.augmentedframework.utils.LogFlushListener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.testng.Reporter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of Log.message and Log.event on the calling thread. With log.async the producer only
+ * captures the event, until the bounded buffer fills and the consumer sets the pace; without
+ * it every call writes to Reporter, ExtentReporter and log4j itself. The test result is a
+ * configuration method, so the Extent nodes are not kept in a report between iterations.
+ *
+ * @author YSabato
+ * @version 1.0
+ * @since 10/18/2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogBenchmark {
+
+    // each value runs in its own fork
+    @Param({"true", "false"})
+    public String async;
+
+    @State(Scope.Thread)
+    public static class TestThread {
+        @Setup(Level.Trial)
+        public void setUp(LogBenchmark benchmark) {
+            System.setProperty("log.async", benchmark.async);
+            EnvironmentPropertiesReader.getInstance().reload();
+            // a run logs asynchronously only with its flush barrier registered
+            new LogFlushListener();
+            Reporter.setCurrentTestResult(FakeTestResult.of("logBenchmark", false));
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void drain() {
+        Log.flush();
+        Reporter.clear();
+    }
+
+    @Benchmark
+    public void message(TestThread thread) {
+        Log.message("Clicked on the login button");
+    }
+
+    @Benchmark
+    public void event(TestThread thread) {
+        Log.event("Page URL:: https://example.com/login");
+    }
+
+    @Benchmark
+    public void timedEvent(TestThread thread) {
+        Log.event("Page Load Wait: (Sync)", 125);
+    }
+}
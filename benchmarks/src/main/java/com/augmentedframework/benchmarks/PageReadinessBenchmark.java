@@ -0,0 +1,80 @@
+package com.augmentedframework.benchmarks;
+
+import com.augmentedframework.utils.PageReadiness;
+import com.augmentedframework.utils.PollingStrategy;
+import com.augmentedframework.utils.PollingWait;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client side cost of the page readiness probes: evaluating the script result for every
+ * condition and recording when it was met. The fake driver returns the state without a
+ * browser round trip, so the numbers are the framework's share of every poll.
+ *
+ * @author YSabato
+ * @version 1.0
+ * @since 10/18/2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageReadinessBenchmark {
+    private static final ExpectedCondition<Boolean> DOCUMENT_AND_AJAX = PageReadiness.of(PageReadiness.Condition.DOCUMENT, PageReadiness.Condition.AJAX);
+    private static final PollingStrategy POLLING = PollingStrategy.fixed(Duration.ofMillis(5));
+
+    @Param({"true", "false"})
+    public boolean ready;
+
+    private FakeDriver driver;
+    private final FakeDriver loadedDriver = new FakeDriver(Map.of("document", true, "ajax", true, "images", true, "frames", true));
+
+    @Setup
+    public void setUp() {
+        driver = new FakeDriver(Map.of(
+                "document", true,
+                "ajax", true,
+                "images", ready,
+                "frames", true,
+                "networkIdle", ready));
+    }
+
+    @Benchmark
+    public Boolean allConditions() {
+        return PageReadiness.all(false, 500).apply(driver);
+    }
+
+    @Benchmark
+    public Boolean networkIdle() {
+        return PageReadiness.all(true, 500).apply(driver);
+    }
+
+    @Benchmark
+    public Boolean documentAndAjax() {
+        return DOCUMENT_AND_AJAX.apply(driver);
+    }
+
+    /**
+     * Wait overhead around a probe that succeeds on the first poll, including the statistics update
+     */
+    @Benchmark
+    public Boolean pollingWaitLoaded() {
+        return PollingWait.until(loadedDriver, "Page Load", PageReadiness.all(false, 500), PollingWait.Budget.of(Duration.ofSeconds(1)), POLLING);
+    }
+}
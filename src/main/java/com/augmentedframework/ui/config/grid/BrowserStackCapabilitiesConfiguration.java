@@ -1,14 +1,17 @@
 package com.augmentedframework.ui.config.grid;
 
+import com.augmentedframework.utils.EnvironmentPropertiesReader;
 import com.augmentedframework.utils.Log;
 
 import lombok.Getter;
 import lombok.Setter;
 
-import org.apache.commons.lang3.ArrayUtils;
 import org.openqa.selenium.remote.DesiredCapabilities;
 
-import java.lang.reflect.*;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.util.*;
 
 /**
@@ -47,6 +50,30 @@ public class BrowserStackCapabilitiesConfiguration implements IGridCapabilitiesC
 
     private String idleTimeout;
 
+    // Field-to-capability mapping, built once per class instead of reflecting on every call
+    private static final List<String> capNotToInclude = Arrays.asList("idleTimeout", "local", "consoleLogs", "networkLogs");
+    private static final List<CapabilityAccessor> capabilityAccessors = new ArrayList<>();
+    private static final Map<String, CapabilityAccessor> accessorsByName = new HashMap<>();
+
+    static {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        for (Field field : BrowserStackCapabilitiesConfiguration.class.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) {
+                continue;
+            }
+            try {
+                CapabilityAccessor accessor = new CapabilityAccessor(field.getName(), field.getType(),
+                        lookup.unreflectGetter(field), lookup.unreflectSetter(field));
+                accessorsByName.put(field.getName(), accessor);
+                if (!capNotToInclude.contains(field.getName())) {
+                    capabilityAccessors.add(accessor);
+                }
+            } catch (IllegalAccessException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
     @Override
     public DesiredCapabilities getDesiredCapabilities() {
         DesiredCapabilities caps = new DesiredCapabilities();
@@ -55,20 +82,16 @@ public class BrowserStackCapabilitiesConfiguration implements IGridCapabilitiesC
     }
 
     private void setBrowserStackOptions(DesiredCapabilities caps) {
-        List<String> capNotToInclude = Arrays.asList("idleTimeout", "local", "consoleLogs", "networkLogs");
-        List<Field> fields = new ArrayList<>(Arrays.asList(this.getClass().getDeclaredFields()));
-        fields.forEach(field -> {
-            try {
-                if (field.get(this) != null && !capNotToInclude.contains(field.getName())) {
-                    caps.setCapability(field.getName(), (String) field.get(this));
-                }
-            } catch (IllegalAccessException e) {
-                e.printStackTrace();
+        for (CapabilityAccessor accessor : capabilityAccessors) {
+            Object value = accessor.get(this);
+            if (value != null) {
+                caps.setCapability(accessor.name, accessor.toCapabilityValue(value));
             }
-        });
+        }
         caps.setCapability("browserstack.idleTimeout", idleTimeout);
-        boolean local = System.getProperty("local") != null ? Boolean.valueOf(System.getProperty("local")) : this.local != null ? Boolean.valueOf(this.local): false;
-        boolean captureNetworkLogs = System.getProperty("networkLogs") != null ? Boolean.valueOf(System.getProperty("networkLogs")) : this.networkLogs != null ? Boolean.valueOf(this.networkLogs) : false;
+        EnvironmentPropertiesReader config = EnvironmentPropertiesReader.getInstance();
+        boolean local = config.getBoolean("local", Boolean.parseBoolean(this.local));
+        boolean captureNetworkLogs = config.getBoolean("networkLogs", Boolean.parseBoolean(this.networkLogs));
         boolean captureConsoleLogs = this.consoleLogs != null ? Boolean.valueOf(this.consoleLogs) : false;
         caps.setCapability("browserstack.local", local);
         caps.setCapability("browserstack.networkLogs", captureNetworkLogs);
@@ -79,26 +102,68 @@ public class BrowserStackCapabilitiesConfiguration implements IGridCapabilitiesC
         capsToOverride.forEach((cap, value) -> {
             try {
                 invokeSetter(cap, value);
-            } catch (IllegalAccessException e) {
+            } catch (IllegalStateException | IllegalArgumentException e) {
                 Log.message(String.format("Illegal capability %s found.", cap));
-            } catch (InvocationTargetException e) {
-                e.printStackTrace();
             } catch (NoSuchMethodException e) {
                 Log.message("Unable to override capability. " + e.getMessage());
             }
         });
     }
 
-    private void invokeSetter(String fieldName, String value) throws NoSuchMethodException, IllegalAccessException, InvocationTargetException {
-        String setterName = "set" + fieldName.toUpperCase().charAt(0) + fieldName.substring(1);
-        Method setter = null;
-        try {
-            setter = this.getClass().getMethod(setterName, String.class);
-        } catch(Exception e) {
-            // MaskCommands takes string[] hence it is getting failed. Handling that using String[]
-            setter = this.getClass().getMethod(setterName, String[].class);
+    private void invokeSetter(String fieldName, String value) throws NoSuchMethodException {
+        CapabilityAccessor accessor = accessorsByName.get(fieldName);
+        if (accessor == null) {
+            throw new NoSuchMethodException("No capability named " + fieldName);
         }
+        accessor.set(this, value);
+    }
+
+    /**
+     * Getter and setter handles of one capability field, with conversion between the
+     * String override values, the field type and the capability value
+     */
+    private static class CapabilityAccessor {
+        private final String name;
+        private final Class<?> type;
+        private final MethodHandle getter;
+        private final MethodHandle setter;
 
-        setter.invoke(this, value);
+        private CapabilityAccessor(String name, Class<?> type, MethodHandle getter, MethodHandle setter) {
+            this.name = name;
+            this.type = type;
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        private Object get(BrowserStackCapabilitiesConfiguration config) {
+            try {
+                return getter.invoke(config);
+            } catch (Throwable e) {
+                throw new IllegalStateException("Unable to read capability " + name, e);
+            }
+        }
+
+        private void set(BrowserStackCapabilitiesConfiguration config, String value) {
+            try {
+                setter.invoke(config, fromString(value));
+            } catch (Throwable e) {
+                throw new IllegalStateException("Unable to override capability " + name, e);
+            }
+        }
+
+        private Object fromString(String value) {
+            if (value == null || type == String.class) {
+                return value;
+            }
+            if (type == String[].class) {
+                return Arrays.stream(value.split(",")).map(String::trim).filter(command -> !command.isEmpty()).toArray(String[]::new);
+            }
+            throw new IllegalArgumentException("Unsupported capability type " + type.getSimpleName());
+        }
+
+        private Object toCapabilityValue(Object value) {
+            // BrowserStack takes list capabilities such as maskCommands as a comma separated string
+            return value instanceof String[] ? String.join(",", (String[]) value) : value;
+        }
     }
 }
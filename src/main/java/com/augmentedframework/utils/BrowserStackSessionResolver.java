@@ -0,0 +1,119 @@
+package com.augmentedframework.utils;
+
+import com.google.common.util.concurrent.RateLimiter;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * BrowserStackSessionResolver looks up the public URL of a BrowserStack session in the
+ * background so session creation never waits on the REST endpoint. Lookups run on a
+ * single worker thread, throttled to a fixed rate, and results are cached by session id.
+ * Failed lookups are not cached, so the next request for the session tries again.
+ *
+ * @author YSabato
+ * @version 1.0
+ * @since 10/18/2026
+ */
+public class BrowserStackSessionResolver {
+    private static final Logger logger = LoggerFactory.getLogger(BrowserStackSessionResolver.class);
+
+    private final Function<String, String> sessionUrl;
+    private final RateLimiter rateLimiter;
+    private final Map<String, CompletableFuture<String>> publicUrls = new ConcurrentHashMap<>();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "browserstack-session-resolver");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * @param sessionUrl - maps a session id to its REST session details URL
+     * @param lookupsPerSecond - maximum calls made to the REST endpoint per second
+     */
+    public BrowserStackSessionResolver(Function<String, String> sessionUrl, double lookupsPerSecond) {
+        this.sessionUrl = sessionUrl;
+        this.rateLimiter = RateLimiter.create(lookupsPerSecond);
+    }
+
+    /**
+     * Returns the public URL of the session. The REST endpoint is called once per session
+     * id while the lookup is running or after it succeeded; later calls share the result.
+     *
+     * @param sessionId - remote session id
+     * @return future completed with the public URL
+     */
+    public CompletableFuture<String> resolve(String sessionId) {
+        CompletableFuture<String> lookup = new CompletableFuture<>();
+        CompletableFuture<String> cached = publicUrls.putIfAbsent(sessionId, lookup);
+        if (cached != null) {
+            return cached;
+        }
+        CompletableFuture.supplyAsync(() -> fetchPublicUrl(sessionId), worker).whenComplete((url, error) -> {
+            if (error != null) {
+                // dropped before completing, so a caller seeing the failure can retry
+                publicUrls.remove(sessionId, lookup);
+                lookup.completeExceptionally(error);
+            } else {
+                lookup.complete(url);
+            }
+        });
+        return lookup;
+    }
+
+    /**
+     * Resolves the public URL in the background and, once it arrives, writes it to the
+     * log and to the report of the test running on the calling thread
+     *
+     * @param sessionId - remote session id
+     * @param testName - test that owns the session
+     */
+    public void attach(String sessionId, String testName) {
+        attach(sessionId, testName, Reporter.getCurrentTestResult());
+    }
+
+    /**
+     * Resolves the public URL in the background and, once it arrives, writes it to the
+     * log and to the report of the given test
+     *
+     * @param sessionId - remote session id
+     * @param testName - test that owns the session
+     * @param iTestResult - test result to report against, may be null
+     */
+    public void attach(String sessionId, String testName, ITestResult iTestResult) {
+        resolve(sessionId).whenComplete((url, error) -> {
+            if (error != null) {
+                logger.error("Issue getting public URL of BrowserStack for " + testName + ": " + error.getMessage());
+                return;
+            }
+            logger.info("BrowserStack link for " + testName + ":: " + url);
+            if (iTestResult != null) {
+                ExtentReporter.attach(iTestResult, "BrowserStack session: <a href=\"" + url + "\">" + url + "</a>");
+            }
+        });
+    }
+
+    /**
+     * Drops the cached URL of a closed session
+     *
+     * @param sessionId - remote session id
+     */
+    public void forget(String sessionId) {
+        publicUrls.remove(sessionId);
+    }
+
+    private String fetchPublicUrl(String sessionId) {
+        rateLimiter.acquire();
+        String sessionBody = RestAssuredAPI.given().get(sessionUrl.apply(sessionId)).body().asString();
+        return new JSONObject(sessionBody).getJSONObject("automation_session").getString("public_url");
+    }
+}
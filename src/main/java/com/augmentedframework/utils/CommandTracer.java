@@ -0,0 +1,329 @@
+package com.augmentedframework.utils;
+
+import org.openqa.selenium.remote.Command;
+import org.openqa.selenium.remote.CommandExecutor;
+import org.openqa.selenium.remote.Response;
+import org.testng.ITestResult;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * CommandTracer times every remote WebDriver command at the {@link CommandExecutor} level, so
+ * each round trip to the grid is measured once whatever API issued it. Commands are recorded
+ * as command spans in {@link Instrumentation} by command name and collected per test into a
+ * {@link Trace}: round trips, time per command, a timeline capped at tracing.timelineMax
+ * entries, and chatty patterns, i.e. a command or a cycle of up to three commands repeated
+ * tracing.chattyIterations times in a row, such as findElement in a loop.
+ * {@link #report(ITestResult)} writes the trace to the log and report when the test ends.
+ *
+ * @author YSabato
+ * @version 1.0
+ * @since 10/18/2026
+ */
+public final class CommandTracer {
+    private static final int MAX_PERIOD = 3;
+    // held only while a test's trace is created, on its first command
+    private static final ReentrantLock creating = new ReentrantLock();
+
+    private CommandTracer() {
+    }
+
+    public static boolean isEnabled() {
+        return EnvironmentPropertiesReader.getInstance().getBoolean("tracing.enabled", true);
+    }
+
+    /**
+     * Wraps the executor of a RemoteWebDriver so every command is traced
+     *
+     * @param executor - executor sending the commands
+     * @return tracing executor
+     */
+    public static CommandExecutor wrap(CommandExecutor executor) {
+        return new TracingCommandExecutor(executor);
+    }
+
+    /**
+     * Returns the trace collected so far for the test, or null if it sent no command
+     *
+     * @param iTestResult - test
+     * @return trace
+     */
+    public static Trace getTrace(ITestResult iTestResult) {
+        return iTestResult == null ? null : TestContext.of(iTestResult).trace;
+    }
+
+    /**
+     * Writes the test's command summary, chatty patterns and timeline to the log and report,
+     * and detaches the trace from the test
+     *
+     * @param iTestResult - finished test
+     * @return the reported trace, or null if the test sent no command
+     */
+    public static Trace report(ITestResult iTestResult) {
+        Trace trace = getTrace(iTestResult);
+        if (trace == null) {
+            return null;
+        }
+        TestContext.of(iTestResult).trace = null;
+        trace.finish();
+        Log.message(trace.toHtml());
+        for (String pattern : trace.getChattyPatterns()) {
+            Log.message("<b>Chatty WebDriver pattern</b>: " + pattern);
+        }
+        return trace;
+    }
+
+    private static Trace currentTrace() {
+        TestContext context = TestContext.current();
+        if (context == null) {
+            return null;
+        }
+        Trace trace = context.trace;
+        if (trace == null) {
+            creating.lock();
+            try {
+                trace = context.trace;
+                if (trace == null) {
+                    trace = new Trace(context.getResult());
+                    context.trace = trace;
+                }
+            } finally {
+                creating.unlock();
+            }
+        }
+        return trace;
+    }
+
+    private static final class TracingCommandExecutor implements CommandExecutor {
+        private final CommandExecutor delegate;
+
+        private TracingCommandExecutor(CommandExecutor delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Response execute(Command command) throws IOException {
+            if (!isEnabled()) {
+                return delegate.execute(command);
+            }
+            String name = command.getName();
+            long start = System.nanoTime();
+            boolean failed = true;
+            try (Instrumentation.Span ignored = Instrumentation.start(Instrumentation.Kind.COMMAND, name)) {
+                Response response = delegate.execute(command);
+                failed = response != null && response.getState() != null && !"success".equals(response.getState());
+                return response;
+            } finally {
+                long end = System.nanoTime();
+                Instrumentation.count("webdriver.roundTrips");
+                Trace trace = currentTrace();
+                if (trace != null) {
+                    trace.record(name, start, end, failed);
+                }
+            }
+        }
+    }
+
+    /**
+     * Remote commands sent on behalf of one test
+     */
+    public static final class Trace {
+        private final ITestResult iTestResult;
+        private final long origin;
+        private final int timelineMax = EnvironmentPropertiesReader.getInstance().getInt("tracing.timelineMax", 300);
+        private final int chattyIterations = Math.max(2, EnvironmentPropertiesReader.getInstance().getInt("tracing.chattyIterations", 10));
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<String, long[]> byCommand = new TreeMap<>();
+        private final List<Entry> timeline = new ArrayList<>();
+        private final Map<String, long[]> patterns = new LinkedHashMap<>();
+        private int roundTrips;
+        private long remoteNanos;
+        private long lastEnd;
+
+        // the last commands and, per cycle length, how many commands repeated the one that many back
+        private final String[] recent = new String[MAX_PERIOD + 1];
+        private final long[] recentStart = new long[MAX_PERIOD + 1];
+        private final int[] runLength = new int[MAX_PERIOD + 1];
+        private final long[] runStart = new long[MAX_PERIOD + 1];
+
+        private Trace(ITestResult iTestResult) {
+            this.iTestResult = iTestResult;
+            // timeline offsets count from the start of the test
+            this.origin = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(Math.max(0, System.currentTimeMillis() - iTestResult.getStartMillis()));
+        }
+
+        private void record(String name, long start, long end, boolean failed) {
+            lock.lock();
+            try {
+                long nanos = end - start;
+                roundTrips++;
+                remoteNanos += nanos;
+                long[] totals = byCommand.computeIfAbsent(name, k -> new long[3]);
+                totals[0]++;
+                totals[1] += nanos;
+                totals[2] = Math.max(totals[2], nanos);
+                if (timeline.size() < timelineMax) {
+                    timeline.add(new Entry(start - origin, name, nanos, failed));
+                }
+                for (int period = 1; period <= MAX_PERIOD; period++) {
+                    int back = roundTrips - 1 - period;
+                    if (back >= 0 && name.equals(recent[back % recent.length])) {
+                        if (runLength[period] == 0) {
+                            runStart[period] = recentStart[back % recent.length];
+                        }
+                        runLength[period]++;
+                    } else {
+                        endRun(period, roundTrips - 1);
+                    }
+                }
+                recent[(roundTrips - 1) % recent.length] = name;
+                recentStart[(roundTrips - 1) % recent.length] = start;
+                lastEnd = end;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Records the run of the given cycle length that ended before the given command
+         */
+        private void endRun(int period, int next) {
+            int iterations = (runLength[period] + period) / period;
+            if (runLength[period] > 0 && iterations >= chattyIterations) {
+                List<String> cycle = new ArrayList<>();
+                for (int i = period; i >= 1; i--) {
+                    cycle.add(recent[(next - i) % recent.length]);
+                }
+                // a single command repeated also repeats with every longer cycle length
+                if (period == 1 || cycle.stream().distinct().count() > 1) {
+                    long[] pattern = patterns.computeIfAbsent(rotate(cycle), k -> new long[3]);
+                    pattern[0]++;
+                    pattern[1] = Math.max(pattern[1], iterations);
+                    pattern[2] += lastEnd - runStart[period];
+                }
+            }
+            runLength[period] = 0;
+        }
+
+        /**
+         * Names a cycle from its alphabetically first command, so findElement, click and
+         * click, findElement are one pattern
+         */
+        private static String rotate(List<String> cycle) {
+            int first = cycle.indexOf(Collections.min(cycle));
+            List<String> rotated = new ArrayList<>(cycle.subList(first, cycle.size()));
+            rotated.addAll(cycle.subList(0, first));
+            return String.join(" > ", rotated);
+        }
+
+        private void finish() {
+            lock.lock();
+            try {
+                for (int period = 1; period <= MAX_PERIOD; period++) {
+                    endRun(period, roundTrips);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        public int getRoundTrips() {
+            lock.lock();
+            try {
+                return roundTrips;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        public long getRemoteMillis() {
+            lock.lock();
+            try {
+                return TimeUnit.NANOSECONDS.toMillis(remoteNanos);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Returns the number of round trips per command name
+         *
+         * @return counts by command name
+         */
+        public Map<String, Long> getCommandCounts() {
+            lock.lock();
+            try {
+                Map<String, Long> counts = new TreeMap<>();
+                byCommand.forEach((name, totals) -> counts.put(name, totals[0]));
+                return counts;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Returns the chatty patterns found in finished runs
+         *
+         * @return descriptions such as "findElement > getElementText repeated 40 times (2 runs, 812 ms)"
+         */
+        public List<String> getChattyPatterns() {
+            lock.lock();
+            try {
+                List<String> descriptions = new ArrayList<>();
+                patterns.forEach((cycle, pattern) -> descriptions.add(String.format("%s repeated %d times (%d run%s, %d ms)",
+                        cycle, pattern[1], pattern[0], pattern[0] == 1 ? "" : "s", TimeUnit.NANOSECONDS.toMillis(pattern[2]))));
+                return descriptions;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private String toHtml() {
+            lock.lock();
+            try {
+                long testMillis = System.currentTimeMillis() - iTestResult.getStartMillis();
+                StringBuilder html = new StringBuilder("<b>WebDriver commands</b>: ").append(roundTrips).append(" round trips, ")
+                        .append(getRemoteMillis()).append(" ms remote");
+                if (testMillis > 0) {
+                    html.append(String.format(" (%.0f%% of %d ms)", 100.0 * getRemoteMillis() / testMillis, testMillis));
+                }
+                html.append("<table><tr><th>command</th><th>count</th><th>total ms</th><th>mean ms</th><th>max ms</th></tr>");
+                byCommand.forEach((name, totals) -> html.append("<tr><td>").append(name).append("</td><td>").append(totals[0])
+                        .append(String.format("</td><td>%.1f</td><td>%.2f</td><td>%.1f</td></tr>", totals[1] / 1e6, totals[1] / 1e6 / totals[0], totals[2] / 1e6)));
+                html.append("</table><details><summary>Timeline</summary><table><tr><th>at ms</th><th>command</th><th>ms</th></tr>");
+                for (Entry entry : timeline) {
+                    html.append(String.format("<tr><td>%.1f</td><td>%s%s</td><td>%.2f</td></tr>", entry.offsetNanos / 1e6, entry.name,
+                            entry.failed ? " (failed)" : "", entry.nanos / 1e6));
+                }
+                if (roundTrips > timeline.size()) {
+                    html.append("<tr><td colspan=\"3\">").append(roundTrips - timeline.size()).append(" more commands not shown</td></tr>");
+                }
+                return html.append("</table></details>").toString();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final long offsetNanos;
+        private final String name;
+        private final long nanos;
+        private final boolean failed;
+
+        private Entry(long offsetNanos, String name, long nanos, boolean failed) {
+            this.offsetNanos = offsetNanos;
+            this.name = name;
+            this.nanos = nanos;
+            this.failed = failed;
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.augmentedframework.utils;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * CompiledSheet is the binary form of one test data sheet, read through a read-only memory
+ * map so that lookups need no parsing and every JVM on the node shares the same page cache.
+ * Layout (big-endian ints):
+ * <pre>
+ * magic, version, columnCount, rowCount, idColumn, stringCount
+ * header string ids             [columnCount]
+ * string end offsets            [stringCount]
+ * cell string ids, per column   [columnCount * rowCount]
+ * id index (hash, row) by hash  [rowCount * 2]
+ * UTF-8 string data
+ * </pre>
+ * Every distinct string is stored once; string 0 is the empty string.
+ *
+ * @author YSabato
+ * @version 1.0
+ * @since 10/18/2026
+ */
+class CompiledSheet {
+    private static final int MAGIC = 0x41544443;
+    private static final int VERSION = 1;
+    private static final int HEADER_INTS = 6;
+
+    private final MappedByteBuffer buffer;
+    private final int columnCount;
+    private final int rowCount;
+    private final int idColumn;
+    private final int stringCount;
+    private final int offsetsStart;
+    private final int cellsStart;
+    private final int indexStart;
+    private final int stringsStart;
+    private final List<String> headers;
+
+    private CompiledSheet(MappedByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_INTS * 4 || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IllegalStateException("Not a compiled test data file");
+        }
+        columnCount = buffer.getInt(8);
+        rowCount = buffer.getInt(12);
+        idColumn = buffer.getInt(16);
+        stringCount = buffer.getInt(20);
+        offsetsStart = (HEADER_INTS + columnCount) * 4;
+        cellsStart = offsetsStart + stringCount * 4;
+        indexStart = cellsStart + columnCount * rowCount * 4;
+        stringsStart = indexStart + rowCount * 8;
+        if (stringCount < 1 || stringsStart + end(stringCount - 1) != buffer.capacity()) {
+            throw new IllegalStateException("Truncated compiled test data file");
+        }
+        List<String> names = new ArrayList<>(columnCount);
+        for (int column = 0; column < columnCount; column++) {
+            names.add(string(buffer.getInt((HEADER_INTS + column) * 4)));
+        }
+        headers = Collections.unmodifiableList(names);
+    }
+
+    /**
+     * Maps a compiled file
+     *
+     * @param file - compiled file
+     * @return compiled sheet
+     * @throws IOException when the file cannot be mapped
+     */
+    static CompiledSheet open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new CompiledSheet(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    List<String> getHeaders() {
+        return headers;
+    }
+
+    int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Finds the row of a test data id by binary search over the id hash index
+     *
+     * @param testDataId - value of the id column
+     * @return row, or an empty map
+     */
+    Map<String, String> find(String testDataId) {
+        int hash = testDataId.hashCode();
+        int low = 0;
+        int high = rowCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midHash = buffer.getInt(indexStart + mid * 8);
+            if (midHash < hash) {
+                low = mid + 1;
+            } else if (midHash > hash) {
+                high = mid - 1;
+            } else {
+                // step back to the first entry of this hash, then check each colliding row
+                while (mid > 0 && buffer.getInt(indexStart + (mid - 1) * 8) == hash) {
+                    mid--;
+                }
+                for (; mid < rowCount && buffer.getInt(indexStart + mid * 8) == hash; mid++) {
+                    int row = buffer.getInt(indexStart + mid * 8 + 4);
+                    if (testDataId.equals(cell(row, idColumn))) {
+                        return row(row);
+                    }
+                }
+                break;
+            }
+        }
+        return Collections.emptyMap();
+    }
+
+    /**
+     * Returns the rows in sheet order, decoded as they are iterated
+     *
+     * @return row iterator
+     */
+    Iterator<Object[]> rows() {
+        return new Iterator<Object[]>() {
+            private int row;
+
+            @Override
+            public boolean hasNext() {
+                return row < rowCount;
+            }
+
+            @Override
+            public Object[] next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return new Object[]{row(row++)};
+            }
+        };
+    }
+
+    private Map<String, String> row(int row) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (int column = 0; column < columnCount; column++) {
+            values.put(headers.get(column), cell(row, column));
+        }
+        return values;
+    }
+
+    private String cell(int row, int column) {
+        return string(buffer.getInt(cellsStart + (column * rowCount + row) * 4));
+    }
+
+    private String string(int id) {
+        int start = id == 0 ? 0 : end(id - 1);
+        byte[] bytes = new byte[end(id) - start];
+        buffer.get(stringsStart + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int end(int id) {
+        return buffer.getInt(offsetsStart + id * 4);
+    }
+
+    /**
+     * Collects rows and writes the compiled file
+     */
+    static class Writer {
+        private final List<String> headers;
+        private final int idColumn;
+        private final Map<String, Integer> dictionary = new HashMap<>();
+        private final List<String> strings = new ArrayList<>();
+        private final List<int[]> rows = new ArrayList<>();
+
+        Writer(List<String> headers, int idColumn) {
+            this.headers = headers;
+            this.idColumn = idColumn;
+            intern("");
+            headers.forEach(this::intern);
+        }
+
+        void add(Map<String, String> row) {
+            int[] ids = new int[headers.size()];
+            for (int column = 0; column < ids.length; column++) {
+                String value = row.get(headers.get(column));
+                ids[column] = intern(value != null ? value : "");
+            }
+            rows.add(ids);
+        }
+
+        /**
+         * Writes to a temporary file next to the target and moves it into place, so concurrent
+         * JVMs compiling the same source never see a partial file
+         *
+         * @param target - compiled file
+         * @throws IOException when the file cannot be written
+         */
+        void write(Path target) throws IOException {
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+            try {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                    writeTo(out);
+                }
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+
+        private void writeTo(DataOutputStream out) throws IOException {
+            List<byte[]> encoded = new ArrayList<>(strings.size());
+            strings.forEach(value -> encoded.add(value.getBytes(StandardCharsets.UTF_8)));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(headers.size());
+            out.writeInt(rows.size());
+            out.writeInt(idColumn);
+            out.writeInt(strings.size());
+            for (String header : headers) {
+                out.writeInt(dictionary.get(header));
+            }
+            int end = 0;
+            for (byte[] bytes : encoded) {
+                end += bytes.length;
+                out.writeInt(end);
+            }
+            for (int column = 0; column < headers.size(); column++) {
+                for (int[] row : rows) {
+                    out.writeInt(row[column]);
+                }
+            }
+            List<Map.Entry<Integer, Integer>> index = new ArrayList<>(rows.size());
+            for (int row = 0; row < rows.size(); row++) {
+                index.add(new AbstractMap.SimpleImmutableEntry<>(strings.get(rows.get(row)[idColumn]).hashCode(), row));
+            }
+            index.sort(Map.Entry.<Integer, Integer>comparingByKey().thenComparing(Map.Entry.comparingByValue()));
+            for (Map.Entry<Integer, Integer> entry : index) {
+                out.writeInt(entry.getKey());
+                out.writeInt(entry.getValue());
+            }
+            for (byte[] bytes : encoded) {
+                out.write(bytes);
+            }
+        }
+
+        private int intern(String value) {
+            return dictionary.computeIfAbsent(value, v -> {
+                strings.add(v);
+                return strings.size() - 1;
+            });
+        }
+    }
+}
@@ -1,16 +1,610 @@
 package com.augmentedframework.utils;
 
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.ref.Cleaner;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
 /**
  * Data Utils finds Row and Column count, reads excel headers,
  * retrieves testdata id and fetches testdata values
+ * <p>
+ * Workbooks (.xlsx) are read with the POI event (SAX) model, never through a workbook
+ * object: the header row is indexed once per sheet and file version, the first test data
+ * lookup parses the sheet once into an index of the row number of each id, later lookups
+ * stream only up to the requested row, and {@link #dataProvider(String, String)}
+ * yields rows on demand from a small prefetch buffer (testdata.prefetchRows). The id column is the header
+ * named by testdata.idColumn, or the first column. Relative workbook paths are resolved
+ * against testdata.dir.
+ * <p>
+ * With testdata.cache enabled a sheet is compiled once into a memory-mapped
+ * {@link CompiledSheet} under testdata.cacheDir, named by the SHA-256 of the source file,
+ * so later runs and parallel JVMs look rows up without parsing the workbook at all.
  *
  * @author YSabato
  * @version 1.0
  * @since 01/01/2020
  */
 public class DataUtils {
+    private static final Logger logger = LoggerFactory.getLogger(DataUtils.class);
+
+    private static final Map<String, SheetIndex> sheetIndexes = new ConcurrentHashMap<>();
+    private static final Map<String, CompiledSheet> compiledSheets = new ConcurrentHashMap<>();
+
+    private DataUtils() {
+    }
+
+    /**
+     * Returns the header row of the sheet
+     *
+     * @param workbook - workbook path
+     * @param sheet - sheet name, or null for the first sheet
+     * @return header names in column order
+     */
+    public static List<String> getHeaders(String workbook, String sheet) {
+        CompiledSheet compiled = getCompiled(workbook, sheet);
+        if (compiled != null) {
+            return compiled.getHeaders();
+        }
+        return getIndex(workbook, sheet).headers;
+    }
+
+    /**
+     * Returns the number of columns in the header row
+     *
+     * @param workbook - workbook path
+     * @param sheet - sheet name, or null for the first sheet
+     * @return column count
+     */
+    public static int getColumnCount(String workbook, String sheet) {
+        return getHeaders(workbook, sheet).size();
+    }
+
+    /**
+     * Returns the number of data rows below the header; counted once per file version
+     *
+     * @param workbook - workbook path
+     * @param sheet - sheet name, or null for the first sheet
+     * @return row count
+     */
+    public static int getRowCount(String workbook, String sheet) {
+        CompiledSheet compiled = getCompiled(workbook, sheet);
+        if (compiled != null) {
+            return compiled.getRowCount();
+        }
+        SheetIndex index = getIndex(workbook, sheet);
+        if (index.rowCount < 0) {
+            int[] rows = {0};
+            parse(index.path, sheet, new RowHandler(index, row -> {
+                rows[0]++;
+                return true;
+            }));
+            index.rowCount = rows[0];
+        }
+        return index.rowCount;
+    }
+
+    /**
+     * Returns the row of the given test data id. The first lookup parses the sheet once into
+     * an index of row numbers by id that later lookups share until the file changes; each
+     * lookup then reads the sheet only up to its row, so rows are never held in memory.
+     *
+     * @param workbook - workbook path
+     * @param sheet - sheet name, or null for the first sheet
+     * @param testDataId - value of the id column
+     * @return header to value map, empty when the id is not found
+     */
+    public static Map<String, String> getTestData(String workbook, String sheet, String testDataId) {
+        CompiledSheet compiled = getCompiled(workbook, sheet);
+        if (compiled != null) {
+            return compiled.find(testDataId);
+        }
+        SheetIndex index = getIndex(workbook, sheet);
+        Integer rowNum = getRowNumbersById(index, sheet).get(testDataId);
+        if (rowNum == null) {
+            return Collections.emptyMap();
+        }
+        List<Map<String, String>> found = new ArrayList<>(1);
+        parse(index.path, sheet, new RowHandler(index, rowNum, row -> {
+            found.add(Collections.unmodifiableMap(row));
+            return false;
+        }));
+        return found.isEmpty() ? Collections.emptyMap() : found.get(0);
+    }
+
+    private static Map<String, Integer> getRowNumbersById(SheetIndex index, String sheet) {
+        Map<String, Integer> rowNumbers = index.rowNumbersById;
+        if (rowNumbers != null) {
+            return rowNumbers;
+        }
+        index.lock.lock();
+        try {
+            if (index.rowNumbersById == null) {
+                Map<String, Integer> parsed = new HashMap<>();
+                parse(index.path, sheet, new IdHandler(index, parsed));
+                index.rowNumbersById = parsed;
+            }
+            return index.rowNumbersById;
+        } finally {
+            index.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns one value of the given test data id
+     *
+     * @param workbook - workbook path
+     * @param sheet - sheet name, or null for the first sheet
+     * @param testDataId - value of the id column
+     * @param column - header name
+     * @return cell value, or null when the id or column is not found
+     */
+    public static String getTestDataValue(String workbook, String sheet, String testDataId, String column) {
+        return getTestData(workbook, sheet, testDataId).get(column);
+    }
+
+    /**
+     * Returns a TestNG data provider iterator over the data rows, each passed as a single
+     * header to value map. Rows are parsed on a reader thread and handed over through a
+     * bounded buffer, so memory stays flat regardless of sheet size. Every call opens its
+     * own reader, so providers may run in parallel.
+     *
+     * @param workbook - workbook path
+     * @param sheet - sheet name, or null for the first sheet
+     * @return lazily filled iterator
+     */
+    public static Iterator<Object[]> dataProvider(String workbook, String sheet) {
+        CompiledSheet compiled = getCompiled(workbook, sheet);
+        if (compiled != null) {
+            return compiled.rows();
+        }
+        return new RowIterator(getIndex(workbook, sheet), sheet);
+    }
+
+    /**
+     * Compiles the sheet into the cache, if not already there for the current file content
+     *
+     * @param workbook - workbook path
+     * @param sheet - sheet name, or null for the first sheet
+     * @return compiled file
+     */
+    public static Path compile(String workbook, String sheet) {
+        Path path = resolve(workbook);
+        Path target = getCompiledPath(path, sheet);
+        if (!Files.exists(target)) {
+            SheetIndex index = getIndex(workbook, sheet);
+            CompiledSheet.Writer writer = new CompiledSheet.Writer(index.headers, index.idColumn);
+            parse(path, sheet, new RowHandler(index, row -> {
+                writer.add(row);
+                return true;
+            }));
+            try {
+                writer.write(target);
+            } catch (IOException e) {
+                throw new IllegalStateException("Unable to write " + target + ": " + e.getMessage(), e);
+            }
+            logger.debug("Compiled test data " + path + " to " + target);
+        }
+        return target;
+    }
+
+    private static CompiledSheet getCompiled(String workbook, String sheet) {
+        if (!EnvironmentPropertiesReader.getInstance().getBoolean("testdata.cache", true)) {
+            return null;
+        }
+        Path path = resolve(workbook);
+        String sheetKey = path + "#" + (sheet != null ? sheet : "") + "#";
+        String key = sheetKey + path.toFile().lastModified();
+        CompiledSheet cached = compiledSheets.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        compiledSheets.keySet().removeIf(stale -> stale.startsWith(sheetKey));
+        return compiledSheets.computeIfAbsent(key, k -> {
+            Path target = compile(workbook, sheet);
+            try {
+                return CompiledSheet.open(target);
+            } catch (IOException | IllegalStateException e) {
+                // damaged cache file: compile again from the source
+                logger.warn("Recompiling " + target + ": " + e.getMessage());
+                try {
+                    Files.deleteIfExists(target);
+                    return CompiledSheet.open(compile(workbook, sheet));
+                } catch (IOException retry) {
+                    throw new IllegalStateException("Unable to map " + target + ": " + retry.getMessage(), retry);
+                }
+            }
+        });
+    }
+
+    /**
+     * Cache file name from the source content, sheet and id column, so a changed workbook
+     * or setting never maps a stale file
+     */
+    private static Path getCompiledPath(Path path, String sheet) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (InputStream input = new DigestInputStream(Files.newInputStream(path), digest)) {
+                input.transferTo(OutputStream.nullOutputStream());
+            }
+            String idColumn = EnvironmentPropertiesReader.getInstance().getString("testdata.idColumn", "");
+            digest.update(("\0" + (sheet != null ? sheet : "") + "\0" + idColumn).getBytes(StandardCharsets.UTF_8));
+            String name = HexFormat.of().formatHex(digest.digest()).substring(0, 32) + ".atd";
+            return Paths.get(EnvironmentPropertiesReader.getInstance().getString("testdata.cacheDir", "target/testdata-cache")).resolve(name).toAbsolutePath();
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Unable to hash " + path + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static SheetIndex getIndex(String workbook, String sheet) {
+        Path path = resolve(workbook);
+        String sheetKey = path + "#" + (sheet != null ? sheet : "") + "#";
+        String key = sheetKey + path.toFile().lastModified();
+        SheetIndex cached = sheetIndexes.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        sheetIndexes.keySet().removeIf(stale -> stale.startsWith(sheetKey));
+        return sheetIndexes.computeIfAbsent(key, k -> {
+            List<String> headers = new ArrayList<>();
+            int[] headerRow = {0};
+            parse(path, sheet, new XSSFSheetXMLHandler.SheetContentsHandler() {
+                @Override
+                public void startRow(int rowNum) {
+                    headerRow[0] = rowNum;
+                }
+
+                @Override
+                public void endRow(int rowNum) {
+                    if (!headers.isEmpty()) {
+                        throw new StopParsing();
+                    }
+                }
+
+                @Override
+                public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+                    int column = new CellReference(cellReference).getCol();
+                    while (headers.size() < column) {
+                        headers.add("");
+                    }
+                    headers.add(formattedValue.trim());
+                }
+            });
+            if (headers.isEmpty()) {
+                throw new IllegalStateException("No header row in " + path + (sheet != null ? " sheet " + sheet : ""));
+            }
+            String idHeader = EnvironmentPropertiesReader.getInstance().getString("testdata.idColumn", headers.get(0));
+            return new SheetIndex(path, Collections.unmodifiableList(headers), headerRow[0], Math.max(0, headers.indexOf(idHeader)));
+        });
+    }
+
+    private static Path resolve(String workbook) {
+        Path path = Paths.get(workbook);
+        if (!path.isAbsolute()) {
+            path = Paths.get(EnvironmentPropertiesReader.getInstance().getString("testdata.dir", "")).resolve(path);
+        }
+        return path.toAbsolutePath().normalize();
+    }
+
+    /**
+     * Streams one sheet through the handler; the handler may stop early by throwing {@link StopParsing}
+     */
+    private static void parse(Path path, String sheet, XSSFSheetXMLHandler.SheetContentsHandler handler) {
+        OPCPackage pkg = null;
+        try {
+            pkg = OPCPackage.open(path.toFile(), PackageAccess.READ);
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable styles = reader.getStylesTable();
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            while (sheets.hasNext()) {
+                try (InputStream input = sheets.next()) {
+                    if (sheet == null || sheet.equals(sheets.getSheetName())) {
+                        XMLReader parser = XMLHelper.newXMLReader();
+                        parser.setContentHandler(new XSSFSheetXMLHandler(styles, null, strings, handler, new DataFormatter(), false));
+                        parser.parse(new InputSource(input));
+                        return;
+                    }
+                }
+            }
+            throw new IllegalArgumentException("Sheet " + sheet + " not found in " + path);
+        } catch (StopParsing e) {
+            // handler found what it needed
+        } catch (IOException | OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IllegalStateException("Unable to read " + path + ": " + e.getMessage(), e);
+        } finally {
+            if (pkg != null) {
+                pkg.revert();
+            }
+        }
+    }
+
+    private static class SheetIndex {
+        private final Path path;
+        private final List<String> headers;
+        private final int headerRow;
+        private final int idColumn;
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile int rowCount = -1;
+        private volatile Map<String, Integer> rowNumbersById;
+
+        private SheetIndex(Path path, List<String> headers, int headerRow, int idColumn) {
+            this.path = path;
+            this.headers = headers;
+            this.headerRow = headerRow;
+            this.idColumn = idColumn;
+        }
+    }
+
+    /**
+     * Records the row number of each test data id; the first row of a duplicated id wins,
+     * as when streaming to it. Blank rows are skipped, as by {@link RowHandler}.
+     */
+    private static class IdHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+        private final SheetIndex index;
+        private final Map<String, Integer> rowNumbers;
+        private String id;
+        private boolean blank;
+
+        private IdHandler(SheetIndex index, Map<String, Integer> rowNumbers) {
+            this.index = index;
+            this.rowNumbers = rowNumbers;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            id = "";
+            blank = true;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (rowNum > index.headerRow && !blank) {
+                rowNumbers.putIfAbsent(id, rowNum);
+            }
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = new CellReference(cellReference).getCol();
+            if (column < index.headers.size()) {
+                blank &= formattedValue.isEmpty();
+                if (column == index.idColumn) {
+                    id = formattedValue;
+                }
+            }
+        }
+    }
 
     /**
-     * TBD
+     * Collects the cells of each data row into a header to value map; blank rows are skipped
      */
+    private static class RowHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+        private final SheetIndex index;
+        private final int onlyRow;
+        private final Predicate<Map<String, String>> consumer;
+        private String[] values;
+        private boolean blank;
+
+        private RowHandler(SheetIndex index, Predicate<Map<String, String>> consumer) {
+            this(index, -1, consumer);
+        }
+
+        /**
+         * @param onlyRow - the one row number to collect, or -1 for every data row
+         */
+        private RowHandler(SheetIndex index, int onlyRow, Predicate<Map<String, String>> consumer) {
+            this.index = index;
+            this.onlyRow = onlyRow;
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            boolean skipped = rowNum <= index.headerRow || (onlyRow >= 0 && rowNum != onlyRow);
+            values = skipped ? null : new String[index.headers.size()];
+            blank = true;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (values == null || blank) {
+                return;
+            }
+            Map<String, String> row = new LinkedHashMap<>();
+            for (int i = 0; i < values.length; i++) {
+                row.put(index.headers.get(i), values[i] != null ? values[i] : "");
+            }
+            if (!consumer.test(row)) {
+                throw new StopParsing();
+            }
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = new CellReference(cellReference).getCol();
+            if (values != null && column < values.length) {
+                values[column] = formattedValue;
+                blank &= formattedValue.isEmpty();
+            }
+        }
+    }
+
+    /**
+     * Pull side of a reader thread that parses the sheet into a bounded buffer. The reader
+     * is stopped when the iterator is exhausted, closed, or becomes unreachable before either.
+     */
+    private static class RowIterator implements Iterator<Object[]>, AutoCloseable {
+        private static final Cleaner cleaner = Cleaner.create();
+
+        private final RowReader reader;
+        private final Cleaner.Cleanable cleanable;
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile boolean closed;
+        private Object next;
+
+        private RowIterator(SheetIndex index, String sheet) {
+            reader = new RowReader(index, sheet, Math.max(1, EnvironmentPropertiesReader.getInstance().getInt("testdata.prefetchRows", 128)));
+            // the action holds only the reader, so an abandoned iterator can still be collected
+            cleanable = cleaner.register(this, reader::cancel);
+            reader.start();
+        }
+
+        @Override
+        public boolean hasNext() {
+            lock.lock();
+            try {
+                return fetch();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean fetch() {
+            if (next == null && !closed) {
+                try {
+                    next = reader.buffer.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    close();
+                    return false;
+                }
+                if (next instanceof RuntimeException) {
+                    closed = true;
+                    throw (RuntimeException) next;
+                }
+                if (next == RowReader.END) {
+                    closed = true;
+                    logger.debug("Test data provider exhausted");
+                }
+            }
+            return next != null && next != RowReader.END;
+        }
+
+        @Override
+        public Object[] next() {
+            lock.lock();
+            try {
+                if (!fetch()) {
+                    throw new NoSuchElementException();
+                }
+                Object row = next;
+                next = null;
+                return new Object[]{row};
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Stops the reader thread; rows not yet returned are discarded
+         */
+        @Override
+        public void close() {
+            closed = true;
+            cleanable.clean();
+        }
+    }
+
+    /**
+     * Push side of {@link RowIterator}: parses the sheet on its own thread until the end of
+     * the sheet or until cancelled
+     */
+    private static class RowReader {
+        private static final Object END = new Object();
+
+        private final SheetIndex index;
+        private final String sheet;
+        private final BlockingQueue<Object> buffer;
+        private final Thread thread;
+        private volatile boolean cancelled;
+
+        private RowReader(SheetIndex index, String sheet, int capacity) {
+            this.index = index;
+            this.sheet = sheet;
+            buffer = new ArrayBlockingQueue<>(capacity);
+            thread = new Thread(this::read, "testdata-reader");
+            thread.setDaemon(true);
+        }
+
+        private void start() {
+            thread.start();
+        }
+
+        private void cancel() {
+            cancelled = true;
+            thread.interrupt();
+        }
+
+        private void read() {
+            try {
+                parse(index.path, sheet, new RowHandler(index, this::offer));
+                offer(END);
+            } catch (RuntimeException e) {
+                offer(e);
+            }
+        }
+
+        /**
+         * Waits for room in the buffer; returns false, which stops the parse, once cancelled
+         */
+        private boolean offer(Object item) {
+            try {
+                while (!cancelled) {
+                    if (buffer.offer(item, 1, TimeUnit.SECONDS)) {
+                        return true;
+                    }
+                }
+            } catch (InterruptedException e) {
+                // cancelled while waiting
+            }
+            return false;
+        }
+    }
+
+    private static class StopParsing extends RuntimeException {
+        private StopParsing() {
+            super(null, null, false, false);
+        }
+    }
 }
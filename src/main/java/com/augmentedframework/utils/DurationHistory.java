@@ -0,0 +1,134 @@
+package com.augmentedframework.utils;
+
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * DurationHistory is the local store of test durations used by {@link DurationScheduler}.
+ * Every test method keeps an exponentially weighted moving average of its run time in milli
+ * seconds, all invocations of a data driven method counted together, and the number of runs
+ * it is based on. The store is a JSON file written atomically.
+ *
+ * @author YSabato
+ * @version 1.0
+ * @since 10/18/2026
+ */
+class DurationHistory {
+    private static final Logger logger = LoggerFactory.getLogger(DurationHistory.class);
+
+    private final Path file;
+    private final Map<String, double[]> durations = new TreeMap<>();
+
+    private DurationHistory(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Reads the store configured by scheduler.historyFile
+     *
+     * @return history
+     */
+    static DurationHistory load() {
+        return load(Paths.get(EnvironmentPropertiesReader.getInstance().getString("scheduler.historyFile", ".test-durations.json")));
+    }
+
+    /**
+     * Reads the store; a missing or unreadable file gives an empty history
+     *
+     * @param file - JSON store
+     * @return history
+     */
+    static DurationHistory load(Path file) {
+        DurationHistory history = new DurationHistory(file);
+        if (Files.exists(file)) {
+            try {
+                JSONObject tests = new JSONObject(Files.readString(file)).getJSONObject("tests");
+                for (Iterator<String> keys = tests.keys(); keys.hasNext(); ) {
+                    String key = keys.next();
+                    JSONObject test = tests.getJSONObject(key);
+                    history.durations.put(key, new double[]{test.getDouble("millis"), test.getInt("runs")});
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Ignoring unreadable test duration history " + file + ": " + e.getMessage());
+            }
+        }
+        return history;
+    }
+
+    /**
+     * Returns the average duration of the test
+     *
+     * @param key - qualified method name
+     * @return milli seconds, or -1 without history
+     */
+    double getMillis(String key) {
+        double[] duration = durations.get(key);
+        return duration == null ? -1 : duration[0];
+    }
+
+    /**
+     * Returns the median of every known duration, the estimate for tests without history
+     *
+     * @return milli seconds, 0 for an empty history
+     */
+    double getMedianMillis() {
+        List<Double> values = new ArrayList<>();
+        durations.values().forEach(duration -> values.add(duration[0]));
+        if (values.isEmpty()) {
+            return 0;
+        }
+        Collections.sort(values);
+        return values.get(values.size() / 2);
+    }
+
+    int size() {
+        return durations.size();
+    }
+
+    /**
+     * Folds one run into the averages
+     *
+     * @param key - qualified method name
+     * @param millis - duration of the run
+     * @param smoothing - weight of the new run, between 0 and 1
+     */
+    void update(String key, double millis, double smoothing) {
+        double[] duration = durations.get(key);
+        if (duration == null) {
+            durations.put(key, new double[]{millis, 1});
+        } else {
+            duration[0] = smoothing * millis + (1 - smoothing) * duration[0];
+            duration[1]++;
+        }
+    }
+
+    void save() {
+        JSONObject tests = new JSONObject();
+        durations.forEach((key, duration) -> tests.put(key, new JSONObject()
+                .put("millis", Math.round(duration[0] * 10) / 10.0)
+                .put("runs", (int) duration[1])));
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, "test-durations", ".tmp");
+            Files.write(temp, new JSONObject().put("tests", tests).toString(2).getBytes(StandardCharsets.UTF_8));
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Unable to save test duration history " + file + ": " + e.getMessage());
+        }
+    }
+}
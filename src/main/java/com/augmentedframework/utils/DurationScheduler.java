@@ -0,0 +1,163 @@
+package com.augmentedframework.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IAlterSuiteListener;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * DurationScheduler runs parallel suites longest test first. Test durations are recorded in
+ * a local {@link DurationHistory} (scheduler.historyFile) when the suite finishes; on the next
+ * run the method interceptor orders the tests by their average duration, longest first, so
+ * TestNG's worker threads pick them up in longest processing time order and short tests fill
+ * the tail. Tests without history are estimated at the median duration.
+ * The scheduler runs only with scheduler.enabled set.
+ * With scheduler.threads set the suite runs with parallel="methods" on that many threads,
+ * capped at grid.parallelSessions when scheduler.limitToGridSlots is set. Sequential suites
+ * keep their order.
+ *
+ * @author YSabato
+ * @version 1.0
+ * @since 10/18/2026
+ */
+public class DurationScheduler implements IAlterSuiteListener, IMethodInterceptor, ITestListener, ISuiteListener {
+    private static final Logger logger = LoggerFactory.getLogger(DurationScheduler.class);
+
+    private final Map<String, LongAdder> runMillis = new ConcurrentHashMap<>();
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        int threads = getParallelism();
+        if (!isEnabled() || threads <= 0) {
+            return;
+        }
+        for (XmlSuite suite : suites) {
+            suite.setParallel(XmlSuite.ParallelMode.METHODS);
+            suite.setThreadCount(threads);
+            for (XmlTest test : suite.getTests()) {
+                test.setParallel(XmlSuite.ParallelMode.METHODS);
+                test.setThreadCount(threads);
+            }
+            logger.info("Suite '" + suite.getName() + "' runs methods in parallel on " + threads + " threads");
+        }
+    }
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        XmlTest xmlTest = context.getCurrentXmlTest();
+        if (!isEnabled() || xmlTest == null || !xmlTest.getParallel().isParallel() || methods.size() < 2) {
+            return methods;
+        }
+        DurationHistory history = DurationHistory.load();
+        double unknown = history.getMedianMillis();
+        List<IMethodInstance> ordered = new ArrayList<>(methods);
+        // stable, so tests of equal or unknown duration keep their order
+        ordered.sort(Comparator.comparingDouble((IMethodInstance method) -> estimate(history, method, unknown)).reversed());
+        logger.info(String.format("Scheduled %d tests longest first on %d threads, %d with history, predicted %.1f s",
+                ordered.size(), xmlTest.getThreadCount(), ordered.stream().filter(method -> history.getMillis(key(method)) >= 0).count(),
+                predictMillis(ordered, history, unknown, xmlTest.getThreadCount()) / 1000));
+        return ordered;
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        record(result);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        record(result);
+    }
+
+    @Override
+    public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+        record(result);
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        if (!isEnabled() || runMillis.isEmpty()) {
+            return;
+        }
+        // reloaded so runs finishing in other processes since the start are kept
+        DurationHistory history = DurationHistory.load();
+        double smoothing = EnvironmentPropertiesReader.getInstance().getDouble("scheduler.smoothing", 0.5);
+        runMillis.forEach((key, millis) -> history.update(key, millis.sum(), smoothing));
+        runMillis.clear();
+        history.save();
+    }
+
+    /**
+     * Returns the makespan of the ordered tests when each thread takes the next test as it
+     * becomes free
+     *
+     * @param ordered - tests in scheduling order
+     * @param history - duration history
+     * @param unknown - estimate for tests without history
+     * @param threads - worker threads
+     * @return predicted run time in milli seconds
+     */
+    static double predictMillis(List<IMethodInstance> ordered, DurationHistory history, double unknown, int threads) {
+        PriorityQueue<Double> busyUntil = new PriorityQueue<>();
+        for (int i = 0; i < Math.max(1, threads); i++) {
+            busyUntil.add(0.0);
+        }
+        double makespan = 0;
+        for (IMethodInstance method : ordered) {
+            double end = busyUntil.poll() + estimate(history, method, unknown);
+            busyUntil.add(end);
+            makespan = Math.max(makespan, end);
+        }
+        return makespan;
+    }
+
+    private static double estimate(DurationHistory history, IMethodInstance method, double unknown) {
+        double millis = history.getMillis(key(method));
+        return millis >= 0 ? millis : unknown;
+    }
+
+    private void record(ITestResult result) {
+        if (isEnabled()) {
+            runMillis.computeIfAbsent(result.getMethod().getQualifiedName(), k -> new LongAdder())
+                    .add(Math.max(0, result.getEndMillis() - result.getStartMillis()));
+        }
+    }
+
+    private static String key(IMethodInstance method) {
+        return method.getMethod().getQualifiedName();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return EnvironmentPropertiesReader.getInstance().getBoolean("scheduler.enabled", false);
+    }
+
+    /**
+     * Returns scheduler.threads, capped at the grid's parallel sessions when configured
+     *
+     * @return thread count, 0 to keep the suite's own parallel settings
+     */
+    private static int getParallelism() {
+        int threads = EnvironmentPropertiesReader.getInstance().getInt("scheduler.threads", 0);
+        if (threads > 0 && EnvironmentPropertiesReader.getInstance().getBoolean("scheduler.limitToGridSlots", true)) {
+            threads = Math.min(threads, EnvironmentPropertiesReader.getInstance().getInt("grid.parallelSessions", 5));
+        }
+        return threads;
+    }
+}
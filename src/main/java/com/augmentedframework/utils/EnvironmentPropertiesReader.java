@@ -6,11 +6,43 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.io.InputStream;
 
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
 import org.apache.commons.lang3.StringUtils;
 
 /**
- * EnvironmentPropertiesReader sets the environment variable from config properties file
+ * EnvironmentPropertiesReader sets the environment variable from config properties file.
+ * Settings are layered, later layers overriding earlier ones:
+ * <ol>
+ *     <li>config.properties (defaults)</li>
+ *     <li>config-&lt;env&gt;.properties for the env named by the layers above or -Denv</li>
+ *     <li>environment variables, by exact key or as KEY_NAME for key.name, for keys declared in the files</li>
+ *     <li>system properties</li>
+ * </ol>
+ * The merged values are published as an immutable snapshot that is read without locking;
+ * typed values are parsed once per snapshot. File layers on disk are watched and a new
+ * snapshot is published when they change (config.watch=false switches this off).
  *
  * @author YSabato
  * @version 1.0
@@ -18,70 +50,257 @@ import org.apache.commons.lang3.StringUtils;
  */
 public class EnvironmentPropertiesReader {
     private static final Logger log = LoggerFactory.getLogger(EnvironmentPropertiesReader.class);
-    private static EnvironmentPropertiesReader envProps;
+    private static final String DEFAULTS_FILE = "config.properties";
 
-    private Properties properties;
+    private volatile Snapshot snapshot;
 
     private EnvironmentPropertiesReader() {
-        properties = loadProperties();
+        snapshot = loadSnapshot();
+        if (snapshot.getBoolean("config.watch", true)) {
+            startWatcher();
+        }
+    }
+
+    private static class Holder {
+        private static final EnvironmentPropertiesReader envProps = new EnvironmentPropertiesReader();
     }
 
-    private EnvironmentPropertiesReader(String fileName) {
-        properties = loadProperties(fileName);
+    public static EnvironmentPropertiesReader getInstance() {
+        return Holder.envProps;
     }
 
     public String getProperty(String key) {
-        return properties.getProperty(key);
+        return snapshot.getString(key, null);
     }
 
     public boolean hasProperty(String key) {
-        return StringUtils.isNotBlank(properties.getProperty(key));
+        return StringUtils.isNotBlank(snapshot.getString(key, null));
     }
 
-    public static EnvironmentPropertiesReader getInstance() {
-        if (envProps == null) {
-            envProps = new EnvironmentPropertiesReader();
-        }
-        return envProps;
+    public String getString(String key, String defaultValue) {
+        return snapshot.getString(key, defaultValue);
+    }
+
+    public int getInt(String key, int defaultValue) {
+        return snapshot.getInt(key, defaultValue);
+    }
+
+    public long getLong(String key, long defaultValue) {
+        return snapshot.getLong(key, defaultValue);
+    }
+
+    public double getDouble(String key, double defaultValue) {
+        return snapshot.getDouble(key, defaultValue);
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        return snapshot.getBoolean(key, defaultValue);
     }
 
     /**
-     * Method reads and loads config.properties file from
-     * source root in main resource folder
+     * Returns a duration setting. Accepts ISO-8601 (PT30S) or a number with an ms, s, m or h
+     * suffix; a bare number is read in the given unit.
      *
-     * @return map of property key, value pairs
+     * @param key - property key
+     * @param defaultValue - value when the key is not set
+     * @param bareUnit - unit of a number without suffix
+     * @return parsed duration
      */
-    private Properties loadProperties() {
-        Properties props = new Properties();
-        try (InputStream input = EnvironmentPropertiesReader.class.getClassLoader().getResourceAsStream("config.properties")) {
-            if (input == null) {
-                log.error("config.properties is missing or corrupt");
-                return props;
-            }
-            props.load(input);
-        } catch (IOException e) {
-            log.error("Read failed due to: " + e.getMessage());
+    public Duration getDuration(String key, Duration defaultValue, ChronoUnit bareUnit) {
+        return snapshot.getDuration(key, defaultValue, bareUnit);
+    }
+
+    /**
+     * Returns the current immutable snapshot, for callers that need several
+     * settings from one consistent view
+     *
+     * @return current snapshot
+     */
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Rebuilds the snapshot from every layer, e.g. after setting system properties at runtime
+     */
+    public void reload() {
+        snapshot = loadSnapshot();
+    }
+
+    private Snapshot loadSnapshot() {
+        Map<String, String> values = new HashMap<>();
+        Set<Path> files = new HashSet<>();
+        putAll(values, loadProperties(DEFAULTS_FILE, files));
+
+        String env = System.getProperty("env", System.getenv().getOrDefault("env", values.get("env")));
+        if (StringUtils.isNotBlank(env)) {
+            putAll(values, loadProperties("config-" + env + ".properties", files));
         }
-        return props;
+
+        // only keys the files declare are read from the environment, so unrelated variables such as secrets stay out
+        Map<String, String> environment = System.getenv();
+        values.replaceAll((key, value) -> {
+            String variable = key.toUpperCase(Locale.ROOT).replace('.', '_');
+            return environment.containsKey(variable) ? environment.get(variable) : environment.getOrDefault(key, value);
+        });
+
+        putAll(values, System.getProperties());
+        return new Snapshot(values, files);
+    }
+
+    private static void putAll(Map<String, String> values, Properties props) {
+        props.stringPropertyNames().forEach(key -> values.put(key, props.getProperty(key)));
     }
 
     /**
-     * Method reads content from source fileName
+     * Method reads content from source fileName on the classpath
      *
      * @param fileName - source file path
+     * @param files - collects the file system path of the source, when it has one, for watching
      * @return map of property key, value pairs
      */
-    private Properties loadProperties(String fileName) {
+    private Properties loadProperties(String fileName, Set<Path> files) {
         Properties props = new Properties();
-        try (InputStream input = EnvironmentPropertiesReader.class.getClassLoader().getResourceAsStream(fileName)) {
-            if (input == null) {
+        URL resource = EnvironmentPropertiesReader.class.getClassLoader().getResource(fileName);
+        if (resource == null) {
+            if (DEFAULTS_FILE.equals(fileName)) {
                 log.error(fileName + " is missing or corrupt");
-                return props;
             }
+            return props;
+        }
+        try (InputStream input = resource.openStream()) {
             props.load(input);
-        } catch (IOException e) {
+            if ("file".equals(resource.getProtocol())) {
+                files.add(Paths.get(resource.toURI()));
+            }
+        } catch (IOException | URISyntaxException e) {
             log.error("Read failed due to: " + e.getMessage());
         }
         return props;
     }
+
+    /**
+     * Watches the directories of the file layers and republishes the snapshot when one changes
+     */
+    private void startWatcher() {
+        Set<Path> directories = new HashSet<>();
+        snapshot.files.forEach(file -> directories.add(file.getParent()));
+        if (directories.isEmpty()) {
+            return;
+        }
+        try {
+            WatchService watchService = FileSystems.getDefault().newWatchService();
+            for (Path directory : directories) {
+                directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            }
+            Thread watcher = new Thread(() -> watch(watchService), "config-watcher");
+            watcher.setDaemon(true);
+            watcher.start();
+        } catch (IOException e) {
+            log.error("Unable to watch configuration files: " + e.getMessage());
+        }
+    }
+
+    private void watch(WatchService watchService) {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    Path file = ((Path) key.watchable()).resolve((Path) event.context());
+                    String name = file.getFileName().toString();
+                    changed |= snapshot.files.contains(file) || (name.startsWith("config-") && name.endsWith(".properties"));
+                }
+                key.reset();
+                if (changed) {
+                    reload();
+                    log.info("Configuration reloaded");
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Immutable view of the merged settings with a per-key cache of parsed values
+     */
+    public static final class Snapshot {
+        private final Map<String, String> values;
+        private final Set<Path> files;
+        private final Map<String, Object> parsed = new ConcurrentHashMap<>();
+
+        private Snapshot(Map<String, String> values, Set<Path> files) {
+            this.values = Collections.unmodifiableMap(values);
+            this.files = Collections.unmodifiableSet(files);
+        }
+
+        public String getString(String key, String defaultValue) {
+            String value = values.get(key);
+            return value != null ? value : defaultValue;
+        }
+
+        public int getInt(String key, int defaultValue) {
+            Integer value = parse("int:", key, v -> Integer.valueOf(v.trim()));
+            return value != null ? value : defaultValue;
+        }
+
+        public long getLong(String key, long defaultValue) {
+            Long value = parse("long:", key, v -> Long.valueOf(v.trim()));
+            return value != null ? value : defaultValue;
+        }
+
+        public double getDouble(String key, double defaultValue) {
+            Double value = parse("double:", key, v -> Double.valueOf(v.trim()));
+            return value != null ? value : defaultValue;
+        }
+
+        public boolean getBoolean(String key, boolean defaultValue) {
+            Boolean value = parse("boolean:", key, v -> Boolean.valueOf(v.trim()));
+            return value != null ? value : defaultValue;
+        }
+
+        public Duration getDuration(String key, Duration defaultValue, ChronoUnit bareUnit) {
+            Duration value = parse("duration:" + bareUnit + ":", key, v -> parseDuration(v.trim(), bareUnit));
+            return value != null ? value : defaultValue;
+        }
+
+        public Map<String, String> asMap() {
+            return values;
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> T parse(String type, String key, Function<String, T> parser) {
+            String value = values.get(key);
+            if (StringUtils.isBlank(value)) {
+                return null;
+            }
+            try {
+                return (T) parsed.computeIfAbsent(type + key, k -> parser.apply(value));
+            } catch (NumberFormatException | DateTimeParseException e) {
+                log.error(String.format("Invalid value '%s' for %s", value, key));
+                return null;
+            }
+        }
+
+        private static Duration parseDuration(String value, ChronoUnit bareUnit) {
+            String lower = value.toLowerCase(Locale.ROOT);
+            if (lower.startsWith("p")) {
+                return Duration.parse(value);
+            }
+            if (lower.endsWith("ms")) {
+                return Duration.ofMillis(Long.parseLong(lower.substring(0, lower.length() - 2).trim()));
+            }
+            if (lower.endsWith("s")) {
+                return Duration.ofSeconds(Long.parseLong(lower.substring(0, lower.length() - 1).trim()));
+            }
+            if (lower.endsWith("m")) {
+                return Duration.ofMinutes(Long.parseLong(lower.substring(0, lower.length() - 1).trim()));
+            }
+            if (lower.endsWith("h")) {
+                return Duration.ofHours(Long.parseLong(lower.substring(0, lower.length() - 1).trim()));
+            }
+            return Duration.of(Long.parseLong(lower), bareUnit);
+        }
+    }
 }
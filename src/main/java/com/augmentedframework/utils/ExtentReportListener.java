@@ -0,0 +1,20 @@
+package com.augmentedframework.utils;
+
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+
+/**
+ * ExtentReportListener writes the remaining Extent report parts to disk when the suite finishes
+ *
+ * @author YSabato
+ * @version 1.0
+ * @since 10/18/2026
+ */
+public class ExtentReportListener implements ISuiteListener {
+
+    @Override
+    public void onFinish(ISuite suite) {
+        Log.flush();
+        ExtentReporter.flush();
+    }
+}
@@ -2,7 +2,11 @@ package com.augmentedframework.utils;
 
 import java.io.File;
 
-import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.commons.lang3.exception.ExceptionUtils;
 
@@ -16,14 +20,23 @@ import com.relevantcodes.extentreports.LogStatus;
 
 /**
  * ExtentReport provides an interactive and detailed test execution report.
+ * Started tests are kept in a concurrent registry and removed once ended; the report is
+ * flushed to disk every report.flushEvery ended tests, and after report.maxTestsPerFile tests
+ * (default 500, 0 for a single file) it rolls over to ExtentReport-partN.html so finished parts
+ * can be released from memory. A run writing to another output directory, such as a nested
+ * TestNG run, starts its own parts there.
+ * A test's report node is cached on its {@link TestContext}, so logging does not look it up again.
  *
  * @author YSabato
  * @version 1.0
  * @since 01/01/2020
  */
 public class ExtentReporter {
-    private static ExtentReports report = null;
-    private static HashMap<Integer, ExtentTest> tests = new HashMap<Integer, ExtentTest>();
+    private static volatile ReportPart currentPart = null;
+    private static final Set<ReportPart> openParts = ConcurrentHashMap.newKeySet();
+    private static final Map<String, Integer> partNumbers = new ConcurrentHashMap<>();
+    private static final ReentrantLock partLock = new ReentrantLock();
+    private static final Map<Integer, RegisteredTest> tests = new ConcurrentHashMap<>();
     private static final File configFile = new File(System.getProperty("user.dir") + File.separator + "ReportConfig.xml-Review");
 
     /**
@@ -72,6 +85,29 @@ public class ExtentReporter {
         getTest().log(LogStatus.FAIL, "<font color=\"red\">" + failMessage + "</font>");
     }
 
+    /**
+     * Queues a message for the given test from any thread. The message is written
+     * at INFO level the next time the test's own thread logs to the reporter, or when
+     * the test ends. Once the test's report node has ended, the message goes to the
+     * test's TestNG output instead.
+     *
+     * @param iTestResult - test to report against
+     * @param message
+     */
+    public static void attach(ITestResult iTestResult, String message) {
+        TestContext context = TestContext.of(iTestResult);
+        context.pendingMessages.add(message);
+        // endTest may have drained the queue before the message arrived
+        if (context.reportEnded) {
+            String late;
+            try (TestContext.Scope ignored = context.bind()) {
+                while ((late = context.pendingMessages.poll()) != null) {
+                    Reporter.log(late);
+                }
+            }
+        }
+    }
+
     /**
      * Forms a unique test name in the format
      * "PackageName.ClassName<>MethodName"
@@ -94,42 +130,137 @@ public class ExtentReporter {
      * @return {@link ExtentTest} - ExtentTest Instance
      */
     private static ExtentTest startTest(String description) {
-        ExtentTest test = null;
-        ITestResult iTestResult = Reporter.getCurrentTestResult();
-        String testName = iTestResult != null ? getTestName(iTestResult) : Thread.currentThread().getName();
-        Integer hashCode = iTestResult != null ? iTestResult.hashCode() : Thread.currentThread().hashCode();
-        if (tests.containsKey(hashCode)) {
-            test = tests.get(hashCode);
-            if (description != null && !description.isEmpty()) {
-                test.setDescription(description);
-            }
-        } else {
-            if (iTestResult == null || !iTestResult.getMethod().isTest()) {
-                test = new ExtentTest(testName, description);
+        TestContext context = TestContext.current();
+        if (context == null) {
+            // outside any test there is nothing to attach to; not keyed by thread, which may be virtual and short lived
+            return new ExtentTest(Thread.currentThread().getName(), description);
+        }
+        ExtentTest test = context.reportNode;
+        if (test == null) {
+            ITestResult iTestResult = context.getResult();
+            if (!iTestResult.getMethod().isTest()) {
+                test = new ExtentTest(getTestName(iTestResult), description);
             } else {
-                test = getReportInstance(iTestResult).startTest(testName, description).assignCategory(iTestResult.getMethod().getGroups());
-                tests.put(hashCode, test);
+                test = tests.computeIfAbsent(iTestResult.hashCode(), k -> register(iTestResult, description)).test;
             }
+            context.reportNode = test;
+        } else if (description != null && !description.isEmpty()) {
+            test.setDescription(description);
+        }
+        String message;
+        while ((message = context.pendingMessages.poll()) != null) {
+            test.log(LogStatus.INFO, message);
         }
         return test;
     }
 
+    private static RegisteredTest register(ITestResult iTestResult, String description) {
+        ReportPart part = getReportPart(iTestResult);
+        ExtentTest test = part.report.startTest(getTestName(iTestResult), description).assignCategory(iTestResult.getMethod().getGroups());
+        return new RegisteredTest(test, part);
+    }
+
+    /**
+     * Ends the test's report node and removes it from the registry. Flushes the report
+     * every report.flushEvery ended tests and once a rolled-over part has no running tests.
+     *
+     * @param iTestResult - finished test
+     */
+    public static void endTest(ITestResult iTestResult) {
+        TestContext context = TestContext.of(iTestResult);
+        context.reportNode = null;
+        context.reportEnded = true;
+        RegisteredTest registered = tests.remove(iTestResult.hashCode());
+        if (registered == null) {
+            context.pendingMessages.clear();
+            return;
+        }
+        String message;
+        while ((message = context.pendingMessages.poll()) != null) {
+            registered.test.log(LogStatus.INFO, message);
+        }
+        ReportPart part = registered.part;
+        part.report.endTest(registered.test);
+        int ended = part.ended.incrementAndGet();
+        if (part.sealed && ended == part.started.get()) {
+            part.report.flush();
+            openParts.remove(part);
+        } else if (ended % getFlushEvery() == 0) {
+            part.report.flush();
+        }
+    }
+
+    /**
+     * Writes every open report part to disk
+     */
+    public static void flush() {
+        openParts.forEach(part -> part.report.flush());
+    }
+
     /**
-     * Returns an ExtentReports instance if already exists otherwise
-     * creates and returns new
+     * Returns the report part new tests are started in, creating it on first use and
+     * rolling over to a new part file once report.maxTestsPerFile tests were started
      *
      * @param iTestResult - iTestResult
-     * @return {@link ExtentReports} - Extent report instance
+     * @return {@link ReportPart} - current report part
      */
-    private static synchronized ExtentReports getReportInstance(ITestResult iTestResult) {
-        if (report == null) {
-            String reportFilePath = new File(iTestResult.getTestContext().getOutputDirectory()).getParent() + File.separator + "ExtentReport.html";
-            report = new ExtentReports(reportFilePath, true);
+    private static ReportPart getReportPart(ITestResult iTestResult) {
+        partLock.lock();
+        try {
+            return nextReportPart(iTestResult);
+        } finally {
+            partLock.unlock();
+        }
+    }
+
+    private static ReportPart nextReportPart(ITestResult iTestResult) {
+        int maxTestsPerFile = getMaxTestsPerFile();
+        String reportDirectory = new File(iTestResult.getTestContext().getOutputDirectory()).getParent() + File.separator;
+        if (currentPart == null || !currentPart.directory.equals(reportDirectory)
+                || (maxTestsPerFile > 0 && currentPart.started.get() >= maxTestsPerFile)) {
+            if (currentPart != null) {
+                currentPart.sealed = true;
+                if (currentPart.ended.get() == currentPart.started.get()) {
+                    currentPart.report.flush();
+                    openParts.remove(currentPart);
+                }
+            }
+            int number = partNumbers.merge(reportDirectory, 1, Integer::sum);
+            ExtentReports report = new ExtentReports(reportDirectory + (number == 1 ? "ExtentReport.html" : "ExtentReport-part" + number + ".html"), true);
             if (configFile.exists()) {
                 report.loadConfig(configFile);
             }
+            currentPart = new ReportPart(report, reportDirectory);
+            openParts.add(currentPart);
         }
-        return report;
+        currentPart.started.incrementAndGet();
+        return currentPart;
+    }
+
+    private static int getFlushEvery() {
+        return Math.max(1, EnvironmentPropertiesReader.getInstance().getInt("report.flushEvery", 25));
+    }
+
+    private static int getMaxTestsPerFile() {
+        return EnvironmentPropertiesReader.getInstance().getInt("report.maxTestsPerFile", 500);
+    }
+
+    /**
+     * Returns the number of tests started in the report and not yet ended
+     *
+     * @return running tests
+     */
+    public static int getRunningTestCount() {
+        return tests.size();
+    }
+
+    /**
+     * Returns the number of report parts still held in memory
+     *
+     * @return open parts
+     */
+    public static int getOpenPartCount() {
+        return openParts.size();
     }
 
     /**
@@ -144,4 +275,27 @@ public class ExtentReporter {
             getTest().log(LogStatus.FAIL, "<div class=\"stacktrace\">" + ExceptionUtils.getStackTrace(trace) + "</div>");
         }
     }
+
+    private static class ReportPart {
+        private final ExtentReports report;
+        private final String directory;
+        private final AtomicInteger started = new AtomicInteger();
+        private final AtomicInteger ended = new AtomicInteger();
+        private volatile boolean sealed;
+
+        private ReportPart(ExtentReports report, String directory) {
+            this.report = report;
+            this.directory = directory;
+        }
+    }
+
+    private static class RegisteredTest {
+        private final ExtentTest test;
+        private final ReportPart part;
+
+        private RegisteredTest(ExtentTest test, ReportPart part) {
+            this.test = test;
+            this.part = part;
+        }
+    }
 }
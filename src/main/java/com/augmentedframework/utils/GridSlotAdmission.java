@@ -0,0 +1,149 @@
+package com.augmentedframework.utils;
+
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.Command;
+import org.openqa.selenium.remote.CommandExecutor;
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.Response;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * GridSlotAdmission limits the number of live remote sessions to the grid's parallel
+ * quota (grid.parallelSessions). Requests wait in arrival order for a free slot and give
+ * up after grid.queueTimeout seconds. A slot is held by the session's command executor for
+ * the lifetime of the session and returned when the session is quit.
+ *
+ * @author YSabato
+ * @version 1.0
+ * @since 10/18/2026
+ */
+public class GridSlotAdmission {
+
+    private static final Semaphore slots = new Semaphore(getParallelSessions(), true);
+
+    private GridSlotAdmission() {
+    }
+
+    /**
+     * Waits for a free grid slot
+     *
+     * @return time spent queued in milli seconds
+     * @throws SessionNotCreatedException when no slot frees up within grid.queueTimeout
+     */
+    public static long admit() {
+        long queuedAt = System.nanoTime();
+        try {
+            if (!slots.tryAcquire(getQueueTimeoutSeconds(), TimeUnit.SECONDS)) {
+                throw new SessionNotCreatedException(String.format("Timed out after %ss waiting for one of %s grid slots",
+                        getQueueTimeoutSeconds(), getParallelSessions()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SessionNotCreatedException("Interrupted while waiting for a grid slot");
+        }
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - queuedAt);
+    }
+
+    /**
+     * Ties the admitted slot to the session driven through the executor. The slot is returned
+     * when the session is quit through it, however the quit is issued.
+     *
+     * @param executor - executor the session will be created with
+     * @return executor holding the slot
+     */
+    public static CommandExecutor hold(CommandExecutor executor) {
+        return new SlotCommandExecutor(executor);
+    }
+
+    /**
+     * Returns a slot that was admitted but never held by an executor
+     */
+    public static void cancel() {
+        slots.release();
+    }
+
+    /**
+     * Returns the slot held by the given session. Safe to call more than once.
+     *
+     * @param driver - quit session
+     */
+    public static void free(WebDriver driver) {
+        if (driver instanceof RemoteWebDriver) {
+            free(((RemoteWebDriver) driver).getCommandExecutor());
+        }
+    }
+
+    /**
+     * Returns the slot held by the executor, e.g. when the session could not be created with
+     * it. Safe to call more than once.
+     *
+     * @param executor - executor returned by {@link #hold(CommandExecutor)}
+     */
+    public static void free(CommandExecutor executor) {
+        if (executor instanceof SlotCommandExecutor) {
+            ((SlotCommandExecutor) executor).release();
+        }
+    }
+
+    /**
+     * Returns the number of slots free right now
+     *
+     * @return free slots
+     */
+    public static int getAvailableSlots() {
+        return slots.availablePermits();
+    }
+
+    /**
+     * Returns the number of requests currently waiting for a slot
+     *
+     * @return queue length
+     */
+    public static int getQueueLength() {
+        return slots.getQueueLength();
+    }
+
+    private static int getParallelSessions() {
+        return EnvironmentPropertiesReader.getInstance().getInt("grid.parallelSessions", 5);
+    }
+
+    private static long getQueueTimeoutSeconds() {
+        return EnvironmentPropertiesReader.getInstance().getLong("grid.queueTimeout", 300);
+    }
+
+    /**
+     * Executor holding one slot, returned once the session is quit
+     */
+    private static final class SlotCommandExecutor implements CommandExecutor {
+        private final CommandExecutor delegate;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private SlotCommandExecutor(CommandExecutor delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Response execute(Command command) throws IOException {
+            if (!DriverCommand.QUIT.equals(command.getName())) {
+                return delegate.execute(command);
+            }
+            try {
+                return delegate.execute(command);
+            } finally {
+                release();
+            }
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                slots.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,382 @@
+package com.augmentedframework.utils;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSyntaxException;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.filter.Filter;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ssl.SSLSession;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * HttpRecording records and replays API exchanges made through {@link RestAssuredAPI}.
+ * api.recording selects the mode:
+ * <ul>
+ *     <li>off - every call goes upstream (default)</li>
+ *     <li>record - calls go upstream and the exchange is stored</li>
+ *     <li>replay - calls are served from the store; an unrecorded call fails</li>
+ *     <li>hybrid - recorded calls are served from the store, others go upstream and are stored</li>
+ * </ul>
+ * Every exchange is one JSON file in api.recordingDir named by the SHA-256 of its key:
+ * method, URL without credentials and with sorted query parameters, the request headers named
+ * by api.recordingKeyHeaders, and the body, with JSON bodies canonicalized by sorting members.
+ * Response headers named by api.recordingRedactHeaders, such as cookies and credentials, are
+ * never written to the store. Entries are cached in memory once read.
+ *
+ * @author YSabato
+ * @version 1.0
+ * @since 10/18/2026
+ */
+public final class HttpRecording {
+    private static final Logger logger = LoggerFactory.getLogger(HttpRecording.class);
+
+    private static final Set<String> SKIPPED_HEADERS = Set.of("content-length", "transfer-encoding", "connection", "keep-alive", "date");
+    private static final String DEFAULT_REDACTED_HEADERS = "Set-Cookie,Set-Cookie2,Authorization,Proxy-Authorization,WWW-Authenticate,Proxy-Authenticate";
+    private static final Map<String, Optional<Exchange>> exchanges = new ConcurrentHashMap<>();
+
+    public enum Mode { OFF, RECORD, REPLAY, HYBRID }
+
+    private HttpRecording() {
+    }
+
+    public static Mode getMode() {
+        return Mode.valueOf(EnvironmentPropertiesReader.getInstance().getString("api.recording", "off").trim().toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * RestAssured filter that applies the current mode to every request of the shared specs
+     *
+     * @return filter
+     */
+    static Filter filter() {
+        return (request, response, context) -> {
+            Mode mode = getMode();
+            if (mode == Mode.OFF) {
+                return context.next(request, response);
+            }
+            Object body = request.getBody();
+            String text = body instanceof byte[] ? new String((byte[]) body, StandardCharsets.UTF_8) : body != null ? body.toString() : null;
+            Map<String, List<String>> requestHeaders = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            for (Header header : request.getHeaders()) {
+                requestHeaders.computeIfAbsent(header.getName(), name -> new ArrayList<>()).add(header.getValue());
+            }
+            String key = key(request.getMethod(), request.getURI(), requestHeaders, text);
+            if (mode != Mode.RECORD) {
+                Optional<Exchange> recorded = find(key);
+                if (recorded.isPresent()) {
+                    return recorded.get().toResponse();
+                }
+                if (mode == Mode.REPLAY) {
+                    throw new IllegalStateException("No recording for " + request.getMethod() + " " + normalizeUrl(request.getURI()));
+                }
+            }
+            Response live = context.next(request, response);
+            Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            for (Header header : live.getHeaders()) {
+                headers.computeIfAbsent(header.getName(), name -> new ArrayList<>()).add(header.getValue());
+            }
+            save(key, new Exchange(request.getMethod(), normalizeUrl(request.getURI()), live.getStatusCode(), headers, live.asString()));
+            return live;
+        };
+    }
+
+    /**
+     * Applies the current mode to a java.net.http call
+     *
+     * @param request - request about to be sent
+     * @param body - request body, or null
+     * @param upstream - sends the request when it is not served from the store
+     * @return live or replayed response
+     */
+    static HttpResponse<String> exchange(HttpRequest request, String body, Upstream upstream) throws IOException, InterruptedException {
+        Mode mode = getMode();
+        if (mode == Mode.OFF) {
+            return upstream.send();
+        }
+        String url = request.uri().toString();
+        String key = key(request.method(), url, request.headers().map(), body);
+        if (mode != Mode.RECORD) {
+            Optional<Exchange> recorded = find(key);
+            if (recorded.isPresent()) {
+                return recorded.get().toHttpResponse(request);
+            }
+            if (mode == Mode.REPLAY) {
+                throw new IllegalStateException("No recording for " + request.method() + " " + normalizeUrl(url));
+            }
+        }
+        HttpResponse<String> live = upstream.send();
+        Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        live.headers().map().forEach((name, values) -> headers.put(name, new ArrayList<>(values)));
+        save(key, new Exchange(request.method(), normalizeUrl(url), live.statusCode(), headers, live.body()));
+        return live;
+    }
+
+    interface Upstream {
+        HttpResponse<String> send() throws IOException, InterruptedException;
+    }
+
+    /**
+     * Builds the store key of a request
+     *
+     * @param method - http method
+     * @param url - full url
+     * @param headers - request headers by name
+     * @param body - request body, or null
+     * @return hex SHA-256 of the normalized request
+     */
+    static String key(String method, String url, Map<String, List<String>> headers, String body) {
+        String normalized = method.toUpperCase(Locale.ROOT) + "\n" + normalizeUrl(url) + "\n" + normalizeHeaders(headers)
+                + "\n" + normalizeBody(body);
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(normalized.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Drops credentials and fragment and sorts query parameters
+     */
+    private static String normalizeUrl(String url) {
+        try {
+            URI uri = new URI(url);
+            String query = uri.getRawQuery();
+            if (query != null) {
+                List<String> parameters = new ArrayList<>(Arrays.asList(query.split("&")));
+                Collections.sort(parameters);
+                query = String.join("&", parameters);
+            }
+            return new URI(uri.getScheme(), null, uri.getHost(), uri.getPort(), null, null, null) + uri.getRawPath()
+                    + (query != null ? "?" + query : "");
+        } catch (URISyntaxException e) {
+            return url;
+        }
+    }
+
+    /**
+     * Keeps the key headers, lower-cased and sorted by name, with their values in order
+     */
+    private static String normalizeHeaders(Map<String, List<String>> headers) {
+        Map<String, List<String>> byName = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        byName.putAll(headers);
+        StringBuilder out = new StringBuilder();
+        for (String name : getHeaderNames("api.recordingKeyHeaders", "Accept,Authorization")) {
+            List<String> values = byName.get(name);
+            if (values != null && !values.isEmpty()) {
+                out.append(name.toLowerCase(Locale.ROOT)).append(':');
+                values.forEach(value -> out.append(value.trim()).append('\n'));
+            }
+        }
+        return out.toString();
+    }
+
+    private static Set<String> getHeaderNames(String key, String defaultNames) {
+        Set<String> names = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        for (String name : EnvironmentPropertiesReader.getInstance().getString(key, defaultNames).split(",")) {
+            if (!name.isBlank()) {
+                names.add(name.trim());
+            }
+        }
+        return names;
+    }
+
+    private static String normalizeBody(String body) {
+        if (body == null || body.isBlank()) {
+            return "";
+        }
+        try {
+            return canonical(JsonParser.parseString(body));
+        } catch (JsonSyntaxException e) {
+            return body.trim();
+        }
+    }
+
+    private static String canonical(JsonElement element) {
+        if (element.isJsonObject()) {
+            JsonObject object = element.getAsJsonObject();
+            StringBuilder out = new StringBuilder("{");
+            new TreeMap<>(object.asMap()).forEach((name, value) ->
+                    out.append(out.length() > 1 ? "," : "").append(new JsonPrimitive(name)).append(':').append(canonical(value)));
+            return out.append('}').toString();
+        }
+        if (element.isJsonArray()) {
+            StringBuilder out = new StringBuilder("[");
+            element.getAsJsonArray().forEach(value -> out.append(out.length() > 1 ? "," : "").append(canonical(value)));
+            return out.append(']').toString();
+        }
+        return element.toString();
+    }
+
+    private static Optional<Exchange> find(String key) {
+        return exchanges.computeIfAbsent(key, k -> {
+            Path file = getDirectory().resolve(k + ".json");
+            if (!Files.exists(file)) {
+                return Optional.empty();
+            }
+            try {
+                return Optional.of(Exchange.fromJson(new JSONObject(Files.readString(file))));
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Ignoring unreadable recording " + file + ": " + e.getMessage());
+                return Optional.empty();
+            }
+        });
+    }
+
+    private static void save(String key, Exchange exchange) {
+        Path directory = getDirectory();
+        Path file = directory.resolve(key + ".json");
+        try {
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, key, ".tmp");
+            Files.writeString(temp, exchange.toJson().toString(2));
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            exchanges.put(key, Optional.of(exchange));
+        } catch (IOException e) {
+            logger.warn("Unable to record " + exchange.method + " " + exchange.url + ": " + e.getMessage());
+        }
+    }
+
+    private static Path getDirectory() {
+        return Paths.get(EnvironmentPropertiesReader.getInstance().getString("api.recordingDir", "src/test/resources/recordings"));
+    }
+
+    /**
+     * One recorded request and response
+     */
+    private static final class Exchange {
+        private final String method;
+        private final String url;
+        private final int status;
+        private final Map<String, List<String>> headers;
+        private final String body;
+
+        private Exchange(String method, String url, int status, Map<String, List<String>> headers, String body) {
+            this.method = method;
+            this.url = url;
+            this.status = status;
+            this.headers = headers;
+            this.body = body != null ? body : "";
+            Set<String> redacted = getHeaderNames("api.recordingRedactHeaders", DEFAULT_REDACTED_HEADERS);
+            this.headers.keySet().removeIf(name -> SKIPPED_HEADERS.contains(name.toLowerCase(Locale.ROOT)) || redacted.contains(name));
+        }
+
+        private JSONObject toJson() {
+            JSONObject recorded = new JSONObject();
+            headers.forEach((name, values) -> recorded.put(name, new JSONArray(values)));
+            return new JSONObject()
+                    .put("method", method)
+                    .put("url", url)
+                    .put("status", status)
+                    .put("headers", recorded)
+                    .put("body", body);
+        }
+
+        private static Exchange fromJson(JSONObject json) {
+            Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            JSONObject recorded = json.getJSONObject("headers");
+            for (String name : recorded.keySet()) {
+                JSONArray values = recorded.optJSONArray(name);
+                List<String> list = new ArrayList<>();
+                if (values == null) {
+                    // single string value, as written before multi-valued headers were kept
+                    list.add(recorded.getString(name));
+                } else {
+                    values.forEach(value -> list.add(String.valueOf(value)));
+                }
+                headers.put(name, list);
+            }
+            return new Exchange(json.getString("method"), json.getString("url"), json.getInt("status"), headers, json.getString("body"));
+        }
+
+        private Response toResponse() {
+            List<Header> list = new ArrayList<>();
+            headers.forEach((name, values) -> values.forEach(value -> list.add(new Header(name, value))));
+            ResponseBuilder builder = new ResponseBuilder().setStatusCode(status).setBody(body).setHeaders(new Headers(list));
+            List<String> contentType = headers.get("Content-Type");
+            if (contentType != null && !contentType.isEmpty()) {
+                builder.setContentType(contentType.get(0));
+            }
+            return builder.build();
+        }
+
+        private HttpResponse<String> toHttpResponse(HttpRequest request) {
+            HttpHeaders httpHeaders = HttpHeaders.of(headers, (name, value) -> true);
+            return new HttpResponse<String>() {
+                @Override
+                public int statusCode() {
+                    return status;
+                }
+
+                @Override
+                public HttpRequest request() {
+                    return request;
+                }
+
+                @Override
+                public Optional<HttpResponse<String>> previousResponse() {
+                    return Optional.empty();
+                }
+
+                @Override
+                public HttpHeaders headers() {
+                    return httpHeaders;
+                }
+
+                @Override
+                public String body() {
+                    return body;
+                }
+
+                @Override
+                public Optional<SSLSession> sslSession() {
+                    return Optional.empty();
+                }
+
+                @Override
+                public URI uri() {
+                    return request.uri();
+                }
+
+                @Override
+                public HttpClient.Version version() {
+                    return HttpClient.Version.HTTP_1_1;
+                }
+            };
+        }
+    }
+}
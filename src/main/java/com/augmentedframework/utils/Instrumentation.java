@@ -0,0 +1,425 @@
+package com.augmentedframework.utils;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.SingleWriterRecorder;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Instrumentation measures where tests spend their time with named spans on System.nanoTime.
+ * Spans nest per thread (test, step, wait, driver command) and are closed with
+ * try-with-resources. Every thread accumulates its own counters and latency histograms, so
+ * recording never contends with other threads; {@link #export(Path)} merges them into
+ * instrumentation.json and instrumentation.prom (Prometheus text format).
+ * Each test also gets a breakdown of its duration by span kind; a span nested in a span of the
+ * same kind is not counted twice. instrumentation.enabled=false stops recording, spans still
+ * measure their own duration.
+ *
+ * @author YSabato
+ * @version 1.0
+ * @since 10/18/2026
+ */
+public final class Instrumentation {
+    private static final Logger logger = LoggerFactory.getLogger(Instrumentation.class);
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99};
+    private static final Queue<ThreadMetrics> threads = new ConcurrentLinkedQueue<>();
+    // virtual test threads each get their own metrics, so ended ones are merged as the run goes
+    private static final int RETIRE_EVERY = 256;
+    private static final AtomicInteger registered = new AtomicInteger();
+    // guards the totals below
+    private static final ReentrantLock merging = new ReentrantLock();
+    private static final ThreadLocal<ThreadMetrics> local = ThreadLocal.withInitial(() -> {
+        ThreadMetrics metrics = new ThreadMetrics(Thread.currentThread());
+        threads.add(metrics);
+        if (Thread.currentThread().isVirtual() && registered.incrementAndGet() % RETIRE_EVERY == 0) {
+            retire();
+        }
+        return metrics;
+    });
+
+    // totals merged by export; guarded by merging
+    private static final Map<String, Histogram> histograms = new TreeMap<>();
+    private static final Map<String, Long> retiredSums = new TreeMap<>();
+    private static final Map<String, Long> retiredCounters = new TreeMap<>();
+    private static final List<JSONObject> tests = new ArrayList<>();
+
+    public enum Kind {
+        TEST, STEP, WAIT, COMMAND;
+
+        public String getLabel() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private Instrumentation() {
+    }
+
+    /**
+     * Starts a span nested in the thread's current span, or on a helper thread running a task
+     * of a test (see {@link TestContext#wrap(Runnable)}) in the test's span
+     *
+     * @param kind - span kind
+     * @param name - span name; every kind and name pair gets its own histogram, except tests and
+     *             steps, which are named after free text and share one histogram per kind
+     * @return running span, to be closed when the measured work ends
+     */
+    public static Span start(Kind kind, String name) {
+        ThreadMetrics metrics = local.get();
+        Span parent = metrics.current();
+        if (parent == null) {
+            TestContext context = TestContext.current();
+            Span test = context != null ? context.span : null;
+            parent = test != null && !test.isClosed() ? test : null;
+        }
+        Span span = new Span(kind, name, parent);
+        metrics.spans.push(span);
+        return span;
+    }
+
+    /**
+     * Returns the innermost running span of the current thread
+     *
+     * @return span, or null outside any span
+     */
+    public static Span current() {
+        return local.get().current();
+    }
+
+    /**
+     * Adds to a counter of the current thread
+     *
+     * @param name - counter name
+     * @param delta - amount to add
+     */
+    public static void count(String name, long delta) {
+        if (isEnabled()) {
+            AtomicLong counter = local.get().counters.computeIfAbsent(name, k -> new AtomicLong());
+            // only the owning thread writes, readers need no more than eventual visibility
+            counter.lazySet(counter.get() + delta);
+        }
+    }
+
+    public static void count(String name) {
+        count(name, 1);
+    }
+
+    private static boolean isEnabled() {
+        return EnvironmentPropertiesReader.getInstance().getBoolean("instrumentation.enabled", true);
+    }
+
+    /**
+     * Merges the histograms, counters and test breakdowns of every thread recorded so far
+     *
+     * @return merged metrics
+     */
+    public static JSONObject toJson() {
+        merging.lock();
+        try {
+            merge();
+            JSONArray spans = new JSONArray();
+            histograms.forEach((key, histogram) -> {
+                String[] kindAndName = key.split("\n", 2);
+                JSONObject span = new JSONObject()
+                        .put("kind", kindAndName[0])
+                        .put("name", kindAndName[1])
+                        .put("count", histogram.getTotalCount())
+                        .put("totalMillis", sum(key) / 1e6)
+                        .put("meanMillis", histogram.getMean() / 1000.0);
+                for (double quantile : QUANTILES) {
+                    span.put("p" + Math.round(quantile * 100) + "Millis", histogram.getValueAtPercentile(quantile * 100) / 1000.0);
+                }
+                spans.put(span.put("maxMillis", histogram.getMaxValue() / 1000.0));
+            });
+            return new JSONObject()
+                    .put("created", Instant.now().toString())
+                    .put("spans", spans)
+                    .put("counters", new JSONObject(counters()))
+                    .put("tests", new JSONArray(tests));
+        } finally {
+            merging.unlock();
+        }
+    }
+
+    /**
+     * Merges the metrics and renders them in Prometheus text exposition format
+     *
+     * @return metrics text
+     */
+    public static String toPrometheus() {
+        merging.lock();
+        try {
+            merge();
+            StringBuilder text = new StringBuilder();
+            text.append("# HELP ataf_span_duration_seconds Duration of instrumented spans\n");
+            text.append("# TYPE ataf_span_duration_seconds summary\n");
+            histograms.forEach((key, histogram) -> {
+                String[] kindAndName = key.split("\n", 2);
+                String labels = "kind=\"" + escape(kindAndName[0]) + "\",name=\"" + escape(kindAndName[1]) + "\"";
+                for (double quantile : QUANTILES) {
+                    text.append("ataf_span_duration_seconds{").append(labels).append(",quantile=\"").append(quantile).append("\"} ")
+                            .append(histogram.getValueAtPercentile(quantile * 100) / 1e6).append('\n');
+                }
+                text.append("ataf_span_duration_seconds_sum{").append(labels).append("} ").append(sum(key) / 1e9).append('\n');
+                text.append("ataf_span_duration_seconds_count{").append(labels).append("} ").append(histogram.getTotalCount()).append('\n');
+            });
+            text.append("# HELP ataf_events_total Instrumentation counters\n");
+            text.append("# TYPE ataf_events_total counter\n");
+            counters().forEach((name, value) ->
+                    text.append("ataf_events_total{name=\"").append(escape(name)).append("\"} ").append(value).append('\n'));
+            return text.toString();
+        } finally {
+            merging.unlock();
+        }
+    }
+
+    /**
+     * Writes instrumentation.json and instrumentation.prom to the directory
+     *
+     * @param directory - output directory
+     * @return JSON file
+     */
+    public static Path export(Path directory) {
+        Path json = directory.resolve("instrumentation.json");
+        merging.lock();
+        try {
+            Files.createDirectories(directory);
+            Files.write(json, toJson().toString(2).getBytes(StandardCharsets.UTF_8));
+            Files.write(directory.resolve("instrumentation.prom"), toPrometheus().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            logger.warn("Unable to export instrumentation to " + directory + ": " + e.getMessage());
+        } finally {
+            merging.unlock();
+        }
+        return json;
+    }
+
+    /**
+     * Merges the metrics of ended threads; a thread finding another one merging skips it
+     * rather than queue behind it
+     */
+    private static void retire() {
+        if (merging.tryLock()) {
+            try {
+                merge();
+            } finally {
+                merging.unlock();
+            }
+        }
+    }
+
+    /**
+     * Drains every thread's recorders into the totals and retires threads that have ended
+     */
+    private static void merge() {
+        for (Iterator<ThreadMetrics> iterator = threads.iterator(); iterator.hasNext(); ) {
+            ThreadMetrics metrics = iterator.next();
+            boolean ended = metrics.hasEnded();
+            metrics.timers.forEach((key, timer) -> {
+                Histogram interval = timer.recorder.getIntervalHistogram();
+                histograms.computeIfAbsent(key, k -> new Histogram(2)).add(interval);
+                if (ended) {
+                    retiredSums.merge(key, timer.sumNanos.get(), Long::sum);
+                }
+            });
+            JSONObject test;
+            while ((test = metrics.tests.poll()) != null) {
+                tests.add(test);
+            }
+            if (ended) {
+                metrics.counters.forEach((name, counter) -> retiredCounters.merge(name, counter.get(), Long::sum));
+                iterator.remove();
+            }
+        }
+    }
+
+    private static long sum(String key) {
+        long sum = retiredSums.getOrDefault(key, 0L);
+        for (ThreadMetrics metrics : threads) {
+            Timer timer = metrics.timers.get(key);
+            if (timer != null) {
+                sum += timer.sumNanos.get();
+            }
+        }
+        return sum;
+    }
+
+    private static Map<String, Long> counters() {
+        Map<String, Long> counters = new TreeMap<>(retiredCounters);
+        threads.forEach(metrics -> metrics.counters.forEach((name, counter) -> counters.merge(name, counter.get(), Long::sum)));
+        return counters;
+    }
+
+    private static String escape(String label) {
+        return label.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    /**
+     * A running or finished measurement
+     */
+    public static final class Span implements AutoCloseable {
+        private final Kind kind;
+        private final String name;
+        private final Span parent;
+        private final long startNanos = System.nanoTime();
+        private final AtomicLongArray nanosByKind;
+        private volatile long elapsedNanos = -1;
+
+        private Span(Kind kind, String name, Span parent) {
+            this.kind = kind;
+            this.name = name;
+            this.parent = parent;
+            this.nanosByKind = kind == Kind.TEST ? new AtomicLongArray(Kind.values().length) : null;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Span getParent() {
+            return parent;
+        }
+
+        /**
+         * Returns the names from the outermost span down to this one
+         *
+         * @return path such as "LoginTest.login > Page Load"
+         */
+        public String getPath() {
+            return parent == null ? name : parent.getPath() + " > " + name;
+        }
+
+        public boolean isClosed() {
+            return elapsedNanos >= 0;
+        }
+
+        /**
+         * Returns the duration, up to now while the span is running
+         *
+         * @return nano seconds
+         */
+        public long elapsedNanos() {
+            long elapsed = elapsedNanos;
+            return elapsed >= 0 ? elapsed : System.nanoTime() - startNanos;
+        }
+
+        public long elapsedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(elapsedNanos());
+        }
+
+        /**
+         * Ends the span and records it. Closing twice has no effect; a span may be closed on a
+         * thread other than the one that started it.
+         */
+        @Override
+        public void close() {
+            if (isClosed()) {
+                return;
+            }
+            long elapsed = System.nanoTime() - startNanos;
+            elapsedNanos = elapsed;
+            if (!isEnabled()) {
+                return;
+            }
+            ThreadMetrics metrics = local.get();
+            metrics.timers.computeIfAbsent(kind.getLabel() + "\n" + (kind == Kind.TEST || kind == Kind.STEP ? kind.getLabel() : name), k -> new Timer()).record(elapsed);
+            if (kind == Kind.TEST) {
+                JSONObject test = new JSONObject()
+                        .put("name", name)
+                        .put("thread", Thread.currentThread().getName())
+                        .put("durationMillis", elapsed / 1e6);
+                for (Kind child : Kind.values()) {
+                    if (child != Kind.TEST) {
+                        test.put(child.getLabel() + "Millis", nanosByKind.get(child.ordinal()) / 1e6);
+                    }
+                }
+                metrics.tests.add(test);
+            } else {
+                for (Span ancestor = parent; ancestor != null; ancestor = ancestor.parent) {
+                    if (ancestor.kind == kind) {
+                        break;
+                    }
+                    if (ancestor.kind == Kind.TEST) {
+                        ancestor.nanosByKind.addAndGet(kind.ordinal(), elapsed);
+                        break;
+                    }
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return kind.getLabel() + " " + getPath() + " (" + elapsedMillis() + " ms" + (isClosed() ? "" : ", running") + ")";
+        }
+    }
+
+    /**
+     * Latency histogram of one kind and name, written by a single thread
+     */
+    private static final class Timer {
+        private final SingleWriterRecorder recorder = new SingleWriterRecorder(2);
+        private final AtomicLong sumNanos = new AtomicLong();
+
+        private void record(long nanos) {
+            recorder.recordValue(nanos / 1000);
+            sumNanos.lazySet(sumNanos.get() + nanos);
+        }
+    }
+
+    /**
+     * Metrics and span stack of one thread; only the owning thread writes them
+     */
+    private static final class ThreadMetrics {
+        private final WeakReference<Thread> thread;
+        private final Deque<Span> spans = new ArrayDeque<>();
+        private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+        private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+        private final Queue<JSONObject> tests = new ConcurrentLinkedQueue<>();
+
+        private ThreadMetrics(Thread thread) {
+            this.thread = new WeakReference<>(thread);
+        }
+
+        private Span current() {
+            // spans closed out of order, or on another thread, are dropped once they surface
+            while (!spans.isEmpty() && spans.peek().isClosed()) {
+                spans.pop();
+            }
+            return spans.peek();
+        }
+
+        private boolean hasEnded() {
+            Thread owner = thread.get();
+            return owner == null || !owner.isAlive();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.augmentedframework.utils;
+
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+import java.nio.file.Paths;
+
+/**
+ * InstrumentationListener opens a test span around every test method, ends it and the test's
+ * last step when the method ends, and exports the instrumentation to instrumentation.dir when
+ * the suite finishes
+ *
+ * @author YSabato
+ * @version 1.0
+ * @since 10/18/2026
+ */
+public class InstrumentationListener implements ITestListener, ISuiteListener {
+    @Override
+    public void onTestStart(ITestResult result) {
+        String name = result.getTestClass().getRealClass().getSimpleName() + "." + result.getMethod().getMethodName();
+        TestContext.of(result).span = Instrumentation.start(Instrumentation.Kind.TEST, name);
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        end(result);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        end(result);
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        end(result);
+    }
+
+    @Override
+    public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+        end(result);
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        Instrumentation.export(Paths.get(EnvironmentPropertiesReader.getInstance().getString("instrumentation.dir", "target/instrumentation")));
+    }
+
+    private static void end(ITestResult result) {
+        TestContext context = TestContext.of(result);
+        context.endStep();
+        Instrumentation.Span span = context.span;
+        if (span != null) {
+            context.span = null;
+            span.close();
+        }
+    }
+}
@@ -1,7 +1,38 @@
 package com.augmentedframework.utils;
 
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * Json Utils compares json elements and returns true or false
+ * <p>
+ * Documents are compared structurally and every difference is reported with its JSON Pointer
+ * path. {@link Options#strict()} requires the same members and array order;
+ * {@link Options#lenient()} allows extra members in the actual document and matches arrays
+ * regardless of order. Unordered arrays are paired by a structural hash first, so only
+ * elements without an exact hash partner are compared pairwise. Ignored paths accept '*' for
+ * any single segment, numbers can be compared within a tolerance, and {@link #isEqual}
+ * stops at the first difference.
+ * <p>
+ * {@link #compare(Reader, Reader, Options)} walks both documents with a pull parser in
+ * lockstep and only builds a tree for an object whose remaining members appear in a
+ * different order, or for an array compared without order.
  *
  * @author YSabato
  * @version 1.0
@@ -9,7 +40,601 @@ package com.augmentedframework.utils;
  */
 public class JsonUtil {
 
+    private static final Object NULL = new Object() {
+        @Override
+        public String toString() {
+            return "null";
+        }
+    };
+    private static final int MAX_RENDERED = 100;
+
+    private JsonUtil() {
+    }
+
+    /**
+     * Returns whether the documents match, stopping at the first difference
+     *
+     * @param expected - expected json
+     * @param actual - actual json
+     * @param options - comparison options
+     * @return true when no difference was found
+     */
+    public static boolean isEqual(String expected, String actual, Options options) {
+        return compare(new StringReader(expected), new StringReader(actual), options.withMaxDifferences(1)).isEqual();
+    }
+
+    /**
+     * Compares two json documents held in memory
+     *
+     * @param expected - expected json
+     * @param actual - actual json
+     * @param options - comparison options
+     * @return comparison result with every difference up to the configured maximum
+     */
+    public static Result compare(String expected, String actual, Options options) {
+        return compare(new StringReader(expected), new StringReader(actual), options);
+    }
+
+    /**
+     * Compares two json documents read as streams
+     *
+     * @param expected - expected json
+     * @param actual - actual json
+     * @param options - comparison options
+     * @return comparison result with every difference up to the configured maximum
+     */
+    public static Result compare(Reader expected, Reader actual, Options options) {
+        Comparison comparison = new Comparison(options);
+        try (JsonReader expectedReader = new JsonReader(expected); JsonReader actualReader = new JsonReader(actual)) {
+            comparison.stream(expectedReader, actualReader, Pointer.ROOT);
+        } catch (IOException | IllegalStateException e) {
+            throw new IllegalArgumentException("Unable to parse json: " + e.getMessage(), e);
+        }
+        return new Result(comparison.differences);
+    }
+
+    /**
+     * Comparison settings; instances are immutable
+     */
+    public static final class Options {
+        private final boolean extensible;
+        private final boolean strictOrder;
+        private final double numericTolerance;
+        private final List<String[]> ignoredPaths;
+        private final int maxDifferences;
+
+        private Options(boolean extensible, boolean strictOrder, double numericTolerance, List<String[]> ignoredPaths, int maxDifferences) {
+            this.extensible = extensible;
+            this.strictOrder = strictOrder;
+            this.numericTolerance = numericTolerance;
+            this.ignoredPaths = ignoredPaths;
+            this.maxDifferences = maxDifferences;
+        }
+
+        /**
+         * Same members, same array order
+         *
+         * @return options
+         */
+        public static Options strict() {
+            return new Options(false, true, 0, Collections.emptyList(), Integer.MAX_VALUE);
+        }
+
+        /**
+         * Extra members allowed, arrays in any order
+         *
+         * @return options
+         */
+        public static Options lenient() {
+            return new Options(true, false, 0, Collections.emptyList(), Integer.MAX_VALUE);
+        }
+
+        public Options withStrictOrder(boolean strictOrder) {
+            return new Options(extensible, strictOrder, numericTolerance, ignoredPaths, maxDifferences);
+        }
+
+        public Options withExtensible(boolean extensible) {
+            return new Options(extensible, strictOrder, numericTolerance, ignoredPaths, maxDifferences);
+        }
+
+        public Options withNumericTolerance(double numericTolerance) {
+            return new Options(extensible, strictOrder, numericTolerance, ignoredPaths, maxDifferences);
+        }
+
+        /**
+         * Skips the given JSON Pointer paths and everything below them
+         *
+         * @param paths - pointers such as /meta/timestamp or /items/&#42;/id
+         * @return options
+         */
+        public Options withIgnoredPaths(String... paths) {
+            List<String[]> ignored = new ArrayList<>(ignoredPaths);
+            for (String path : paths) {
+                String[] segments = path.isEmpty() ? new String[0] : path.substring(1).split("/", -1);
+                for (int i = 0; i < segments.length; i++) {
+                    segments[i] = segments[i].replace("~1", "/").replace("~0", "~");
+                }
+                ignored.add(segments);
+            }
+            return new Options(extensible, strictOrder, numericTolerance, Collections.unmodifiableList(ignored), maxDifferences);
+        }
+
+        public Options withMaxDifferences(int maxDifferences) {
+            return new Options(extensible, strictOrder, numericTolerance, ignoredPaths, maxDifferences);
+        }
+    }
+
+    /**
+     * Differences found by a comparison
+     */
+    public static final class Result {
+        private final List<Difference> differences;
+
+        private Result(List<Difference> differences) {
+            this.differences = Collections.unmodifiableList(differences);
+        }
+
+        public boolean isEqual() {
+            return differences.isEmpty();
+        }
+
+        public List<Difference> getDifferences() {
+            return differences;
+        }
+
+        @Override
+        public String toString() {
+            if (differences.isEmpty()) {
+                return "No differences";
+            }
+            StringBuilder report = new StringBuilder(differences.size() + " difference(s):");
+            differences.forEach(difference -> report.append(System.lineSeparator()).append(difference));
+            return report.toString();
+        }
+    }
+
+    /**
+     * One difference, located by its JSON Pointer path
+     */
+    public static final class Difference {
+        private final String path;
+        private final String message;
+
+        private Difference(String path, String message) {
+            this.path = path;
+            this.message = message;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return (path.isEmpty() ? "/" : path) + ": " + message;
+        }
+    }
+
+    /**
+     * Path as a parent-linked list, turned into a pointer string only when reported
+     */
+    private static final class Pointer {
+        private static final Pointer ROOT = new Pointer(null, null, 0);
+
+        private final Pointer parent;
+        private final String segment;
+        private final int depth;
+
+        private Pointer(Pointer parent, String segment, int depth) {
+            this.parent = parent;
+            this.segment = segment;
+            this.depth = depth;
+        }
+
+        private Pointer child(String name) {
+            return new Pointer(this, name, depth + 1);
+        }
+
+        private Pointer child(int index) {
+            return new Pointer(this, Integer.toString(index), depth + 1);
+        }
+
+        private boolean matches(String[] pattern) {
+            if (pattern.length != depth) {
+                return false;
+            }
+            Pointer pointer = this;
+            for (int i = pattern.length - 1; i >= 0; i--, pointer = pointer.parent) {
+                if (!"*".equals(pattern[i]) && !pattern[i].equals(pointer.segment)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            Deque<String> segments = new ArrayDeque<>(depth);
+            for (Pointer pointer = this; pointer.parent != null; pointer = pointer.parent) {
+                segments.addFirst(pointer.segment.replace("~", "~0").replace("/", "~1"));
+            }
+            return segments.isEmpty() ? "" : "/" + String.join("/", segments);
+        }
+    }
+
     /**
-     * To-Do
+     * Unparsed number literal; converted to BigDecimal only when the literals differ
      */
+    private static final class JsonNumber {
+        private final String literal;
+
+        private JsonNumber(String literal) {
+            this.literal = literal;
+        }
+
+        private boolean matches(JsonNumber other, double tolerance) {
+            if (literal.equals(other.literal)) {
+                return true;
+            }
+            BigDecimal expected = new BigDecimal(literal);
+            BigDecimal actual = new BigDecimal(other.literal);
+            return tolerance > 0
+                    ? expected.subtract(actual).abs().compareTo(BigDecimal.valueOf(tolerance)) <= 0
+                    : expected.compareTo(actual) == 0;
+        }
+
+        private long canonicalHash() {
+            boolean plain = true;
+            for (int i = 0; i < literal.length() && plain; i++) {
+                char c = literal.charAt(i);
+                plain = c == '-' || (c >= '0' && c <= '9');
+            }
+            return plain ? literal.hashCode() : new BigDecimal(literal).stripTrailingZeros().toPlainString().hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return literal;
+        }
+    }
+
+    private static final class Comparison {
+        private final Options options;
+        private final List<Difference> differences = new ArrayList<>();
+
+        private Comparison(Options options) {
+            this.options = options;
+        }
+
+        private boolean done() {
+            return differences.size() >= options.maxDifferences;
+        }
+
+        private void report(Pointer path, String message) {
+            if (!done()) {
+                differences.add(new Difference(path.toString(), message));
+            }
+        }
+
+        private boolean ignored(Pointer path) {
+            for (String[] pattern : options.ignoredPaths) {
+                if (path.matches(pattern)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void stream(JsonReader expected, JsonReader actual, Pointer path) throws IOException {
+            if (ignored(path)) {
+                expected.skipValue();
+                actual.skipValue();
+                return;
+            }
+            JsonToken expectedToken = expected.peek();
+            JsonToken actualToken = actual.peek();
+            if (expectedToken == JsonToken.BEGIN_OBJECT && actualToken == JsonToken.BEGIN_OBJECT) {
+                streamObject(expected, actual, path);
+            } else if (expectedToken == JsonToken.BEGIN_ARRAY && actualToken == JsonToken.BEGIN_ARRAY) {
+                if (options.strictOrder) {
+                    streamArray(expected, actual, path);
+                } else {
+                    compareUnordered(readArray(expected), readArray(actual), path);
+                }
+            } else {
+                compare(read(expected), read(actual), path);
+            }
+        }
+
+        private void streamObject(JsonReader expected, JsonReader actual, Pointer path) throws IOException {
+            expected.beginObject();
+            actual.beginObject();
+            while (expected.hasNext() && actual.hasNext() && !done()) {
+                String expectedName = expected.nextName();
+                String actualName = actual.nextName();
+                if (expectedName.equals(actualName)) {
+                    stream(expected, actual, path.child(expectedName));
+                    continue;
+                }
+                // member order diverged: compare the rest of this object as trees
+                Map<String, Object> expectedRest = new LinkedHashMap<>();
+                expectedRest.put(expectedName, read(expected));
+                while (expected.hasNext()) {
+                    expectedRest.put(expected.nextName(), read(expected));
+                }
+                Map<String, Object> actualRest = new LinkedHashMap<>();
+                actualRest.put(actualName, read(actual));
+                while (actual.hasNext()) {
+                    actualRest.put(actual.nextName(), read(actual));
+                }
+                compareObjects(expectedRest, actualRest, path);
+            }
+            if (done()) {
+                return;
+            }
+            while (expected.hasNext()) {
+                Pointer child = path.child(expected.nextName());
+                expected.skipValue();
+                if (!ignored(child)) {
+                    report(child, "expected member missing in actual");
+                }
+            }
+            while (actual.hasNext()) {
+                Pointer child = path.child(actual.nextName());
+                actual.skipValue();
+                if (!options.extensible && !ignored(child)) {
+                    report(child, "unexpected member in actual");
+                }
+            }
+            expected.endObject();
+            actual.endObject();
+        }
+
+        private void streamArray(JsonReader expected, JsonReader actual, Pointer path) throws IOException {
+            expected.beginArray();
+            actual.beginArray();
+            int index = 0;
+            for (; expected.hasNext() && actual.hasNext() && !done(); index++) {
+                stream(expected, actual, path.child(index));
+            }
+            if (done()) {
+                return;
+            }
+            int expectedSize = index;
+            int actualSize = index;
+            for (; expected.hasNext(); expectedSize++) {
+                expected.skipValue();
+            }
+            for (; actual.hasNext(); actualSize++) {
+                actual.skipValue();
+            }
+            if (expectedSize != actualSize) {
+                report(path, String.format("expected %d elements but was %d", expectedSize, actualSize));
+            }
+            expected.endArray();
+            actual.endArray();
+        }
+
+        @SuppressWarnings("unchecked")
+        private void compare(Object expected, Object actual, Pointer path) {
+            if (ignored(path)) {
+                return;
+            }
+            if (expected instanceof Map && actual instanceof Map) {
+                compareObjects((Map<String, Object>) expected, (Map<String, Object>) actual, path);
+            } else if (expected instanceof List && actual instanceof List) {
+                if (options.strictOrder) {
+                    compareOrdered((List<Object>) expected, (List<Object>) actual, path);
+                } else {
+                    compareUnordered((List<Object>) expected, (List<Object>) actual, path);
+                }
+            } else if (expected instanceof JsonNumber && actual instanceof JsonNumber) {
+                if (!((JsonNumber) expected).matches((JsonNumber) actual, options.numericTolerance)) {
+                    report(path, String.format("expected %s but was %s", expected, actual));
+                }
+            } else if (!expected.equals(actual)) {
+                report(path, String.format("expected %s but was %s", render(expected), render(actual)));
+            }
+        }
+
+        private void compareObjects(Map<String, Object> expected, Map<String, Object> actual, Pointer path) {
+            for (Map.Entry<String, Object> member : expected.entrySet()) {
+                if (done()) {
+                    return;
+                }
+                Pointer child = path.child(member.getKey());
+                if (!actual.containsKey(member.getKey())) {
+                    if (!ignored(child)) {
+                        report(child, "expected member missing in actual");
+                    }
+                } else {
+                    compare(member.getValue(), actual.get(member.getKey()), child);
+                }
+            }
+            if (!options.extensible) {
+                for (String name : actual.keySet()) {
+                    Pointer child = path.child(name);
+                    if (!expected.containsKey(name) && !ignored(child)) {
+                        report(child, "unexpected member in actual");
+                    }
+                }
+            }
+        }
+
+        private void compareOrdered(List<Object> expected, List<Object> actual, Pointer path) {
+            int common = Math.min(expected.size(), actual.size());
+            for (int i = 0; i < common && !done(); i++) {
+                compare(expected.get(i), actual.get(i), path.child(i));
+            }
+            if (expected.size() != actual.size()) {
+                report(path, String.format("expected %d elements but was %d", expected.size(), actual.size()));
+            }
+        }
+
+        /**
+         * Pairs elements through a structural hash so matching arrays cost O(n); only elements
+         * left without an exact partner are compared against each other
+         */
+        private void compareUnordered(List<Object> expected, List<Object> actual, Pointer path) {
+            Set<String> projection = options.extensible ? memberNames(expected) : null;
+            Map<Long, Deque<Integer>> actualByHash = new HashMap<>();
+            for (int j = 0; j < actual.size(); j++) {
+                actualByHash.computeIfAbsent(hash(actual.get(j), path.child(j), projection), k -> new ArrayDeque<>()).add(j);
+            }
+            List<Integer> unmatched = new ArrayList<>();
+            for (int i = 0; i < expected.size(); i++) {
+                Deque<Integer> candidates = actualByHash.get(hash(expected.get(i), path.child(i), projection));
+                if (!removeMatch(expected.get(i), i, actual, candidates, path)) {
+                    unmatched.add(i);
+                }
+            }
+            Deque<Integer> remaining = new ArrayDeque<>();
+            actualByHash.values().forEach(remaining::addAll);
+            List<Integer> sorted = new ArrayList<>(remaining);
+            Collections.sort(sorted);
+            remaining = new ArrayDeque<>(sorted);
+            for (int i : unmatched) {
+                if (done()) {
+                    return;
+                }
+                if (!removeMatch(expected.get(i), i, actual, remaining, path)) {
+                    report(path.child(i), "no matching element in actual for " + render(expected.get(i)));
+                }
+            }
+            for (int j : remaining) {
+                report(path.child(j), "unexpected element in actual " + render(actual.get(j)));
+            }
+        }
+
+        private boolean removeMatch(Object expected, int index, List<Object> actual, Deque<Integer> candidates, Pointer path) {
+            if (candidates == null) {
+                return false;
+            }
+            for (Iterator<Integer> it = candidates.iterator(); it.hasNext(); ) {
+                int j = it.next();
+                Comparison probe = new Comparison(options.withMaxDifferences(1));
+                probe.compare(expected, actual.get(j), path.child(index));
+                if (probe.differences.isEmpty()) {
+                    it.remove();
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Member names used by the expected elements, so that extra members of actual elements
+         * do not change their hash when the comparison is extensible
+         */
+        @SuppressWarnings("unchecked")
+        private static Set<String> memberNames(List<Object> elements) {
+            Set<String> names = new HashSet<>();
+            for (Object element : elements) {
+                if (element instanceof Map) {
+                    names.addAll(((Map<String, Object>) element).keySet());
+                }
+            }
+            return names;
+        }
+
+        /**
+         * Structural hash consistent with {@link #compare}: member order and, for unordered
+         * arrays, element order do not contribute; ignored paths and numbers under a tolerance
+         * hash to a constant of their kind. When extra members are allowed, top level objects
+         * hash only the projected members and nested objects hash to a constant.
+         * Equal hashes are always confirmed by a full comparison.
+         */
+        @SuppressWarnings("unchecked")
+        private long hash(Object value, Pointer path, Set<String> projection) {
+            if (ignored(path)) {
+                return 0;
+            }
+            if (value instanceof Map) {
+                if (options.extensible && projection == null) {
+                    return 0x0B;
+                }
+                long hash = 0x0B;
+                for (Map.Entry<String, Object> member : ((Map<String, Object>) value).entrySet()) {
+                    if (projection == null || projection.contains(member.getKey())) {
+                        hash += mix(member.getKey().hashCode() * 31L + hash(member.getValue(), path.child(member.getKey()), null));
+                    }
+                }
+                return hash;
+            }
+            if (value instanceof List) {
+                List<Object> elements = (List<Object>) value;
+                long hash = 0x0A + elements.size();
+                for (int i = 0; i < elements.size(); i++) {
+                    long element = hash(elements.get(i), path.child(i), null);
+                    hash = options.strictOrder ? hash * 31 + element : hash + mix(element);
+                }
+                return hash;
+            }
+            if (value instanceof JsonNumber) {
+                return options.numericTolerance > 0 ? 0x0C : mix(((JsonNumber) value).canonicalHash());
+            }
+            return mix(value.hashCode() + 0x0D);
+        }
+
+        private static long mix(long value) {
+            value ^= value >>> 33;
+            value *= 0xff51afd7ed558ccdL;
+            value ^= value >>> 33;
+            return value;
+        }
+    }
+
+    private static List<Object> readArray(JsonReader reader) throws IOException {
+        List<Object> elements = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            elements.add(read(reader));
+        }
+        reader.endArray();
+        return elements;
+    }
+
+    private static Object read(JsonReader reader) throws IOException {
+        switch (reader.peek()) {
+            case BEGIN_OBJECT:
+                Map<String, Object> members = new LinkedHashMap<>();
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    members.put(reader.nextName(), read(reader));
+                }
+                reader.endObject();
+                return members;
+            case BEGIN_ARRAY:
+                return readArray(reader);
+            case STRING:
+                return reader.nextString();
+            case NUMBER:
+                return new JsonNumber(reader.nextString());
+            case BOOLEAN:
+                return reader.nextBoolean();
+            case NULL:
+                reader.nextNull();
+                return NULL;
+            default:
+                throw new IllegalStateException("Unexpected token " + reader.peek() + " at " + reader.getPath());
+        }
+    }
+
+    private static String render(Object value) {
+        String rendered;
+        if (value instanceof String) {
+            rendered = '"' + (String) value + '"';
+        } else if (value instanceof Map) {
+            rendered = ((Map<?, ?>) value).isEmpty() ? "{}" : "{...}";
+        } else if (value instanceof List) {
+            rendered = "[" + ((List<?>) value).size() + " elements]";
+        } else {
+            rendered = String.valueOf(value);
+        }
+        return rendered.length() > MAX_RENDERED ? rendered.substring(0, MAX_RENDERED) + "..." : rendered;
+    }
 }
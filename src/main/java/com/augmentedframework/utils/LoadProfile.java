@@ -0,0 +1,126 @@
+package com.augmentedframework.utils;
+
+import java.time.Duration;
+
+/**
+ * LoadProfile describes how {@link RestAssuredAPI#load} drives a scenario. The open model
+ * starts iterations at a fixed arrival rate whatever the response times are; the closed model
+ * runs a fixed number of virtual users, each starting its next iteration when the previous one
+ * ends, or on its pacing interval when one is set. Latency is measured from the intended start
+ * of an iteration, so a stalled system is not hidden by the load generator waiting on it.
+ *
+ * @author YSabato
+ * @version 1.0
+ * @since 10/18/2026
+ */
+public final class LoadProfile {
+
+    public enum Model { OPEN, CLOSED }
+
+    private final Model model;
+    private final double ratePerSecond;
+    private final int users;
+    private final Duration duration;
+    private final Duration pacing;
+    private final int maxInFlight;
+
+    private LoadProfile(Model model, double ratePerSecond, int users, Duration duration, Duration pacing, int maxInFlight) {
+        if (duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("Load duration must be positive");
+        }
+        this.model = model;
+        this.ratePerSecond = ratePerSecond;
+        this.users = users;
+        this.duration = duration;
+        this.pacing = pacing;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Starts iterations at a fixed arrival rate
+     *
+     * @param ratePerSecond - iterations started per second
+     * @param duration - length of the run
+     * @return profile
+     */
+    public static LoadProfile open(double ratePerSecond, Duration duration) {
+        if (ratePerSecond <= 0) {
+            throw new IllegalArgumentException("Arrival rate must be positive");
+        }
+        return new LoadProfile(Model.OPEN, ratePerSecond, 0, duration, Duration.ZERO,
+                EnvironmentPropertiesReader.getInstance().getInt("load.maxInFlight", 10000));
+    }
+
+    /**
+     * Runs a fixed number of virtual users back to back
+     *
+     * @param users - concurrent virtual users
+     * @param duration - length of the run
+     * @return profile
+     */
+    public static LoadProfile closed(int users, Duration duration) {
+        if (users <= 0) {
+            throw new IllegalArgumentException("Closed model needs at least one user");
+        }
+        return new LoadProfile(Model.CLOSED, 0, users, duration, Duration.ZERO, users);
+    }
+
+    /**
+     * Gives each closed model user a target interval between iteration starts; latency is then
+     * measured from the planned start, correcting for coordinated omission
+     *
+     * @param pacing - interval between iteration starts of one user
+     * @return profile
+     */
+    public LoadProfile withPacing(Duration pacing) {
+        if (pacing == null || pacing.isNegative() || pacing.isZero()) {
+            throw new IllegalArgumentException("Pacing must be positive");
+        }
+        return new LoadProfile(model, ratePerSecond, users, duration, pacing, maxInFlight);
+    }
+
+    /**
+     * Caps open model iterations in flight; arrivals beyond it wait, and their wait is counted as
+     * latency. Arrivals still waiting when the run's duration is over are not started.
+     *
+     * @param maxInFlight - maximum concurrent iterations
+     * @return profile
+     */
+    public LoadProfile withMaxInFlight(int maxInFlight) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("Max in flight must be positive");
+        }
+        return new LoadProfile(model, ratePerSecond, users, duration, pacing, maxInFlight);
+    }
+
+    public Model getModel() {
+        return model;
+    }
+
+    public double getRatePerSecond() {
+        return ratePerSecond;
+    }
+
+    public int getUsers() {
+        return users;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public Duration getPacing() {
+        return pacing;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    @Override
+    public String toString() {
+        return model == Model.OPEN
+                ? String.format("open model, %.1f/s for %s", ratePerSecond, duration)
+                : String.format("closed model, %d users%s for %s", users, pacing.isZero() ? "" : " paced every " + pacing, duration);
+    }
+}
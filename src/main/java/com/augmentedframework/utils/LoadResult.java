@@ -0,0 +1,178 @@
+package com.augmentedframework.utils;
+
+import org.HdrHistogram.Histogram;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * LoadResult holds the latency histograms of one {@link RestAssuredAPI#load} run, recorded in
+ * microseconds. The response time histogram is measured from the intended start of every
+ * iteration and is corrected for coordinated omission; the service time histogram is measured
+ * from the actual start and shows what the system took once a request was sent.
+ *
+ * @author YSabato
+ * @version 1.0
+ * @since 10/18/2026
+ */
+public final class LoadResult {
+    private static final double[] PERCENTILES = {50, 90, 95, 99, 99.9};
+
+    private final String name;
+    private final LoadProfile profile;
+    private final Histogram responseTime;
+    private final Histogram serviceTime;
+    private final long errors;
+    private final String firstError;
+    private final Duration elapsed;
+
+    LoadResult(String name, LoadProfile profile, Histogram responseTime, Histogram serviceTime, long errors, String firstError, Duration elapsed) {
+        this.name = name;
+        this.profile = profile;
+        this.responseTime = responseTime;
+        this.serviceTime = serviceTime;
+        this.errors = errors;
+        this.firstError = firstError;
+        this.elapsed = elapsed;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public LoadProfile getProfile() {
+        return profile;
+    }
+
+    /**
+     * Latency from intended start, corrected for coordinated omission, in microseconds
+     *
+     * @return histogram
+     */
+    public Histogram getResponseTime() {
+        return responseTime;
+    }
+
+    /**
+     * Latency from actual start, in microseconds
+     *
+     * @return histogram
+     */
+    public Histogram getServiceTime() {
+        return serviceTime;
+    }
+
+    public long getIterations() {
+        return responseTime.getTotalCount();
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    public double getThroughput() {
+        return elapsed.isZero() ? 0 : getIterations() * 1e9 / elapsed.toNanos();
+    }
+
+    /**
+     * Returns a corrected response time percentile in milli seconds
+     *
+     * @param percentile - percentile, e.g. 99.9
+     * @return latency in milli seconds
+     */
+    public double getPercentileMillis(double percentile) {
+        return responseTime.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    /**
+     * Returns the summary as JSON; latencies in milli seconds
+     *
+     * @return summary
+     */
+    public JSONObject toJson() {
+        JSONObject summary = new JSONObject();
+        summary.put("name", name);
+        summary.put("profile", profile.toString());
+        summary.put("iterations", getIterations());
+        summary.put("errors", errors);
+        summary.put("firstError", firstError != null ? firstError : JSONObject.NULL);
+        summary.put("elapsedMillis", elapsed.toMillis());
+        summary.put("throughputPerSecond", getThroughput());
+        summary.put("responseTime", percentiles(responseTime));
+        summary.put("serviceTime", percentiles(serviceTime));
+        return summary;
+    }
+
+    /**
+     * Writes the JSON summary and the full corrected percentile distribution (.hgrm, in milli
+     * seconds) to the directory
+     *
+     * @param directory - output directory
+     * @return JSON summary file
+     */
+    public Path write(Path directory) {
+        String fileName = name.replaceAll("[^A-Za-z0-9._-]", "_");
+        Path json = directory.resolve(fileName + ".json");
+        try {
+            Files.createDirectories(directory);
+            Files.write(json, toJson().toString(2).getBytes(StandardCharsets.UTF_8));
+            try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(fileName + ".hgrm")), false, "UTF-8")) {
+                responseTime.outputPercentileDistribution(out, 1000.0);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to write load results to " + directory + ": " + e.getMessage(), e);
+        }
+        return json;
+    }
+
+    /**
+     * Writes the percentile summary to the log and the report of the current test
+     */
+    public void report() {
+        StringBuilder table = new StringBuilder("<b>Load '").append(name).append("'</b> - ").append(profile)
+                .append(String.format(" - %d iterations, %d errors, %.1f/s", getIterations(), errors, getThroughput()))
+                .append("<table><tr><th>ms</th>");
+        for (double percentile : PERCENTILES) {
+            table.append("<th>p").append(format(percentile)).append("</th>");
+        }
+        table.append("<th>max</th></tr>");
+        appendRow(table, "response", responseTime);
+        appendRow(table, "service", serviceTime);
+        table.append("</table>");
+        if (firstError != null) {
+            table.append("First error: ").append(firstError);
+        }
+        Log.message(table.toString());
+    }
+
+    private static void appendRow(StringBuilder table, String label, Histogram histogram) {
+        table.append("<tr><td>").append(label).append("</td>");
+        for (double percentile : PERCENTILES) {
+            table.append("<td>").append(String.format("%.2f", histogram.getValueAtPercentile(percentile) / 1000.0)).append("</td>");
+        }
+        table.append("<td>").append(String.format("%.2f", histogram.getMaxValue() / 1000.0)).append("</td></tr>");
+    }
+
+    private static JSONObject percentiles(Histogram histogram) {
+        JSONObject values = new JSONObject();
+        values.put("mean", histogram.getMean() / 1000.0);
+        for (double percentile : PERCENTILES) {
+            values.put("p" + format(percentile), histogram.getValueAtPercentile(percentile) / 1000.0);
+        }
+        values.put("max", histogram.getMaxValue() / 1000.0);
+        return values;
+    }
+
+    private static String format(double percentile) {
+        return percentile == Math.rint(percentile) ? Long.toString((long) percentile) : Double.toString(percentile);
+    }
+}
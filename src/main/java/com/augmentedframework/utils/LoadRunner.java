@@ -0,0 +1,139 @@
+package com.augmentedframework.utils;
+
+import org.HdrHistogram.Recorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * LoadRunner drives one scenario according to a {@link LoadProfile} on virtual threads and
+ * records every iteration into lock-free HdrHistogram recorders. Open model arrivals are
+ * scheduled against the clock from the start of the run, never from the previous completion.
+ *
+ * @author YSabato
+ * @version 1.0
+ * @since 10/18/2026
+ */
+final class LoadRunner {
+    private static final Logger logger = LoggerFactory.getLogger(LoadRunner.class);
+
+    private final String name;
+    private final LoadProfile profile;
+    private final Callable<?> scenario;
+    private final Recorder responseTime = new Recorder(3);
+    private final Recorder serviceTime = new Recorder(3);
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicReference<String> firstError = new AtomicReference<>();
+
+    LoadRunner(String name, LoadProfile profile, Callable<?> scenario) {
+        this.name = name;
+        this.profile = profile;
+        this.scenario = scenario;
+    }
+
+    LoadResult run() {
+        long start = System.nanoTime();
+        long end = start + profile.getDuration().toNanos();
+        ExecutorService virtualThreads = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            if (profile.getModel() == LoadProfile.Model.OPEN) {
+                runOpen(virtualThreads, start, end);
+            } else {
+                runClosed(virtualThreads, start, end);
+            }
+            virtualThreads.shutdown();
+            Duration drain = EnvironmentPropertiesReader.getInstance().getDuration("load.drainTimeout", Duration.ofSeconds(30), ChronoUnit.SECONDS);
+            if (!virtualThreads.awaitTermination(drain.toMillis(), TimeUnit.MILLISECONDS)) {
+                logger.warn("Load '" + name + "' iterations still running after " + drain + ", abandoning them");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            virtualThreads.shutdownNow();
+        }
+        return new LoadResult(name, profile, responseTime.getIntervalHistogram(), serviceTime.getIntervalHistogram(),
+                errors.get(), firstError.get(), Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private void runOpen(ExecutorService virtualThreads, long start, long end) {
+        double intervalNanos = 1e9 / profile.getRatePerSecond();
+        Semaphore inFlight = new Semaphore(profile.getMaxInFlight());
+        for (long i = 0; ; i++) {
+            long intended = start + (long) (i * intervalNanos);
+            if (intended >= end || Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            // a saturated run waits for a free slot only until the end of the run
+            boolean acquired;
+            try {
+                acquired = inFlight.tryAcquire(end - System.nanoTime(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (!acquired) {
+                long scheduled = (long) Math.ceil((end - start) / intervalNanos);
+                logger.warn("Load '" + name + "' reached " + profile.getMaxInFlight() + " iterations in flight, "
+                        + (scheduled - i) + " of " + scheduled + " arrivals were not started");
+                return;
+            }
+            virtualThreads.execute(() -> {
+                try {
+                    iterate(intended);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        }
+    }
+
+    private void runClosed(ExecutorService virtualThreads, long start, long end) {
+        long pacing = profile.getPacing().toNanos();
+        for (int user = 0; user < profile.getUsers(); user++) {
+            virtualThreads.execute(() -> {
+                long intended = start;
+                while (intended < end && !Thread.currentThread().isInterrupted()) {
+                    iterate(intended);
+                    if (pacing > 0) {
+                        // a late iteration keeps its planned start, so the overrun shows up as latency
+                        intended += pacing;
+                        long wait = intended - System.nanoTime();
+                        if (wait > 0) {
+                            LockSupport.parkNanos(wait);
+                        }
+                    } else {
+                        intended = System.nanoTime();
+                    }
+                }
+            });
+        }
+    }
+
+    private void iterate(long intended) {
+        long started = System.nanoTime();
+        try {
+            scenario.call();
+        } catch (Exception | AssertionError e) {
+            errors.incrementAndGet();
+            firstError.compareAndSet(null, e.getClass().getSimpleName() + ": " + e.getMessage());
+        } finally {
+            long finished = System.nanoTime();
+            responseTime.recordValue(Math.max(0, finished - intended) / 1000);
+            serviceTime.recordValue((finished - started) / 1000);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.augmentedframework.utils;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * LoadTimeHistory learns the expected page load time per URL pattern as an exponentially
+ * weighted moving average. URLs are reduced to a pattern by dropping the query string and
+ * fragment and replacing numeric and id-like path segments with '*', so /orders/123 and
+ * /orders/456 share one estimate.
+ *
+ * @author YSabato
+ * @version 1.0
+ * @since 10/18/2026
+ */
+public class LoadTimeHistory {
+
+    private static final double WEIGHT = 0.3;
+    private static final Pattern ID_SEGMENT = Pattern.compile("/(\\d+|[0-9a-fA-F-]{16,})(?=/|$)");
+    private static final Map<String, Double> expectedMillis = new ConcurrentHashMap<>();
+
+    private LoadTimeHistory() {
+    }
+
+    /**
+     * Returns the URL pattern used as history key
+     *
+     * @param url - page URL
+     * @return URL pattern
+     */
+    public static String pattern(String url) {
+        if (url == null) {
+            return "";
+        }
+        int end = url.length();
+        int query = url.indexOf('?');
+        int fragment = url.indexOf('#');
+        if (query >= 0) {
+            end = query;
+        }
+        if (fragment >= 0 && fragment < end) {
+            end = fragment;
+        }
+        return ID_SEGMENT.matcher(url.substring(0, end).toLowerCase()).replaceAll("/*");
+    }
+
+    /**
+     * Returns the learned load time of the URL's pattern, or null when none was recorded
+     *
+     * @param url - page URL
+     * @return expected load time
+     */
+    public static Duration expected(String url) {
+        Double millis = expectedMillis.get(pattern(url));
+        return millis == null ? null : Duration.ofMillis(millis.longValue());
+    }
+
+    /**
+     * Folds an observed load time into the URL pattern's estimate
+     *
+     * @param url - page URL
+     * @param loadMillis - observed load time in milli seconds
+     */
+    public static void record(String url, long loadMillis) {
+        expectedMillis.merge(pattern(url), (double) loadMillis, (previous, observed) -> previous + WEIGHT * (observed - previous));
+    }
+}
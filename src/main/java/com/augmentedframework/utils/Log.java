@@ -3,19 +3,17 @@ package com.augmentedframework.utils;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.Calendar;
 import java.util.Map;
 import java.util.Properties;
 
-import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.core.config.Configurator;
+import org.openqa.selenium.WebDriver;
 import org.testng.Assert;
+import org.testng.ITestResult;
 import org.testng.Reporter;
 
-import java.text.SimpleDateFormat;
-
 /**
  * Log class captures and prints screenshots and test case info and messages with actions for writing log
  * status as pass/fail
@@ -38,6 +36,8 @@ public class Log {
     static final String EVENT_HTML_BEGIN = "";
     static final String EVENT_HTML_END = "";
 
+    static final String VIRTUAL_THREAD_LOGGER = "virtual";
+
     static {
         try {
             Properties props = new Properties();
@@ -77,25 +77,44 @@ public class Log {
      * lsLog4j returns name of the logger from the current thread
      */
     public static Logger lsLog4j() {
-        return LogManager.getLogger(Thread.currentThread().getName());
+        return lsLog4j(loggerName(Thread.currentThread()));
+    }
+
+    /**
+     * lsLog4j returns the logger named after the given thread
+     */
+    static Logger lsLog4j(String threadName) {
+        return LogManager.getLogger(threadName);
+    }
+
+    /**
+     * Returns the logger name of a thread. Virtual threads are created per test and log4j keeps
+     * every logger it hands out, so they share one logger instead of one per thread name.
+     */
+    static String loggerName(Thread thread) {
+        return thread.isVirtual() ? VIRTUAL_THREAD_LOGGER : thread.getName();
     }
 
     /**
-     * callerClass method used to retrieve the Class Name
+     * callerClass method used to retrieve the Class Name of the first caller outside Log
      */
     public static String callerClass() {
-        return Thread.currentThread().getStackTrace()[2].getClassName();
+        return StackWalker.getInstance().walk(frames -> frames.map(StackWalker.StackFrame::getClassName)
+                .filter(className -> !className.equals(Log.class.getName())).findFirst().orElse(""));
     }
 
     /**
-     * Method prints a custom message in the log (level=info)
+     * Method prints a custom message in the log (level=info). The message is the test's next
+     * step, timed as a step span until the following message or the end of the test.
      * @param description - test case custom message
      *
      */
     public static void message(String description) {
-        Reporter.log(MESSAGE_HTML_BEGIN + description + MESSAGE_HTML_END);
-        ExtentReporter.info(description);
-        lsLog4j().log(Level.INFO, callerClass(), description, null);
+        TestContext context = TestContext.current();
+        if (context != null) {
+            context.nextStep(description);
+        }
+        LogPipeline.publish(LogEvent.message(description));
     }
 
     /**
@@ -104,10 +123,7 @@ public class Log {
      *
      */
     public static void event(String description) {
-        String currDate = new SimpleDateFormat("dd MMM HH:mm:ss SSS").format(Calendar.getInstance().getTime());
-        Reporter.log(EVENT_HTML_BEGIN.replace("%s", getHashCode()) + currDate + " - " + description + EVENT_HTML_END);
-        ExtentReporter.debug(description);
-        lsLog4j().log(Level.DEBUG, callerClass(), description, null);
+        LogPipeline.publish(LogEvent.event(description));
     }
 
     /**
@@ -117,12 +133,7 @@ public class Log {
      *
      */
     public static void event(String description, long duration) {
-        String currDate = new SimpleDateFormat("dd MMM HH:mm:ss SSS").format(Calendar.getInstance().getTime());
-        Reporter.log(EVENT_HTML_BEGIN.replace("%s", getHashCode()) + currDate + " - <b>" + duration + "</b> - " + description + " - "
-                + Thread.currentThread().getStackTrace()[2].toString() + EVENT_HTML_END);
-        ExtentReporter.debug(currDate + " - <b>" + duration + "</b> - " + description + " - "
-                + Thread.currentThread().getStackTrace()[2].toString());
-        lsLog4j().log(Level.DEBUG, callerClass(), description, null);
+        LogPipeline.publish(LogEvent.event(description, duration));
     }
 
     /**
@@ -131,23 +142,48 @@ public class Log {
      *
      */
     public static void fail(String description) {
-        Reporter.log("<!--FAIL-->");
-        Reporter.log(FAIL_HTML_BEGIN + description + FAIL_HTML_END1 + FAIL_HTML_END2);
-        ExtentReporter.fail(description);
-        ExtentReporter.logStackTrace(new AssertionError(description));
-        lsLog4j().log(Level.ERROR, callerClass(), description, null);
+        LogPipeline.publish(LogEvent.fail(description));
+        flush();
         Assert.fail(description);
     }
 
+    /**
+     * Logs the message and captures a screenshot for it. Only the raw capture runs on
+     * the calling thread; storing the image is done by {@link ScreenshotCapture}.
+     * @param description - test case custom message
+     * @param driver - driver to capture
+     *
+     */
+    public static void message(String description, WebDriver driver) {
+        message(description);
+        ScreenshotCapture.capture(driver, description);
+    }
+
+    /**
+     * Returns the folder screenshots are written to
+     */
+    static String getScreenShotPath() {
+        return screenShotPath;
+    }
+
+    /**
+     * Waits until every message logged so far has reached Reporter, ExtentReporter and log4j.
+     * Called at the end of every test by {@link LogFlushListener}.
+     */
+    public static void flush() {
+        LogPipeline.flush();
+    }
+
     /**
      * Returns the hashcode based on the test case name and parameters
      * @return
      */
     public static String getHashCode() {
-        StringBuilder parameters = new StringBuilder();
-        for(Object param : Reporter.getCurrentTestResult().getParameters()) {
-            parameters.append(param);
-        }
-        return String.valueOf((Reporter.getCurrentTestResult().getMethod().getMethodName() + parameters).hashCode());
+        TestContext context = TestContext.current();
+        return context == null ? "" : context.getHash();
+    }
+
+    static String getHashCode(ITestResult iTestResult) {
+        return iTestResult == null ? "" : TestContext.of(iTestResult).getHash();
     }
 }
@@ -0,0 +1,119 @@
+package com.augmentedframework.utils;
+
+import org.testng.ITestResult;
+
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * LogEvent is the record captured on the test thread for every {@link Log} call.
+ * It holds only references and primitives; message formatting happens on the
+ * {@link LogPipeline} consumer. The caller frame is found with a short StackWalker
+ * walk that stops at the first frame outside the logging classes.
+ *
+ * @author YSabato
+ * @version 1.0
+ * @since 10/18/2026
+ */
+class LogEvent {
+
+    enum Kind { MESSAGE, EVENT, TIMED_EVENT, FAIL, BARRIER }
+
+    private static final StackWalker walker = StackWalker.getInstance();
+
+    private final Kind kind;
+    private final String description;
+    private final long duration;
+    private final long timestamp;
+    private final TestContext context;
+    private final String threadName;
+    private final StackWalker.StackFrame caller;
+    private final Throwable error;
+    private final CountDownLatch barrier;
+
+    private LogEvent(Kind kind, String description, long duration, Throwable error, CountDownLatch barrier) {
+        this.kind = kind;
+        this.description = description;
+        this.duration = duration;
+        this.error = error;
+        this.barrier = barrier;
+        this.timestamp = System.currentTimeMillis();
+        if (barrier == null) {
+            this.context = TestContext.current();
+            this.threadName = Log.loggerName(Thread.currentThread());
+            this.caller = walker.walk(frames -> frames.filter(frame -> !isLoggingFrame(frame)).findFirst().orElse(null));
+        } else {
+            this.context = null;
+            this.threadName = null;
+            this.caller = null;
+        }
+    }
+
+    static LogEvent message(String description) {
+        return new LogEvent(Kind.MESSAGE, description, 0, null, null);
+    }
+
+    static LogEvent event(String description) {
+        return new LogEvent(Kind.EVENT, description, 0, null, null);
+    }
+
+    static LogEvent event(String description, long duration) {
+        return new LogEvent(Kind.TIMED_EVENT, description, duration, null, null);
+    }
+
+    static LogEvent fail(String description) {
+        return new LogEvent(Kind.FAIL, description, 0, new AssertionError(description), null);
+    }
+
+    static LogEvent barrier(CountDownLatch barrier) {
+        return new LogEvent(Kind.BARRIER, null, 0, null, barrier);
+    }
+
+    private static boolean isLoggingFrame(StackWalker.StackFrame frame) {
+        String className = frame.getClassName();
+        return className.equals(Log.class.getName()) || className.equals(LogEvent.class.getName()) || className.equals(LogPipeline.class.getName());
+    }
+
+    Kind getKind() {
+        return kind;
+    }
+
+    String getDescription() {
+        return description;
+    }
+
+    long getDuration() {
+        return duration;
+    }
+
+    long getTimestamp() {
+        return timestamp;
+    }
+
+    TestContext getContext() {
+        return context;
+    }
+
+    ITestResult getTestResult() {
+        return context == null ? null : context.getResult();
+    }
+
+    String getThreadName() {
+        return threadName;
+    }
+
+    String getCallerClass() {
+        return caller != null ? caller.getClassName() : "";
+    }
+
+    String getCallerFrame() {
+        return caller != null ? caller.toStackTraceElement().toString() : "";
+    }
+
+    Throwable getError() {
+        return error;
+    }
+
+    CountDownLatch getBarrier() {
+        return barrier;
+    }
+}
@@ -0,0 +1,45 @@
+package com.augmentedframework.utils;
+
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestResult;
+
+/**
+ * LogFlushListener waits for the asynchronous log pipeline after every test and
+ * configuration method, so report output stays complete and in order per test,
+ * then ends the test's Extent report node. A failed test's screen is captured first
+ * when screenshot.onFailure is set, followed by the test's WebDriver command trace.
+ * Without this listener asynchronous logging falls back to writing on the calling thread.
+ *
+ * @author YSabato
+ * @version 1.0
+ * @since 10/18/2026
+ */
+public class LogFlushListener implements IInvokedMethodListener {
+
+    public LogFlushListener() {
+        LogPipeline.barrierRegistered();
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (method.isTestMethod() && testResult.getStatus() == ITestResult.FAILURE && WebDriverFactory.getCurrentDriver() != null
+                && EnvironmentPropertiesReader.getInstance().getBoolean("screenshot.onFailure", false)) {
+            ScreenshotCapture.capture(WebDriverFactory.getCurrentDriver(), "Failure screenshot");
+        }
+        if (method.isTestMethod()) {
+            CommandTracer.report(testResult);
+        }
+        try {
+            Log.flush();
+        } catch (RuntimeException e) {
+            // a reporting sink failed on the pipeline thread; fail the test as a synchronous sink would have
+            testResult.setStatus(ITestResult.FAILURE);
+            testResult.setThrowable(e);
+        }
+        if (method.isTestMethod()) {
+            ScreenshotCapture.awaitPending(testResult, 2000);
+            ExtentReporter.endTest(testResult);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.augmentedframework.utils;
+
+import org.apache.logging.log4j.Level;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * LogPipeline moves formatting and fan-out of {@link Log} calls off the test thread.
+ * The test thread only captures a small {@link LogEvent} into a bounded buffer; a single
+ * consumer thread formats it and writes to TestNG Reporter, ExtentReporter and log4j in
+ * publication order, with the event's test result restored as current test result.
+ * A full buffer blocks the producer, so nothing is dropped. {@link #flush()} is a barrier
+ * that returns once everything published before it was written and rethrows a sink
+ * failure of the calling test. On shutdown the consumer is stopped before the buffer is
+ * drained, so no event is written twice or out of order.
+ * log.async is read on every call. Events are written on the calling thread while it is
+ * false, and also while no {@link LogFlushListener} is registered, as nothing would then wait
+ * for the buffer at the end of a test.
+ *
+ * @author YSabato
+ * @version 1.0
+ * @since 10/18/2026
+ */
+class LogPipeline {
+
+    private static final DateTimeFormatter EVENT_DATE_FORMAT = DateTimeFormatter.ofPattern("dd MMM HH:mm:ss SSS").withZone(ZoneId.systemDefault());
+
+    private static final Logger logger = LoggerFactory.getLogger(LogPipeline.class);
+
+    private static final BlockingQueue<LogEvent> buffer = new ArrayBlockingQueue<>(EnvironmentPropertiesReader.getInstance().getInt("log.bufferSize", 8192));
+    private static final Map<Object, RuntimeException> sinkFailures = new ConcurrentHashMap<>();
+    private static final Object NO_TEST = new Object();
+    private static final LogEvent STOP = LogEvent.barrier(new CountDownLatch(1));
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5000;
+    private static final AtomicBoolean warned = new AtomicBoolean();
+    private static volatile boolean barrierRegistered;
+
+    private LogPipeline() {
+    }
+
+    /**
+     * Records that a {@link LogFlushListener} waits for the buffer after every test
+     */
+    static void barrierRegistered() {
+        barrierRegistered = true;
+    }
+
+    /**
+     * Hands the event to the consumer, or writes it directly when log.async is false or no
+     * flush barrier is registered
+     *
+     * @param event - captured log event
+     */
+    static void publish(LogEvent event) {
+        if (!isAsync()) {
+            if (!buffer.isEmpty()) {
+                // events buffered before log.async was switched off go first
+                awaitBuffer();
+            }
+            write(event, true);
+            return;
+        }
+        Consumer.start();
+        try {
+            buffer.put(event);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            write(event, false);
+        }
+    }
+
+    /**
+     * Waits until every event published before this call has been written
+     */
+    static void flush() {
+        TestContext context = TestContext.current();
+        ITestResult iTestResult = context != null ? context.getResult() : null;
+        if (!buffer.isEmpty() || isAsync()) {
+            awaitBuffer();
+        }
+        RuntimeException failure = sinkFailures.remove(iTestResult != null ? iTestResult : NO_TEST);
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static boolean isAsync() {
+        if (!EnvironmentPropertiesReader.getInstance().getBoolean("log.async", true)) {
+            return false;
+        }
+        if (!barrierRegistered && warned.compareAndSet(false, true)) {
+            logger.warn("log.async is on but LogFlushListener is not registered; logging on the calling thread");
+        }
+        return barrierRegistered;
+    }
+
+    private static void awaitBuffer() {
+        Consumer.start();
+        CountDownLatch barrier = new CountDownLatch(1);
+        try {
+            buffer.put(LogEvent.barrier(barrier));
+            barrier.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void consume() {
+        while (true) {
+            try {
+                LogEvent event = buffer.take();
+                if (event == STOP) {
+                    return;
+                }
+                if (event.getBarrier() != null) {
+                    event.getBarrier().countDown();
+                } else {
+                    write(event, false);
+                }
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private static void drain() {
+        Thread consumer = Consumer.thread;
+        try {
+            if (!buffer.offer(STOP, SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                consumer.interrupt();
+            }
+            consumer.join(SHUTDOWN_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (consumer.isAlive()) {
+            // still writing after the timeout; draining now would race it
+            return;
+        }
+        LogEvent event;
+        while ((event = buffer.poll()) != null) {
+            if (event.getBarrier() != null) {
+                event.getBarrier().countDown();
+            } else {
+                write(event, false);
+            }
+        }
+    }
+
+    /**
+     * Writes the event to every sink
+     *
+     * @param event - captured log event
+     * @param direct - written on the publishing thread, which gets a sink failure at once;
+     *               otherwise the failure is kept for the test's next flush
+     */
+    private static void write(LogEvent event, boolean direct) {
+        TestContext context = event.getContext();
+        ITestResult iTestResult = event.getTestResult();
+        ITestResult previous = Reporter.getCurrentTestResult();
+        Reporter.setCurrentTestResult(iTestResult);
+        TestContext.Scope scope = context != null ? context.bind() : null;
+        String hash = context != null ? context.getHash() : "";
+        try {
+            switch (event.getKind()) {
+                case MESSAGE:
+                    Reporter.log(Log.MESSAGE_HTML_BEGIN + event.getDescription() + Log.MESSAGE_HTML_END);
+                    ExtentReporter.info(event.getDescription());
+                    Log.lsLog4j(event.getThreadName()).log(Level.INFO, "[{}] {}", event.getCallerClass(), event.getDescription());
+                    break;
+                case EVENT:
+                    Reporter.log(Log.EVENT_HTML_BEGIN.replace("%s", hash) + formatDate(event) + " - "
+                            + event.getDescription() + Log.EVENT_HTML_END);
+                    ExtentReporter.debug(event.getDescription());
+                    Log.lsLog4j(event.getThreadName()).log(Level.DEBUG, "[{}] {}", event.getCallerClass(), event.getDescription());
+                    break;
+                case TIMED_EVENT:
+                    String timed = formatDate(event) + " - <b>" + event.getDuration() + "</b> - " + event.getDescription() + " - " + event.getCallerFrame();
+                    Reporter.log(Log.EVENT_HTML_BEGIN.replace("%s", hash) + timed + Log.EVENT_HTML_END);
+                    ExtentReporter.debug(timed);
+                    Log.lsLog4j(event.getThreadName()).log(Level.DEBUG, "[{}] {}", event.getCallerClass(), event.getDescription());
+                    break;
+                case FAIL:
+                    Reporter.log("<!--FAIL-->");
+                    Reporter.log(Log.FAIL_HTML_BEGIN + event.getDescription() + Log.FAIL_HTML_END1 + Log.FAIL_HTML_END2);
+                    ExtentReporter.fail(event.getDescription());
+                    ExtentReporter.logStackTrace(event.getError());
+                    Log.lsLog4j(event.getThreadName()).log(Level.ERROR, "[{}] {}", event.getCallerClass(), event.getDescription());
+                    break;
+                default:
+                    break;
+            }
+        } catch (RuntimeException e) {
+            if (direct) {
+                throw e;
+            }
+            sinkFailures.putIfAbsent(iTestResult != null ? iTestResult : NO_TEST, e);
+        } finally {
+            if (scope != null) {
+                scope.close();
+            }
+            Reporter.setCurrentTestResult(previous);
+        }
+    }
+
+    private static String formatDate(LogEvent event) {
+        return EVENT_DATE_FORMAT.format(Instant.ofEpochMilli(event.getTimestamp()));
+    }
+
+    /**
+     * Consumer thread and its shutdown hook, started with the first buffered event
+     */
+    private static final class Consumer {
+        private static final Thread thread = new Thread(LogPipeline::consume, "log-pipeline");
+
+        static {
+            thread.setDaemon(true);
+            thread.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(LogPipeline::drain, "log-pipeline-shutdown"));
+        }
+
+        private static void start() {
+            // loading the class is what starts the consumer
+        }
+    }
+}
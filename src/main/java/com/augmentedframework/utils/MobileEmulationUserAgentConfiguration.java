@@ -1,15 +1,223 @@
 package com.augmentedframework.utils;
 
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
 /**
- * MobileEmulationUserAgentConfiguration sets the Mobile emulation configuration
+ * MobileEmulationUserAgentConfiguration sets the Mobile emulation configuration: a catalog of
+ * device profiles with their viewport, device pixel ratio, user agent and touch support.
+ * Besides the built-in devices, emulation.device.&lt;name&gt;=&lt;width&gt;x&lt;height&gt;,&lt;pixel ratio&gt;,&lt;touch&gt;,&lt;user agent&gt;
+ * adds or overrides a device. Names are matched ignoring case, spaces and dashes.
+ * emulation.device selects the device every Chrome session emulates, emulation.devices the
+ * devices of a {@link MultiDeviceSession}.
  *
  * @author YSabato
  * @version 1.0
  * @since 01/01/2020
  */
 public class MobileEmulationUserAgentConfiguration {
+    private static final String DEVICE_PREFIX = "emulation.device.";
+    private static final String IOS_USER_AGENT = "Mozilla/5.0 (%s; CPU %s 16_6 like Mac OS X) AppleWebKit/605.1.15 "
+            + "(KHTML, like Gecko) Version/16.6 Mobile/15E148 Safari/604.1";
+    private static final String ANDROID_USER_AGENT = "Mozilla/5.0 (Linux; Android 13; %s) AppleWebKit/537.36 "
+            + "(KHTML, like Gecko) Chrome/116.0.0.0 Mobile Safari/537.36";
+    private static final Map<String, Device> catalog = new LinkedHashMap<>();
+
+    static {
+        add(new Device("iPhone SE", 375, 667, 2, String.format(IOS_USER_AGENT, "iPhone", "iPhone OS"), true));
+        add(new Device("iPhone 14", 390, 844, 3, String.format(IOS_USER_AGENT, "iPhone", "iPhone OS"), true));
+        add(new Device("iPhone 14 Pro Max", 430, 932, 3, String.format(IOS_USER_AGENT, "iPhone", "iPhone OS"), true));
+        add(new Device("Pixel 7", 412, 915, 2.625, String.format(ANDROID_USER_AGENT, "Pixel 7"), true));
+        add(new Device("Galaxy S20", 360, 800, 3, String.format(ANDROID_USER_AGENT, "SM-G981B"), true));
+        add(new Device("iPad Air", 820, 1180, 2, String.format(IOS_USER_AGENT, "iPad", "OS"), true));
+        add(new Device("iPad Pro 12.9", 1024, 1366, 2, String.format(IOS_USER_AGENT, "iPad", "OS"), true));
+    }
+
+    private static void add(Device device) {
+        catalog.put(normalize(device.getName()), device);
+    }
+
+    private static String normalize(String name) {
+        return name.toLowerCase(Locale.ROOT).replaceAll("[\\s_-]", "");
+    }
+
+    /**
+     * Returns a device profile of the catalog or of the emulation.device.&lt;name&gt; settings
+     *
+     * @param name - device name such as "iPhone 14"
+     * @return device profile
+     * @throws IllegalArgumentException - if the device is unknown or its setting is malformed
+     */
+    public static Device getDevice(String name) {
+        String key = normalize(name.trim());
+        for (Map.Entry<String, String> setting : EnvironmentPropertiesReader.getInstance().getSnapshot().asMap().entrySet()) {
+            if (setting.getKey().startsWith(DEVICE_PREFIX) && normalize(setting.getKey().substring(DEVICE_PREFIX.length())).equals(key)) {
+                return parse(setting.getKey().substring(DEVICE_PREFIX.length()), setting.getValue());
+            }
+        }
+        Device device = catalog.get(key);
+        if (device == null) {
+            throw new IllegalArgumentException(String.format("Unknown device '%s', expected one of %s or an %s<name> setting",
+                    name, getCatalog().keySet(), DEVICE_PREFIX));
+        }
+        return device;
+    }
 
     /**
-     * To-Do
+     * Returns the device profiles of a comma separated list of names
+     *
+     * @param names - e.g. "iPhone 14, Pixel 7, iPad Air"
+     * @return device profiles in list order, empty for a blank list
      */
+    public static List<Device> getDevices(String names) {
+        List<Device> devices = new ArrayList<>();
+        if (StringUtils.isNotBlank(names)) {
+            for (String name : names.split(",")) {
+                if (StringUtils.isNotBlank(name)) {
+                    devices.add(getDevice(name));
+                }
+            }
+        }
+        return devices;
+    }
+
+    /**
+     * Returns the device every Chrome session emulates, set with emulation.device
+     *
+     * @return device profile, or null for desktop sessions
+     */
+    public static Device getConfiguredDevice() {
+        String name = EnvironmentPropertiesReader.getInstance().getString("emulation.device", "");
+        return StringUtils.isBlank(name) ? null : getDevice(name);
+    }
+
+    /**
+     * Returns the built-in devices by name
+     *
+     * @return device profiles
+     */
+    public static Map<String, Device> getCatalog() {
+        Map<String, Device> devices = new LinkedHashMap<>();
+        catalog.values().forEach(device -> devices.put(device.getName(), device));
+        return Collections.unmodifiableMap(devices);
+    }
+
+    /**
+     * Parses a device setting
+     *
+     * @param name - device name
+     * @param spec - &lt;width&gt;x&lt;height&gt;,&lt;pixel ratio&gt;,&lt;touch&gt;,&lt;user agent&gt;
+     * @return device profile
+     */
+    static Device parse(String name, String spec) {
+        // the user agent goes last, it contains commas itself
+        String[] fields = spec.split(",", 4);
+        String[] viewport = fields[0].trim().toLowerCase(Locale.ROOT).split("x");
+        try {
+            if (fields.length != 4 || viewport.length != 2) {
+                throw new IllegalArgumentException("expected <width>x<height>,<pixel ratio>,<touch>,<user agent>");
+            }
+            return new Device(name, Integer.parseInt(viewport[0].trim()), Integer.parseInt(viewport[1].trim()),
+                    Double.parseDouble(fields[1].trim()), fields[3].trim(), Boolean.parseBoolean(fields[2].trim()));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(String.format("Malformed device %s%s=%s: %s", DEVICE_PREFIX, name, spec, e.getMessage()), e);
+        }
+    }
+
+    /**
+     * Viewport, pixel ratio, user agent and touch support of an emulated device
+     */
+    public static final class Device {
+        private final String name;
+        private final int width;
+        private final int height;
+        private final double pixelRatio;
+        private final String userAgent;
+        private final boolean touch;
+
+        public Device(String name, int width, int height, double pixelRatio, String userAgent, boolean touch) {
+            if (width <= 0 || height <= 0 || pixelRatio <= 0) {
+                throw new IllegalArgumentException("Viewport and pixel ratio of " + name + " must be positive");
+            }
+            this.name = name;
+            this.width = width;
+            this.height = height;
+            this.pixelRatio = pixelRatio;
+            this.userAgent = userAgent;
+            this.touch = touch;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+
+        public int getHeight() {
+            return height;
+        }
+
+        public double getPixelRatio() {
+            return pixelRatio;
+        }
+
+        public String getUserAgent() {
+            return userAgent;
+        }
+
+        public boolean hasTouch() {
+            return touch;
+        }
+
+        /**
+         * Returns the device in the format of Chrome's mobileEmulation option
+         *
+         * @return deviceMetrics and userAgent
+         */
+        public Map<String, Object> toMobileEmulation() {
+            Map<String, Object> metrics = new LinkedHashMap<>();
+            metrics.put("width", width);
+            metrics.put("height", height);
+            metrics.put("pixelRatio", pixelRatio);
+            metrics.put("touch", touch);
+            Map<String, Object> emulation = new LinkedHashMap<>();
+            emulation.put("deviceMetrics", metrics);
+            if (StringUtils.isNotBlank(userAgent)) {
+                emulation.put("userAgent", userAgent);
+            }
+            return emulation;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Device)) {
+                return false;
+            }
+            Device device = (Device) o;
+            return width == device.width && height == device.height && Double.compare(pixelRatio, device.pixelRatio) == 0
+                    && touch == device.touch && name.equals(device.name) && Objects.equals(userAgent, device.userAgent);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, width, height, pixelRatio, userAgent, touch);
+        }
+
+        @Override
+        public String toString() {
+            return name + " (" + width + "x" + height + " @" + pixelRatio + "x" + (touch ? ", touch" : "") + ")";
+        }
+    }
 }
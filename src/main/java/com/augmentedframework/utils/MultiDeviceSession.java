@@ -0,0 +1,186 @@
+package com.augmentedframework.utils;
+
+import com.augmentedframework.utils.MobileEmulationUserAgentConfiguration.Device;
+import org.apache.commons.lang3.StringUtils;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WindowType;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.remote.Augmenter;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * MultiDeviceSession emulates several devices in one browser session, one window per device,
+ * so a responsive layout check covers every device with a single grid session instead of one
+ * session per device. Each window gets the device's viewport, pixel ratio, user agent and touch
+ * support through the Chrome DevTools Emulation domain, which applies per window; browsers
+ * without DevTools only get the window resized to the viewport. The session's original window
+ * is left untouched and current again once the session is closed, so a pooled session can be
+ * reused as is. Windows share cookies and storage like any windows of one browser.
+ *
+ * @author YSabato
+ * @version 1.0
+ * @since 10/18/2026
+ */
+public final class MultiDeviceSession implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(MultiDeviceSession.class);
+
+    private final WebDriver driver;
+    private final String originalWindow;
+    private final Map<Device, String> windows = new LinkedHashMap<>();
+
+    private MultiDeviceSession(WebDriver driver, List<Device> devices) {
+        this.driver = driver;
+        this.originalWindow = driver.getWindowHandle();
+        HasCdp cdp = getCdp(driver);
+        if (cdp == null) {
+            logger.warn("DevTools are not available, emulating devices by window size only");
+        }
+        try {
+            for (Device device : devices) {
+                if (windows.containsKey(device)) {
+                    continue;
+                }
+                driver.switchTo().newWindow(WindowType.WINDOW);
+                windows.put(device, driver.getWindowHandle());
+                emulate(cdp, device);
+            }
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens a window for every device of the emulation.devices setting
+     *
+     * @param driver - Chrome session
+     * @return devices' windows
+     */
+    public static MultiDeviceSession open(WebDriver driver) {
+        return open(driver, MobileEmulationUserAgentConfiguration.getDevices(
+                EnvironmentPropertiesReader.getInstance().getString("emulation.devices", "")));
+    }
+
+    /**
+     * Opens a window emulating each device
+     *
+     * @param driver - Chrome session
+     * @param devices - devices to emulate
+     * @return devices' windows
+     */
+    public static MultiDeviceSession open(WebDriver driver, List<Device> devices) {
+        if (devices.isEmpty()) {
+            throw new IllegalArgumentException("No devices to emulate, set emulation.devices");
+        }
+        return new MultiDeviceSession(driver, devices);
+    }
+
+    private static HasCdp getCdp(WebDriver driver) {
+        if (driver instanceof HasCdp) {
+            return (HasCdp) driver;
+        }
+        if (driver instanceof RemoteWebDriver) {
+            try {
+                WebDriver augmented = new Augmenter().augment(driver);
+                return augmented instanceof HasCdp ? (HasCdp) augmented : null;
+            } catch (RuntimeException e) {
+                logger.debug("Unable to add DevTools to the session: " + e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    private void emulate(HasCdp cdp, Device device) {
+        if (cdp == null) {
+            driver.manage().window().setSize(new Dimension(device.getWidth(), device.getHeight()));
+            return;
+        }
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("width", device.getWidth());
+        metrics.put("height", device.getHeight());
+        metrics.put("deviceScaleFactor", device.getPixelRatio());
+        metrics.put("mobile", device.hasTouch());
+        cdp.executeCdpCommand("Emulation.setDeviceMetricsOverride", metrics);
+        if (StringUtils.isNotBlank(device.getUserAgent())) {
+            cdp.executeCdpCommand("Emulation.setUserAgentOverride", Map.of("userAgent", device.getUserAgent()));
+        }
+        cdp.executeCdpCommand("Emulation.setTouchEmulationEnabled", Map.of("enabled", device.hasTouch()));
+    }
+
+    /**
+     * Returns the emulated devices in opening order
+     *
+     * @return devices
+     */
+    public List<Device> getDevices() {
+        return Collections.unmodifiableList(new ArrayList<>(windows.keySet()));
+    }
+
+    /**
+     * Makes the device's window current
+     *
+     * @param device - emulated device
+     * @return the session, now driving the device's window
+     */
+    public WebDriver switchTo(Device device) {
+        String window = windows.get(device);
+        if (window == null) {
+            throw new IllegalArgumentException("Device " + device + " is not emulated in this session");
+        }
+        return driver.switchTo().window(window);
+    }
+
+    /**
+     * Runs a check in every device's window in turn. The first failure is rethrown after every
+     * device was checked.
+     *
+     * @param check - check given the device and the session driving its window
+     */
+    public void forEach(BiConsumer<Device, WebDriver> check) {
+        Throwable failure = null;
+        for (Device device : windows.keySet()) {
+            try {
+                check.accept(device, switchTo(device));
+            } catch (RuntimeException | AssertionError e) {
+                Log.event(device.getName() + ": " + e.getMessage());
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+        if (failure instanceof AssertionError) {
+            throw (AssertionError) failure;
+        }
+        if (failure != null) {
+            throw (RuntimeException) failure;
+        }
+    }
+
+    /**
+     * Closes the devices' windows and makes the original window current again
+     */
+    @Override
+    public void close() {
+        for (String window : windows.values()) {
+            try {
+                driver.switchTo().window(window);
+                driver.close();
+            } catch (WebDriverException e) {
+                logger.debug("Unable to close window " + window + ": " + e.getMessage());
+            }
+        }
+        windows.clear();
+        driver.switchTo().window(originalWindow);
+    }
+}
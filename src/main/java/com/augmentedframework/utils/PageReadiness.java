@@ -0,0 +1,169 @@
+package com.augmentedframework.utils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PageReadiness checks document state, pending jQuery/Angular requests, image completion
+ * and same-origin frame state with one injected script per poll, instead of one remote
+ * call per image and a frame switch per iframe. An optional network idle mode waits until
+ * no DOM mutation or resource load has been observed for a quiet period.
+ * Each instance records when every condition became (and stayed) met, relative to its creation.
+ *
+ * @author YSabato
+ * @version 1.0
+ * @since 10/18/2026
+ */
+public class PageReadiness implements ExpectedCondition<Boolean> {
+
+    public enum Condition {
+        DOCUMENT("document"),
+        AJAX("ajax"),
+        IMAGES("images"),
+        FRAMES("frames"),
+        NETWORK_IDLE("networkIdle");
+
+        private final String key;
+
+        Condition(String key) {
+            this.key = key;
+        }
+
+        public String getKey() {
+            return key;
+        }
+    }
+
+    // arguments[0]: network idle quiet period in ms, negative to skip the network idle check
+    private static final String READINESS_SCRIPT =
+            "var quiet = arguments[0], r = {};" +
+            "r.document = document.readyState === 'complete';" +
+            "var ajax = true;" +
+            "try { if (window.jQuery && (window.jQuery.active || (window.jQuery.ajax && window.jQuery.ajax.active))) { ajax = false; } } catch (e) {}" +
+            "try { if (window.angular && angular.element(document).injector() && angular.element(document).injector().get('$http').pendingRequests.length) { ajax = false; } } catch (e) {}" +
+            "r.ajax = ajax;" +
+            "var images = true, imgs = document.images;" +
+            "for (var i = 0; i < imgs.length; i++) { var img = imgs[i];" +
+            "  if (img.getAttribute('src') && !(img.complete && typeof img.naturalWidth != 'undefined' && img.naturalWidth > 0)) { images = false; break; } }" +
+            "r.images = images;" +
+            "var frames = true, fr = document.getElementsByTagName('iframe');" +
+            "for (var j = 0; j < fr.length; j++) {" +
+            "  try { var d = fr[j].contentDocument; if (d && d.readyState !== 'complete') { frames = false; break; } } catch (e) {} }" +
+            "r.frames = frames;" +
+            "if (quiet >= 0) { var w = window.__atafIdle;" +
+            "  if (!w) { w = window.__atafIdle = { last: Date.now() }; var touch = function() { w.last = Date.now(); };" +
+            "    try { new MutationObserver(touch).observe(document, { subtree: true, childList: true, attributes: true }); } catch (e) {}" +
+            "    try { new PerformanceObserver(touch).observe({ entryTypes: ['resource'] }); } catch (e) {} }" +
+            "  r.networkIdle = Date.now() - w.last >= quiet; }" +
+            "return r;";
+
+    private final Set<Condition> conditions;
+    private final long quietMillis;
+    private final long startTime = System.nanoTime();
+    private final Map<Condition, Long> readyAfter = new EnumMap<>(Condition.class);
+    private int polls;
+
+    private PageReadiness(Set<Condition> conditions, long quietMillis) {
+        this.conditions = conditions;
+        this.quietMillis = quietMillis;
+    }
+
+    /**
+     * Returns a probe for every page condition
+     *
+     * @param networkIdle - also wait for the network idle quiet period
+     * @param quietMillis - quiet period in milli seconds
+     * @return {@link PageReadiness} - new probe
+     */
+    public static PageReadiness all(boolean networkIdle, long quietMillis) {
+        Set<Condition> conditions = EnumSet.of(Condition.DOCUMENT, Condition.AJAX, Condition.IMAGES, Condition.FRAMES);
+        if (networkIdle) {
+            conditions.add(Condition.NETWORK_IDLE);
+        }
+        return new PageReadiness(conditions, networkIdle ? quietMillis : -1);
+    }
+
+    /**
+     * Returns a stateless condition over the given subset, evaluated in one round trip per poll.
+     * Network idle waits for pageLoad.networkIdleQuietMillis.
+     *
+     * @param first - first condition
+     * @param rest - remaining conditions
+     * @return expected condition
+     */
+    public static ExpectedCondition<Boolean> of(Condition first, Condition... rest) {
+        Set<Condition> conditions = EnumSet.of(first, rest);
+        return driver -> new PageReadiness(conditions, conditions.contains(Condition.NETWORK_IDLE) ? getNetworkIdleQuietMillis() : -1).apply(driver);
+    }
+
+    /**
+     * Returns the network idle quiet period, pageLoad.networkIdleQuietMillis
+     *
+     * @return milli seconds
+     */
+    static long getNetworkIdleQuietMillis() {
+        return EnvironmentPropertiesReader.getInstance().getLong("pageLoad.networkIdleQuietMillis", 500);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Boolean apply(WebDriver driver) {
+        polls++;
+        Map<String, Object> state;
+        try {
+            state = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(READINESS_SCRIPT, quietMillis);
+        } catch (WebDriverException | ClassCastException e) {
+            // pages that refuse script execution are treated as loaded, as the per-element checks did
+            state = Collections.emptyMap();
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+        boolean ready = true;
+        for (Condition condition : conditions) {
+            Object value = state == null ? null : state.get(condition.getKey());
+            boolean met = value == null || Boolean.TRUE.equals(value);
+            if (met) {
+                readyAfter.putIfAbsent(condition, elapsed);
+            } else {
+                readyAfter.remove(condition);
+            }
+            ready &= met;
+        }
+        return ready;
+    }
+
+    /**
+     * Returns the milli seconds after which each currently met condition became true
+     *
+     * @return condition timings
+     */
+    public Map<Condition, Long> getReadyAfter() {
+        return Collections.unmodifiableMap(readyAfter);
+    }
+
+    /**
+     * Returns the number of probe round trips made
+     *
+     * @return poll count
+     */
+    public int getPolls() {
+        return polls;
+    }
+
+    /**
+     * Writes the per-condition timings to the log
+     */
+    public void report() {
+        readyAfter.forEach((condition, millis) ->
+                Log.event(String.format("Page readiness '%s' met (ms)", condition.getKey()), millis));
+        Log.event("Page readiness polls", polls);
+    }
+}
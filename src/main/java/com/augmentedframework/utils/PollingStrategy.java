@@ -0,0 +1,77 @@
+package com.augmentedframework.utils;
+
+import java.time.Duration;
+
+/**
+ * PollingStrategy decides how long {@link PollingWait} sleeps between two polls of a condition.
+ *
+ * @author YSabato
+ * @version 1.0
+ * @since 10/18/2026
+ */
+public interface PollingStrategy {
+
+    /**
+     * Returns the delay before the next poll
+     *
+     * @param poll - number of polls made so far (1 after the first poll)
+     * @param elapsed - time since the wait started
+     * @return delay before the next poll
+     */
+    Duration nextInterval(int poll, Duration elapsed);
+
+    /**
+     * Polls at a fixed interval
+     *
+     * @param interval - delay between polls
+     * @return {@link PollingStrategy}
+     */
+    static PollingStrategy fixed(Duration interval) {
+        return (poll, elapsed) -> interval;
+    }
+
+    /**
+     * Starts with a short delay and multiplies it by the factor after every poll, up to max
+     *
+     * @param initial - first delay
+     * @param factor - growth factor
+     * @param max - largest delay
+     * @return {@link PollingStrategy}
+     */
+    static PollingStrategy exponential(Duration initial, double factor, Duration max) {
+        return (poll, elapsed) -> {
+            double millis = initial.toMillis() * Math.pow(factor, poll - 1);
+            return millis >= max.toMillis() ? max : Duration.ofMillis((long) millis);
+        };
+    }
+
+    /**
+     * Uses a learned expected duration: polls sparsely until the expected time is near,
+     * halving the remaining distance each time, then backs off exponentially from initial.
+     * Falls back to plain exponential backoff when nothing has been learned yet.
+     *
+     * @param expected - learned expected duration, null when unknown
+     * @param initial - first delay of the backoff
+     * @param max - largest delay
+     * @return {@link PollingStrategy}
+     */
+    static PollingStrategy adaptive(Duration expected, Duration initial, Duration max) {
+        PollingStrategy backoff = exponential(initial, 2, max);
+        if (expected == null) {
+            return backoff;
+        }
+        long approach = expected.toMillis() * 8 / 10;
+        return new PollingStrategy() {
+            private int backoffPolls;
+
+            @Override
+            public Duration nextInterval(int poll, Duration elapsed) {
+                long untilExpected = approach - elapsed.toMillis();
+                if (untilExpected > 2 * initial.toMillis()) {
+                    return Duration.ofMillis(Math.min(untilExpected / 2, max.toMillis()));
+                }
+                return backoff.nextInterval(++backoffPolls, elapsed);
+            }
+        };
+    }
+}
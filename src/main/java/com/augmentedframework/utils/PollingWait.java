@@ -0,0 +1,147 @@
+package com.augmentedframework.utils;
+
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * PollingWait polls a condition with a pluggable {@link PollingStrategy} against a
+ * {@link Budget} that several conditions can share, so waiting for N conditions costs at
+ * most one budget rather than N timeouts. Poll counts and time spent are accumulated per
+ * condition name and exposed through {@link #getStatistics()}.
+ *
+ * @author YSabato
+ * @version 1.0
+ * @since 10/18/2026
+ */
+public class PollingWait {
+
+    private static final Map<String, Statistics> statistics = new ConcurrentHashMap<>();
+
+    private PollingWait() {
+    }
+
+    /**
+     * Polls the condition until it returns a value other than null or false. Stale element
+     * and other WebDriver exceptions count as not yet met.
+     *
+     * @param driver - driver passed to the condition
+     * @param name - condition name used for statistics and the timeout message
+     * @param condition - condition to poll
+     * @param budget - time budget to draw from
+     * @param strategy - delay between polls
+     * @return the condition's value
+     * @throws TimeoutException when the budget runs out first
+     */
+    public static <T> T until(WebDriver driver, String name, Function<? super WebDriver, T> condition, Budget budget, PollingStrategy strategy) {
+        long start = System.nanoTime();
+        Statistics stats = statistics.computeIfAbsent(name, k -> new Statistics());
+        int polls = 0;
+        Throwable lastError = null;
+        try (Instrumentation.Span ignored = Instrumentation.start(Instrumentation.Kind.WAIT, name)) {
+            while (true) {
+                polls++;
+                try {
+                    T value = condition.apply(driver);
+                    if (value != null && !Boolean.FALSE.equals(value)) {
+                        return value;
+                    }
+                } catch (WebDriverException e) {
+                    // includes StaleElementReferenceException
+                    lastError = e;
+                }
+                Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+                long remaining = budget.remainingMillis();
+                if (remaining <= 0) {
+                    throw new TimeoutException(String.format("%s timed out after %d ms and %d polls", name, elapsed.toMillis(), polls), lastError);
+                }
+                sleep(Math.min(strategy.nextInterval(polls, elapsed).toMillis(), remaining));
+            }
+        } finally {
+            stats.record(polls, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Returns poll counts and time spent per condition name
+     *
+     * @return statistics by condition name
+     */
+    public static Map<String, Statistics> getStatistics() {
+        return Collections.unmodifiableMap(statistics);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(Math.max(millis, 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TimeoutException("Interrupted while waiting", e);
+        }
+    }
+
+    /**
+     * Deadline shared by consecutive waits
+     */
+    public static class Budget {
+        private final long deadline;
+
+        private Budget(long deadline) {
+            this.deadline = deadline;
+        }
+
+        public static Budget of(Duration total) {
+            return new Budget(System.nanoTime() + total.toNanos());
+        }
+
+        /**
+         * Returns a budget ending once the given fraction of the remaining time is spent
+         *
+         * @param fraction - share of the remaining time, between 0 and 1
+         * @return {@link Budget} - child budget
+         */
+        public Budget slice(double fraction) {
+            long now = System.nanoTime();
+            return new Budget(now + (long) (Math.max(0, deadline - now) * fraction));
+        }
+
+        public long remainingMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+        }
+    }
+
+    /**
+     * Poll count and time spent waiting for one condition name
+     */
+    public static class Statistics {
+        private final LongAdder waits = new LongAdder();
+        private final LongAdder polls = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+
+        private void record(int pollCount, long elapsedNanos) {
+            waits.increment();
+            polls.add(pollCount);
+            nanos.add(elapsedNanos);
+        }
+
+        public long getWaits() {
+            return waits.sum();
+        }
+
+        public long getPolls() {
+            return polls.sum();
+        }
+
+        public long getTotalMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(nanos.sum());
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package com.augmentedframework.utils;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * ReportMerger combines the outputs of the shards of one run into a single directory:
+ * <ul>
+ * <li>results.jsonl - every shard's {@link ShardResultListener} lines, merged in finishing order</li>
+ * <li>MergedReport.html - summary per shard followed by every test with its error and log</li>
+ * <li>TestCasesLogs.log and log-index.tsv - the shards' log files one after the other, and the
+ * shard, source file, byte offset, length and line count of each in the merged log</li>
+ * <li>shards/&lt;shard&gt;/ - the shards' own Extent reports with their ScreenShot folders</li>
+ * </ul>
+ * Shard directories are named by their position on the command line and their folder name,
+ * e.g. 2-test-output, as every node may collect its outputs into a folder of the same name.
+ * Everything is streamed: result files are read one line per shard at a time, test entries are
+ * written to disk as they are read and logs are copied in blocks, so memory does not grow with
+ * the number of tests or the size of the logs. Only the per-shard counts are kept.
+ *
+ * @author YSabato
+ * @version 1.0
+ * @since 10/18/2026
+ */
+public final class ReportMerger {
+    private static final Logger logger = LoggerFactory.getLogger(ReportMerger.class);
+    private static final String[] STATUSES = {"PASS", "FAIL", "SKIP"};
+
+    private ReportMerger() {
+    }
+
+    /**
+     * Merges shard outputs from CI: output directory followed by one directory per shard
+     *
+     * @param args - output directory and shard directories
+     * @throws IOException - if the merged files can not be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: ReportMerger <output dir> <shard dir>...");
+            System.exit(2);
+        }
+        List<Path> shards = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            shards.add(Paths.get(args[i]));
+        }
+        System.out.println("Merged " + merge(Paths.get(args[0]), shards) + " test results into " + args[0]);
+    }
+
+    /**
+     * Merges the result files, logs and reports found under the shard directories
+     *
+     * @param output - directory of the merged outputs
+     * @param shardDirectories - one directory per shard, as collected from the CI nodes
+     * @return number of merged test results
+     * @throws IOException - if the merged files can not be written
+     */
+    public static int merge(Path output, List<Path> shardDirectories) throws IOException {
+        Files.createDirectories(output);
+        String resultsFile = EnvironmentPropertiesReader.getInstance().getString("results.file", "shard-results.jsonl");
+        List<Path> results = new ArrayList<>();
+        Map<Path, String> logs = new LinkedHashMap<>();
+        for (int i = 0; i < shardDirectories.size(); i++) {
+            Path directory = shardDirectories.get(i);
+            String shard = (i + 1) + "-" + directory.toAbsolutePath().normalize().getFileName();
+            for (Path file : list(directory)) {
+                String name = file.getFileName().toString();
+                if (name.equals(resultsFile)) {
+                    results.add(file);
+                } else if (name.startsWith("TestCasesLogs") && name.endsWith(".log")) {
+                    logs.put(file, shard);
+                } else if ((name.startsWith("ExtentReport") && name.endsWith(".html")) || isScreenshot(file)) {
+                    // screenshots keep their place next to the report, which links to them relatively
+                    Path copy = output.resolve("shards").resolve(shard).resolve(directory.relativize(file));
+                    Files.createDirectories(copy.getParent());
+                    Files.copy(file, copy, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        }
+        int merged = mergeResults(output, results);
+        mergeLogs(output, logs);
+        return merged;
+    }
+
+    private static int mergeResults(Path output, List<Path> files) throws IOException {
+        Map<String, long[]> summary = new TreeMap<>();
+        Path body = Files.createTempFile(output, "merged-body", ".html");
+        int merged = 0;
+        PriorityQueue<Cursor> cursors = new PriorityQueue<>(Comparator.comparingLong((Cursor cursor) -> cursor.end)
+                .thenComparing(cursor -> cursor.file.toString()));
+        try (BufferedWriter jsonl = Files.newBufferedWriter(output.resolve("results.jsonl"), StandardCharsets.UTF_8);
+             BufferedWriter html = Files.newBufferedWriter(body, StandardCharsets.UTF_8)) {
+            for (Path file : files) {
+                Cursor cursor = new Cursor(file);
+                if (cursor.advance()) {
+                    cursors.add(cursor);
+                } else {
+                    cursor.close();
+                }
+            }
+            Cursor cursor;
+            while ((cursor = cursors.poll()) != null) {
+                JSONObject record = cursor.record;
+                jsonl.write(cursor.line);
+                jsonl.newLine();
+                writeTest(html, record);
+                long[] counts = summary.computeIfAbsent(record.optString("shard", "unknown"), k -> new long[STATUSES.length + 1]);
+                for (int i = 0; i < STATUSES.length; i++) {
+                    if (STATUSES[i].equals(record.optString("status"))) {
+                        counts[i]++;
+                    }
+                }
+                counts[STATUSES.length] += record.optLong("millis");
+                merged++;
+                if (cursor.advance()) {
+                    cursors.add(cursor);
+                } else {
+                    cursor.close();
+                }
+            }
+        } finally {
+            cursors.forEach(Cursor::close);
+        }
+
+        try (OutputStream report = Files.newOutputStream(output.resolve("MergedReport.html"))) {
+            report.write(header(summary, merged).getBytes(StandardCharsets.UTF_8));
+            Files.copy(body, report);
+            report.write("</table></body></html>\n".getBytes(StandardCharsets.UTF_8));
+        } finally {
+            Files.deleteIfExists(body);
+        }
+        return merged;
+    }
+
+    private static void mergeLogs(Path output, Map<Path, String> logs) throws IOException {
+        Path merged = output.resolve("TestCasesLogs.log");
+        try (OutputStream log = Files.newOutputStream(merged);
+             BufferedWriter index = Files.newBufferedWriter(output.resolve("log-index.tsv"), StandardCharsets.UTF_8)) {
+            index.write("shard\tsource\toffset\tbytes\tlines");
+            index.newLine();
+            long offset = 0;
+            for (Map.Entry<Path, String> entry : logs.entrySet()) {
+                Path file = entry.getKey();
+                String shard = entry.getValue();
+                byte[] banner = ("==== " + shard + " " + file + " ====\n").getBytes(StandardCharsets.UTF_8);
+                log.write(banner);
+                offset += banner.length;
+                long bytes = 0;
+                long lines = 0;
+                byte[] block = new byte[64 * 1024];
+                try (InputStream input = Files.newInputStream(file)) {
+                    int read;
+                    while ((read = input.read(block)) > 0) {
+                        log.write(block, 0, read);
+                        bytes += read;
+                        for (int i = 0; i < read; i++) {
+                            if (block[i] == '\n') {
+                                lines++;
+                            }
+                        }
+                    }
+                }
+                index.write(shard + "\t" + file + "\t" + offset + "\t" + bytes + "\t" + lines);
+                index.newLine();
+                offset += bytes;
+            }
+        }
+    }
+
+    private static boolean isScreenshot(Path file) {
+        return file.getParent() != null && file.getParent().getFileName() != null
+                && file.getParent().getFileName().toString().equals("ScreenShot");
+    }
+
+    private static List<Path> list(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            logger.warn("Skipping missing shard directory " + directory);
+            return new ArrayList<>();
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static String header(Map<String, long[]> summary, int merged) {
+        StringBuilder html = new StringBuilder("<!DOCTYPE html><html><head><meta charset=\"utf-8\"><title>Merged test report</title>")
+                .append("<style>body{font-family:sans-serif}table{border-collapse:collapse}td,th{border:1px solid #ccc;padding:2px 6px;")
+                .append("vertical-align:top}.PASS{color:green}.FAIL{color:red}.SKIP{color:orange}pre{white-space:pre-wrap}</style></head><body>")
+                .append("<h2>Merged test report: ").append(merged).append(" tests</h2>")
+                .append("<table><tr><th>shard</th><th>passed</th><th>failed</th><th>skipped</th><th>test time s</th></tr>");
+        long[] total = new long[STATUSES.length + 1];
+        summary.forEach((shard, counts) -> {
+            html.append("<tr><td>").append(escape(shard)).append("</td>");
+            appendCounts(html, counts);
+            for (int i = 0; i < counts.length; i++) {
+                total[i] += counts[i];
+            }
+        });
+        html.append("<tr><th>total</th>");
+        appendCounts(html, total);
+        return html.append("</table><h3>Tests</h3><table><tr><th>status</th><th>shard</th><th>test</th><th>ms</th><th>details</th></tr>\n")
+                .toString();
+    }
+
+    private static void appendCounts(StringBuilder html, long[] counts) {
+        for (int i = 0; i < STATUSES.length; i++) {
+            html.append("<td>").append(counts[i]).append("</td>");
+        }
+        html.append(String.format("<td>%.1f</td></tr>", counts[STATUSES.length] / 1000.0));
+    }
+
+    private static void writeTest(BufferedWriter html, JSONObject record) throws IOException {
+        String status = escape(record.optString("status"));
+        html.write("<tr><td class=\"" + status + "\">" + status + "</td><td>" + escape(record.optString("shard")) + "</td><td>"
+                + escape(record.optString("class") + "." + record.optString("method")));
+        JSONArray parameters = record.optJSONArray("parameters");
+        if (parameters != null) {
+            html.write(escape(parameters.toString()));
+        }
+        if (record.has("description")) {
+            html.write("<br>" + escape(record.getString("description")));
+        }
+        html.write("</td><td>" + record.optLong("millis") + "</td><td>");
+        if (record.has("error")) {
+            html.write("<details><summary>error</summary><pre>" + escape(record.getString("error")) + "</pre></details>");
+        }
+        JSONArray log = record.optJSONArray("log");
+        if (log != null && log.length() > 0) {
+            // report log lines are the framework's own HTML
+            html.write("<details><summary>log (" + log.length() + ")</summary>");
+            for (int i = 0; i < log.length(); i++) {
+                html.write(log.optString(i));
+                html.write("<br>");
+            }
+            html.write("</details>");
+        }
+        html.write("</td></tr>\n");
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    /**
+     * Next unread result of one shard file
+     */
+    private static final class Cursor {
+        private final Path file;
+        private final BufferedReader reader;
+        private String line;
+        private JSONObject record;
+        private long end;
+
+        private Cursor(Path file) throws IOException {
+            this.file = file;
+            this.reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        }
+
+        private boolean advance() throws IOException {
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    record = new JSONObject(line);
+                    end = record.optLong("end");
+                    return true;
+                } catch (JSONException e) {
+                    logger.warn("Skipping malformed result in " + file + ": " + e.getMessage());
+                }
+            }
+            return false;
+        }
+
+        private void close() {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                logger.warn("Unable to close " + file + ": " + e.getMessage());
+            }
+        }
+    }
+}
@@ -1,13 +1,276 @@
 package com.augmentedframework.utils;
 
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.filter.Filter;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import org.apache.http.client.HttpClient;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.params.CoreConnectionPNames;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Reporter;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
 /**
+ * RestAssuredAPI is the shared client layer for API calls made by tests and the framework.
+ * RestAssured requests go through one pooled, keep-alive Apache client and base request
+ * specs built once per base URI. Calls that do not need the RestAssured DSL can use the
+ * shared {@link java.net.http.HttpClient}, which negotiates HTTP/2 when api.http2 is set.
+ * {@link #fanOut(List)} runs many calls concurrently on virtual threads, bounded by
+ * api.maxConcurrency, so bulk data setup and teardown is limited by the pool rather than
+ * by sequential round trips. {@link #load} reuses an API scenario as an open or closed
+ * model load test with latency histograms. Both client paths go through {@link HttpRecording}
+ * when api.recording is set.
+ *
  * @author YSabato
  * @version 1.0
  * @since 01/01/2020
  */
 public class RestAssuredAPI {
+    private static final Logger logger = LoggerFactory.getLogger(RestAssuredAPI.class);
+
+    // the deprecated pool is the one the DefaultHttpClient below needs, see createPooledClient
+    @SuppressWarnings("deprecation")
+    private static final PoolingClientConnectionManager connectionManager = createConnectionManager();
+    private static final HttpClient pooledClient = createPooledClient();
+    private static final RestAssuredConfig config = RestAssuredConfig.config().httpClient(
+            HttpClientConfig.httpClientConfig().reuseHttpClientInstance().httpClientFactory(() -> pooledClient));
+    // reads the body to the end so the pooled connection is released even when the caller only checks the status
+    private static final Filter releaseConnection = (request, response, context) -> {
+        Response result = context.next(request, response);
+        result.asByteArray();
+        return result;
+    };
+    private static final Filter recording = HttpRecording.filter();
+    private static final Map<String, RequestSpecification> baseSpecs = new ConcurrentHashMap<>();
+    private static final ExecutorService virtualThreads = Executors.newVirtualThreadPerTaskExecutor();
+    private static final java.net.http.HttpClient httpClient = java.net.http.HttpClient.newBuilder()
+            .version(EnvironmentPropertiesReader.getInstance().getBoolean("api.http2", true)
+                    ? java.net.http.HttpClient.Version.HTTP_2 : java.net.http.HttpClient.Version.HTTP_1_1)
+            .connectTimeout(getConnectTimeout())
+            .followRedirects(java.net.http.HttpClient.Redirect.NORMAL)
+            .executor(virtualThreads)
+            .build();
+    private static final Semaphore concurrency = new Semaphore(
+            EnvironmentPropertiesReader.getInstance().getInt("api.maxConcurrency", getMaxConnectionsPerRoute()), true);
+
+    private RestAssuredAPI() {
+    }
+
+    /**
+     * Returns a request that uses the pooled connection manager
+     *
+     * @return request specification
+     */
+    public static RequestSpecification given() {
+        return RestAssured.given().config(config).filter(recording).filter(releaseConnection);
+    }
+
+    /**
+     * Returns a request based on the shared spec for the base URI; the spec is built on first use
+     *
+     * @param baseUri - base URI of the service
+     * @return request specification
+     */
+    public static RequestSpecification given(String baseUri) {
+        return RestAssured.given().spec(getBaseSpec(baseUri));
+    }
+
+    /**
+     * Returns the shared, immutable base spec of the service: base URI, JSON content type and pooled client
+     *
+     * @param baseUri - base URI of the service
+     * @return base request specification
+     */
+    public static RequestSpecification getBaseSpec(String baseUri) {
+        return baseSpecs.computeIfAbsent(baseUri, uri -> new RequestSpecBuilder()
+                .setBaseUri(uri)
+                .setContentType(ContentType.JSON)
+                .setAccept(ContentType.JSON)
+                .setConfig(config)
+                .addFilter(recording)
+                .addFilter(releaseConnection)
+                .build());
+    }
+
+    /**
+     * Returns the shared java.net.http client, HTTP/2 capable unless api.http2 is false
+     *
+     * @return http client
+     */
+    public static java.net.http.HttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    /**
+     * Sends a request with the shared java.net.http client
+     *
+     * @param method - http method
+     * @param uri - request uri
+     * @param jsonBody - request body, or null for none
+     * @return response with the body as string
+     */
+    public static HttpResponse<String> send(String method, String uri, String jsonBody) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(uri))
+                .timeout(getRequestTimeout())
+                .header("Accept", "application/json");
+        if (jsonBody != null) {
+            request.header("Content-Type", "application/json").method(method, HttpRequest.BodyPublishers.ofString(jsonBody));
+        } else {
+            request.method(method, HttpRequest.BodyPublishers.noBody());
+        }
+        HttpRequest built = request.build();
+        try {
+            return HttpRecording.exchange(built, jsonBody, () -> httpClient.send(built, HttpResponse.BodyHandlers.ofString()));
+        } catch (IOException e) {
+            throw new IllegalStateException(method + " " + uri + " failed: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(method + " " + uri + " interrupted", e);
+        }
+    }
+
+    /**
+     * Runs the calls concurrently on virtual threads, at most api.maxConcurrency at a time,
+     * and returns their results in call order. The first failure is rethrown after every
+     * call has finished. Calls run with the caller's {@link TestContext}, so they log to its test.
+     *
+     * @param calls - API calls, typically lambdas around {@link #given(String)} or {@link #send}
+     * @param <T> - result type
+     * @return results in call order
+     */
+    public static <T> List<T> fanOut(List<? extends Callable<T>> calls) {
+        List<Future<T>> futures = new ArrayList<>(calls.size());
+        for (Callable<T> task : calls) {
+            Callable<T> call = TestContext.wrap(task);
+            futures.add(virtualThreads.submit(() -> {
+                concurrency.acquire();
+                try {
+                    return call.call();
+                } finally {
+                    concurrency.release();
+                }
+            }));
+        }
+        List<T> results = new ArrayList<>(calls.size());
+        RuntimeException failure = null;
+        for (Future<T> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException e) {
+                results.add(null);
+                if (failure == null) {
+                    failure = e.getCause() instanceof RuntimeException
+                            ? (RuntimeException) e.getCause() : new IllegalStateException(e.getCause());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(pending -> pending.cancel(true));
+                throw new IllegalStateException("Interrupted while waiting for API calls", e);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return results;
+    }
+
+    /**
+     * Runs the scenario as load according to the profile on virtual threads, writes the
+     * percentile summary to load.reportDir and, inside a test, to its report
+     *
+     * @param name - load run name, also used for the result file names
+     * @param profile - open or closed model
+     * @param scenario - one iteration, typically an existing API test step; an exception or
+     *                 assertion error counts as an error
+     * @return latency histograms and counts
+     */
+    public static LoadResult load(String name, LoadProfile profile, Callable<?> scenario) {
+        logger.info("Starting load '" + name + "': " + profile);
+        LoadResult result = new LoadRunner(name, profile, scenario).run();
+        result.write(Paths.get(EnvironmentPropertiesReader.getInstance().getString("load.reportDir", "target/load-reports")));
+        if (Reporter.getCurrentTestResult() != null) {
+            result.report();
+        }
+        return result;
+    }
+
+    /**
+     * Closes idle pooled connections, e.g. between suites
+     */
+    public static void closeIdleConnections() {
+        connectionManager.closeExpiredConnections();
+        connectionManager.closeIdleConnections(getIdleTimeout().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns the pooled connections currently open, leased and available
+     *
+     * @return pool statistics
+     */
+    public static String getPoolStats() {
+        return connectionManager.getTotalStats().toString();
+    }
+
+    @SuppressWarnings("deprecation")
+    private static PoolingClientConnectionManager createConnectionManager() {
+        PoolingClientConnectionManager manager = new PoolingClientConnectionManager();
+        manager.setMaxTotal(EnvironmentPropertiesReader.getInstance().getInt("api.maxConnections", 200));
+        manager.setDefaultMaxPerRoute(getMaxConnectionsPerRoute());
+        return manager;
+    }
 
     /**
-     * To-Do
+     * RestAssured drives the deprecated AbstractHttpClient API, so the pool is attached to a
+     * DefaultHttpClient; the instance is thread safe and shared by every request
      */
+    @SuppressWarnings("deprecation")
+    private static HttpClient createPooledClient() {
+        DefaultHttpClient client = new DefaultHttpClient(connectionManager);
+        client.getParams().setIntParameter(CoreConnectionPNames.CONNECTION_TIMEOUT, (int) getConnectTimeout().toMillis());
+        client.getParams().setIntParameter(CoreConnectionPNames.SO_TIMEOUT, (int) getRequestTimeout().toMillis());
+        client.getParams().setBooleanParameter(CoreConnectionPNames.TCP_NODELAY, true);
+        logger.debug("Pooled API client created: " + connectionManager.getTotalStats());
+        return client;
+    }
+
+    private static int getMaxConnectionsPerRoute() {
+        return EnvironmentPropertiesReader.getInstance().getInt("api.maxConnectionsPerRoute", 50);
+    }
+
+    private static Duration getConnectTimeout() {
+        return EnvironmentPropertiesReader.getInstance().getDuration("api.connectTimeout", Duration.ofSeconds(10), ChronoUnit.SECONDS);
+    }
+
+    private static Duration getRequestTimeout() {
+        return EnvironmentPropertiesReader.getInstance().getDuration("api.requestTimeout", Duration.ofSeconds(60), ChronoUnit.SECONDS);
+    }
+
+    private static Duration getIdleTimeout() {
+        return EnvironmentPropertiesReader.getInstance().getDuration("api.idleTimeout", Duration.ofSeconds(30), ChronoUnit.SECONDS);
+    }
 }
@@ -0,0 +1,269 @@
+package com.augmentedframework.utils;
+
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ScreenshotCapture takes screenshots without holding up the test step. The test thread only
+ * pulls the raw PNG bytes from the driver; hashing, optional downscaling and re-encoding, and
+ * the disk write run on a bounded worker pool. Identical frames are stored once (by SHA-256 of
+ * the raw bytes) and total disk use is capped at screenshot.maxDiskMb by deleting the oldest
+ * files first. Tests whose report still links to an evicted file get a note in their report
+ * saying so. When the worker queue is full the capture is dropped rather than blocking.
+ *
+ * @author YSabato
+ * @version 1.0
+ * @since 10/18/2026
+ */
+public class ScreenshotCapture {
+    private static final Logger logger = LoggerFactory.getLogger(ScreenshotCapture.class);
+
+    private static final ThreadPoolExecutor workers = new ThreadPoolExecutor(getWorkerCount(), getWorkerCount(), 30, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(EnvironmentPropertiesReader.getInstance().getInt("screenshot.queueSize", 64)), runnable -> {
+                Thread thread = new Thread(runnable, "screenshot-writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+    private static final Map<String, Path> filesByHash = new ConcurrentHashMap<>();
+    private static final ReentrantLock storeLock = new ReentrantLock();
+    // guarded by storeLock: the stored files, the tests whose report links to each, and their total size
+    private static final Deque<StoredFile> storedFiles = new ArrayDeque<>();
+    private static final Map<Path, List<ITestResult>> linkedFrom = new HashMap<>();
+    private static long diskUsage;
+    private static final Map<ITestResult, Set<CompletableFuture<Path>>> inFlight = new ConcurrentHashMap<>();
+    private static final AtomicLong sequence = new AtomicLong();
+
+    private ScreenshotCapture() {
+    }
+
+    /**
+     * Captures the current screen and attaches it to the running test's report once stored
+     *
+     * @param driver - driver to capture
+     * @param description - caption shown in the report
+     * @return future completed with the stored file once attached, or null when the capture was dropped
+     */
+    public static CompletableFuture<Path> capture(WebDriver driver, String description) {
+        byte[] raw;
+        try {
+            raw = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+        } catch (WebDriverException | ClassCastException e) {
+            logger.debug("Unable to capture screenshot: " + e.getMessage());
+            return CompletableFuture.completedFuture(null);
+        }
+        ITestResult iTestResult = Reporter.getCurrentTestResult();
+        // resolved on the test thread: Log's static setup reads the current test result
+        String folder = Log.getScreenShotPath();
+        long id = sequence.incrementAndGet();
+        CompletableFuture<Path> stored;
+        try {
+            stored = CompletableFuture.supplyAsync(() -> store(raw, folder, id), workers);
+        } catch (RejectedExecutionException e) {
+            logger.warn("Screenshot queue is full, dropping capture: " + description);
+            return CompletableFuture.completedFuture(null);
+        }
+        if (iTestResult == null) {
+            return stored;
+        }
+        // completes once the file is attached, so waiting on it also waits for the report link
+        CompletableFuture<Path> attached = stored.whenComplete((path, error) -> {
+            if (path != null) {
+                ExtentReporter.attach(iTestResult, description + "<br/><img class=\"report-img\" src=\"ScreenShot/"
+                        + path.getFileName() + "\" />");
+                if (!link(path, iTestResult)) {
+                    markEvicted(path, iTestResult);
+                }
+            }
+        });
+        inFlight.compute(iTestResult, (k, pending) -> {
+            Set<CompletableFuture<Path>> futures = pending == null ? ConcurrentHashMap.newKeySet() : pending;
+            futures.add(attached);
+            return futures;
+        });
+        attached.whenComplete((path, error) -> inFlight.computeIfPresent(iTestResult, (k, pending) -> {
+            pending.remove(attached);
+            return pending.isEmpty() ? null : pending;
+        }));
+        return attached;
+    }
+
+    /**
+     * Waits up to the given time for the test's captures still being written, so they
+     * reach the report before its node is ended
+     *
+     * @param iTestResult - finished test
+     * @param timeoutMillis - maximum wait
+     */
+    public static void awaitPending(ITestResult iTestResult, long timeoutMillis) {
+        Set<CompletableFuture<Path>> pending = inFlight.remove(iTestResult);
+        if (pending == null || pending.isEmpty()) {
+            return;
+        }
+        try {
+            CompletableFuture.allOf(pending.toArray(new CompletableFuture[0])).get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            logger.warn("Screenshots still being written after " + timeoutMillis + " ms");
+        } catch (Exception e) {
+            logger.debug("Screenshot write failed: " + e.getMessage());
+        }
+    }
+
+    private static Path store(byte[] raw, String folder, long id) {
+        try {
+            String hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(raw));
+            Path existing = filesByHash.get(hash);
+            if (existing != null && Files.exists(existing)) {
+                return existing;
+            }
+            String format = getFormat();
+            byte[] encoded = encode(raw, format, EnvironmentPropertiesReader.getInstance().getDouble("screenshot.scale", 1.0));
+            Path file = Paths.get(folder, id + "_" + hash.substring(0, 12) + "." + format);
+            Files.write(file, encoded);
+            filesByHash.put(hash, file);
+            enforceDiskCap(new StoredFile(file, hash, encoded.length));
+            return file;
+        } catch (IOException | NoSuchAlgorithmException e) {
+            logger.error("Unable to store screenshot: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static byte[] encode(byte[] png, String format, double scale) throws IOException {
+        if ("png".equals(format) && scale >= 1.0) {
+            return png;
+        }
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+        if (scale < 1.0) {
+            int width = Math.max(1, (int) (image.getWidth() * scale));
+            int height = Math.max(1, (int) (image.getHeight() * scale));
+            BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = scaled.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(image, 0, 0, width, height, null);
+            graphics.dispose();
+            image = scaled;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return out.toByteArray();
+    }
+
+    /**
+     * WebP is used only when an ImageIO WebP writer is on the classpath; PNG otherwise
+     */
+    private static String getFormat() {
+        String format = EnvironmentPropertiesReader.getInstance().getString("screenshot.format", "png").toLowerCase();
+        return ImageIO.getImageWritersByFormatName(format).hasNext() ? format : "png";
+    }
+
+    /**
+     * Records that the test's report links to the stored file
+     *
+     * @return false when the file was already evicted
+     */
+    private static boolean link(Path file, ITestResult iTestResult) {
+        storeLock.lock();
+        try {
+            List<ITestResult> tests = linkedFrom.get(file);
+            if (tests == null) {
+                return false;
+            }
+            tests.add(iTestResult);
+            return true;
+        } finally {
+            storeLock.unlock();
+        }
+    }
+
+    private static void enforceDiskCap(StoredFile stored) {
+        long maxBytes = EnvironmentPropertiesReader.getInstance().getLong("screenshot.maxDiskMb", 500) * 1024 * 1024;
+        List<StoredFile> evicted = new ArrayList<>();
+        Map<Path, List<ITestResult>> brokenLinks = new HashMap<>();
+        storeLock.lock();
+        try {
+            storedFiles.addLast(stored);
+            linkedFrom.put(stored.file, new ArrayList<>());
+            diskUsage += stored.size;
+            while (diskUsage > maxBytes && storedFiles.size() > 1) {
+                StoredFile oldest = storedFiles.removeFirst();
+                diskUsage -= oldest.size;
+                filesByHash.remove(oldest.hash, oldest.file);
+                List<ITestResult> tests = linkedFrom.remove(oldest.file);
+                if (!tests.isEmpty()) {
+                    brokenLinks.put(oldest.file, tests);
+                }
+                evicted.add(oldest);
+            }
+        } finally {
+            storeLock.unlock();
+        }
+        // file names are never reused, so the deletes need not hold the lock
+        for (StoredFile oldest : evicted) {
+            try {
+                Files.deleteIfExists(oldest.file);
+            } catch (IOException e) {
+                logger.debug("Unable to delete " + oldest.file + ": " + e.getMessage());
+            }
+        }
+        brokenLinks.forEach((file, tests) -> {
+            logger.warn("Screenshot disk cap reached, deleted " + file.getFileName() + " linked from " + tests.size() + " test(s)");
+            tests.forEach(iTestResult -> markEvicted(file, iTestResult));
+        });
+    }
+
+    private static void markEvicted(Path file, ITestResult iTestResult) {
+        ExtentReporter.attach(iTestResult, "Screenshot " + file.getFileName() + " was deleted to stay under screenshot.maxDiskMb");
+    }
+
+    private static int getWorkerCount() {
+        return EnvironmentPropertiesReader.getInstance().getInt("screenshot.workers", 2);
+    }
+
+    private static class StoredFile {
+        private final Path file;
+        private final String hash;
+        private final long size;
+
+        private StoredFile(Path file, String hash, long size) {
+            this.file = file;
+            this.hash = hash;
+            this.size = size;
+        }
+    }
+}
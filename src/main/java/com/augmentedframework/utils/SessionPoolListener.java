@@ -0,0 +1,19 @@
+package com.augmentedframework.utils;
+
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+
+/**
+ * SessionPoolListener closes every pooled browser session when the suite finishes
+ *
+ * @author YSabato
+ * @version 1.0
+ * @since 10/18/2026
+ */
+public class SessionPoolListener implements ISuiteListener {
+
+    @Override
+    public void onFinish(ISuite suite) {
+        WebDriverSessionPool.closeAll();
+    }
+}
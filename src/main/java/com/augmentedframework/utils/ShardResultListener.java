@@ -0,0 +1,166 @@
+package com.augmentedframework.utils;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ShardResultListener writes every finished test as one JSON line to results.file (default
+ * shard-results.jsonl) next to the Extent report: shard, class, method, parameters, status,
+ * start and end time, groups, error and the test's report log. Lines are appended as tests end,
+ * so the file never has to be held in memory, and {@link ReportMerger} combines the files of
+ * every shard of a run. The file is replaced once per run; the suites of a run, in sequence or
+ * in parallel, all append to it.
+ * The shard is named after the shard setting, e.g. 3-of-8, or results.shardName.
+ *
+ * @author YSabato
+ * @version 1.0
+ * @since 10/18/2026
+ */
+public class ShardResultListener implements ITestListener, ISuiteListener {
+    private static final Logger logger = LoggerFactory.getLogger(ShardResultListener.class);
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Set<Path> files = new HashSet<>();
+    private BufferedWriter writer;
+    private String shard;
+    private int runningSuites;
+
+    @Override
+    public boolean isEnabled() {
+        return EnvironmentPropertiesReader.getInstance().getBoolean("results.enabled", true);
+    }
+
+    @Override
+    public void onStart(ISuite suite) {
+        lock.lock();
+        try {
+            runningSuites++;
+            if (writer != null) {
+                return;
+            }
+            shard = getShardName();
+            Path file = Paths.get(suite.getOutputDirectory()).toAbsolutePath().getParent()
+                    .resolve(EnvironmentPropertiesReader.getInstance().getString("results.file", "shard-results.jsonl"));
+            Files.createDirectories(file.getParent());
+            // a later suite of the run appends to what the earlier ones wrote
+            writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    files.add(file) ? StandardOpenOption.TRUNCATE_EXISTING : StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            logger.warn("Unable to write shard results: " + e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        write(result, "PASS");
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        write(result, "FAIL");
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        write(result, "SKIP");
+    }
+
+    @Override
+    public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+        write(result, "PASS");
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        lock.lock();
+        try {
+            if (--runningSuites > 0 || writer == null) {
+                return;
+            }
+            writer.close();
+        } catch (IOException e) {
+            logger.warn("Unable to close shard results: " + e.getMessage());
+        } finally {
+            if (runningSuites == 0) {
+                writer = null;
+            }
+            lock.unlock();
+        }
+    }
+
+    private void write(ITestResult result, String status) {
+        JSONObject record = new JSONObject()
+                .put("shard", shard)
+                .put("class", result.getTestClass().getRealClass().getName())
+                .put("method", result.getMethod().getMethodName())
+                .put("status", status)
+                .put("start", result.getStartMillis())
+                .put("end", result.getEndMillis())
+                .put("millis", Math.max(0, result.getEndMillis() - result.getStartMillis()))
+                .put("log", new JSONArray(Reporter.getOutput(result)));
+        if (result.getMethod().getGroups().length > 0) {
+            JSONArray groups = new JSONArray();
+            for (String group : result.getMethod().getGroups()) {
+                groups.put(group);
+            }
+            record.put("groups", groups);
+        }
+        if (result.getParameters().length > 0) {
+            JSONArray parameters = new JSONArray();
+            for (Object parameter : result.getParameters()) {
+                parameters.put(String.valueOf(parameter));
+            }
+            record.put("parameters", parameters);
+        }
+        if (StringUtils.isNotBlank(result.getMethod().getDescription())) {
+            record.put("description", result.getMethod().getDescription());
+        }
+        if (result.getThrowable() != null) {
+            record.put("error", ExceptionUtils.getStackTrace(result.getThrowable()));
+        }
+        String line = record.toString();
+        lock.lock();
+        try {
+            if (writer != null) {
+                writer.write(line);
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            logger.warn("Unable to write shard result of " + result.getName() + ": " + e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static String getShardName() {
+        EnvironmentPropertiesReader config = EnvironmentPropertiesReader.getInstance();
+        String name = config.getString("results.shardName", "");
+        if (StringUtils.isNotBlank(name)) {
+            return name;
+        }
+        int[] shard = ShardSelector.parse(config.getString("shard", ""));
+        return shard == null ? "local" : shard[0] + "-of-" + shard[1];
+    }
+}
@@ -0,0 +1,243 @@
+package com.augmentedframework.utils;
+
+import org.apache.commons.lang3.StringUtils;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ISuiteResult;
+import org.testng.ITestContext;
+import org.testng.ITestResult;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * ShardSelector runs one slice of the suite on a CI node, e.g. -Dshard=3/8 runs the third of
+ * eight shards. Test classes, or methods with shard.by=method, are balanced across the shards
+ * by their durations in the {@link DurationHistory} (scheduler.historyFile): longest first, each
+ * to the shard with the least predicted time, ties broken by name, so every node computes the
+ * same split from the same history. Tests without history are estimated at the median, or at
+ * shard.defaultMillis while the history is empty.
+ * When the suite finishes the shard writes a manifest to shard.manifestDir listing what it was
+ * given and what it ran; {@link #merge(Path, List)} folds the manifests of every node back
+ * into the history.
+ *
+ * @author YSabato
+ * @version 1.0
+ * @since 10/18/2026
+ */
+public class ShardSelector implements IMethodInterceptor, ISuiteListener {
+    private static final Logger logger = LoggerFactory.getLogger(ShardSelector.class);
+
+    // units given to this shard, kept on the <test> so a listener registered twice splits once
+    private static final String ASSIGNED_ATTRIBUTE = ShardSelector.class.getName() + ".assigned";
+
+    @Override
+    public boolean isEnabled() {
+        return StringUtils.isNotBlank(EnvironmentPropertiesReader.getInstance().getString("shard", ""));
+    }
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        int[] shard = parse(EnvironmentPropertiesReader.getInstance().getString("shard", ""));
+        if (shard == null || methods.isEmpty() || context.getAttribute(ASSIGNED_ATTRIBUTE) != null) {
+            return methods;
+        }
+        boolean byMethod = "method".equalsIgnoreCase(EnvironmentPropertiesReader.getInstance().getString("shard.by", "class"));
+        Map<String, Double> estimates = estimate(methods, byMethod, DurationHistory.load());
+        Map<String, Integer> split = split(estimates, shard[1]);
+
+        List<IMethodInstance> selected = new ArrayList<>();
+        Map<String, Double> mine = new TreeMap<>();
+        for (IMethodInstance method : methods) {
+            String unit = unit(method, byMethod);
+            if (split.get(unit) == shard[0] - 1) {
+                selected.add(method);
+                mine.put(unit, estimates.get(unit));
+            }
+        }
+        context.setAttribute(ASSIGNED_ATTRIBUTE, mine);
+        logger.info(String.format("Shard %d/%d of '%s' runs %d of %d %s, predicted %.1f of %.1f s", shard[0], shard[1],
+                context.getName(), mine.size(), estimates.size(), byMethod ? "methods" : "classes",
+                mine.values().stream().mapToDouble(Double::doubleValue).sum() / 1000,
+                estimates.values().stream().mapToDouble(Double::doubleValue).sum() / 1000));
+        return selected;
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        int[] shard = parse(EnvironmentPropertiesReader.getInstance().getString("shard", ""));
+        if (shard == null) {
+            return;
+        }
+        Map<String, Long> ran = new TreeMap<>();
+        JSONObject units = new JSONObject();
+        double predicted = 0;
+        for (ISuiteResult suiteResult : suite.getResults().values()) {
+            ITestContext context = suiteResult.getTestContext();
+            @SuppressWarnings("unchecked")
+            Map<String, Double> mine = (Map<String, Double>) context.getAttribute(ASSIGNED_ATTRIBUTE);
+            if (mine != null) {
+                units.put(context.getName(), new JSONArray(mine.keySet()));
+                predicted += mine.values().stream().mapToDouble(Double::doubleValue).sum();
+            }
+            List<ITestResult> results = new ArrayList<>(context.getPassedTests().getAllResults());
+            results.addAll(context.getFailedTests().getAllResults());
+            results.addAll(context.getFailedButWithinSuccessPercentageTests().getAllResults());
+            for (ITestResult result : results) {
+                ran.merge(result.getMethod().getQualifiedName(), Math.max(0, result.getEndMillis() - result.getStartMillis()), Long::sum);
+            }
+        }
+        JSONObject tests = new JSONObject();
+        ran.forEach((key, millis) -> tests.put(key, new JSONObject().put("millis", millis)));
+        JSONObject manifest = new JSONObject()
+                .put("suite", suite.getName())
+                .put("shard", shard[0])
+                .put("total", shard[1])
+                .put("by", EnvironmentPropertiesReader.getInstance().getString("shard.by", "class"))
+                .put("predictedMillis", Math.round(predicted))
+                .put("units", units)
+                .put("tests", tests);
+
+        Path file = Paths.get(EnvironmentPropertiesReader.getInstance().getString("shard.manifestDir", "target/shards"),
+                String.format("shard-%d-of-%d.json", shard[0], shard[1]));
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Files.write(file, manifest.toString(2).getBytes(StandardCharsets.UTF_8));
+            logger.info("Shard manifest written to " + file.toAbsolutePath());
+        } catch (IOException e) {
+            logger.warn("Unable to write shard manifest " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Folds the test durations of shard manifests into the duration history
+     *
+     * @param historyFile - duration history to update
+     * @param manifests - manifests written by the shards
+     * @return number of test durations merged
+     */
+    public static int merge(Path historyFile, List<Path> manifests) {
+        DurationHistory history = DurationHistory.load(historyFile);
+        double smoothing = EnvironmentPropertiesReader.getInstance().getDouble("scheduler.smoothing", 0.5);
+        int merged = 0;
+        for (Path manifest : manifests) {
+            try {
+                JSONObject tests = new JSONObject(Files.readString(manifest)).getJSONObject("tests");
+                for (Iterator<String> keys = tests.keys(); keys.hasNext(); ) {
+                    String key = keys.next();
+                    history.update(key, tests.getJSONObject(key).getDouble("millis"), smoothing);
+                    merged++;
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Skipping unreadable shard manifest " + manifest + ": " + e.getMessage());
+            }
+        }
+        history.save();
+        return merged;
+    }
+
+    /**
+     * Merges shard manifests from CI: history file followed by the manifest files
+     *
+     * @param args - history file and manifests
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("usage: ShardSelector <history file> <manifest>...");
+            System.exit(2);
+        }
+        List<Path> manifests = new ArrayList<>();
+        Arrays.stream(args, 1, args.length).forEach(arg -> manifests.add(Paths.get(arg)));
+        System.out.println("Merged " + merge(Paths.get(args[0]), manifests) + " test durations into " + args[0]);
+    }
+
+    /**
+     * Assigns every unit to a shard, longest first to the least loaded shard; ties on duration
+     * go by name and ties on load to the lowest shard, so the split only depends on its inputs
+     *
+     * @param estimates - predicted milli seconds by unit
+     * @param shards - number of shards
+     * @return zero based shard by unit
+     */
+    static Map<String, Integer> split(Map<String, Double> estimates, int shards) {
+        List<String> units = new ArrayList<>(estimates.keySet());
+        units.sort(Comparator.comparingDouble((String unit) -> estimates.get(unit)).reversed().thenComparing(Comparator.naturalOrder()));
+        double[] load = new double[shards];
+        Map<String, Integer> split = new LinkedHashMap<>();
+        for (String unit : units) {
+            int least = 0;
+            for (int i = 1; i < shards; i++) {
+                if (load[i] < load[least]) {
+                    least = i;
+                }
+            }
+            // a unit of unknown length still takes a slot, so empty histories split evenly
+            load[least] += Math.max(1, estimates.get(unit));
+            split.put(unit, least);
+        }
+        return split;
+    }
+
+    /**
+     * Parses a shard setting such as 3/8
+     *
+     * @param value - one based shard and shard count
+     * @return shard and count, or null when blank
+     */
+    static int[] parse(String value) {
+        if (StringUtils.isBlank(value)) {
+            return null;
+        }
+        String[] parts = value.trim().split("/");
+        try {
+            int[] shard = {Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim())};
+            if (parts.length == 2 && shard[1] > 0 && shard[0] >= 1 && shard[0] <= shard[1]) {
+                return shard;
+            }
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("shard must be <index>/<count> with 1 <= index <= count, was '" + value + "'");
+    }
+
+    private static Map<String, Double> estimate(List<IMethodInstance> methods, boolean byMethod, DurationHistory history) {
+        double unknown = history.size() > 0 ? history.getMedianMillis()
+                : EnvironmentPropertiesReader.getInstance().getDouble("shard.defaultMillis", 1000);
+        Map<String, Double> methodMillis = new TreeMap<>();
+        for (IMethodInstance method : methods) {
+            String key = method.getMethod().getQualifiedName();
+            double millis = history.getMillis(key);
+            methodMillis.put(key, millis >= 0 ? millis : unknown);
+        }
+        Map<String, Double> estimates = new TreeMap<>();
+        for (IMethodInstance method : methods) {
+            // invocations of a data driven method share one history entry
+            String key = method.getMethod().getQualifiedName();
+            if (methodMillis.containsKey(key)) {
+                estimates.merge(unit(method, byMethod), methodMillis.remove(key), Double::sum);
+            }
+        }
+        return estimates;
+    }
+
+    private static String unit(IMethodInstance method, boolean byMethod) {
+        return byMethod ? method.getMethod().getQualifiedName() : method.getMethod().getRealClass().getName();
+    }
+}
@@ -2,26 +2,27 @@ package com.augmentedframework.utils;
 
 import java.util.concurrent.TimeUnit;
 
-import com.google.common.base.Stopwatch;
-
 /**
  * Stopwatch class captures the elapsed/start time of the stop watch
  *
  * @author YSabato
  * @version 1.0
  * @since 01/01/2020
+ * @deprecated use {@link Instrumentation#start} spans, which measure per thread in nano seconds
+ * and are exported with the suite
  */
+@Deprecated
 public class StopWatch {
 
-    private static Stopwatch sw = Stopwatch.createStarted();
+    private static final long origin = System.nanoTime();
 
     /**
      * Returns the start time of the stop watch
      *
-     * @return time in seconds
+     * @return time in milli seconds
      */
     public static long startTime() {
-        return sw.elapsed(TimeUnit.MILLISECONDS);
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - origin);
     }
 
     /**
@@ -29,10 +30,10 @@ public class StopWatch {
      *
      * @param startTime
      *
-     * @return elapsed time in seconds
+     * @return elapsed time in whole seconds, truncated
      */
     public static long elapsedTime(long startTime) {
-        return (long) (sw.elapsed(TimeUnit.MILLISECONDS) - startTime) / 1000;
+        return elapsedTimeInMilliSecs(startTime) / 1000;
     }
 
     /**
@@ -43,6 +44,6 @@ public class StopWatch {
      * @return elapsed time in milli seconds
      */
     public static long elapsedTimeInMilliSecs(long startTime) {
-        return (long) (sw.elapsed(TimeUnit.MILLISECONDS) - startTime);
+        return startTime() - startTime;
     }
 }
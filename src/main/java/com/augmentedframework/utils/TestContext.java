@@ -0,0 +1,246 @@
+package com.augmentedframework.utils;
+
+import com.relevantcodes.extentreports.ExtentTest;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Queue;
+import java.util.StringJoiner;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * TestContext is created once per test or configuration method invocation and holds what
+ * the logging and reporting paths need on every call: the test result, its id, the log hash,
+ * the report node, messages queued for the report from other threads, the test span and the
+ * WebDriver command trace. It is kept on the test result and bound to the invoking thread by
+ * {@link TestContextListener}; {@link #wrap(Callable)} carries it into executor tasks, so work
+ * on helper threads logs and reports against its test.
+ * Threads without a bound context fall back to TestNG's current test result.
+ *
+ * @author YSabato
+ * @version 1.0
+ * @since 10/18/2026
+ */
+public final class TestContext {
+    private static final String ATTRIBUTE = TestContext.class.getName();
+    private static final ThreadLocal<TestContext> bound = new ThreadLocal<>();
+    private static final ThreadLocal<Deque<Object>> entered = ThreadLocal.withInitial(ArrayDeque::new);
+    private static final Object NONE = new Object();
+    // held only while a context is created, once per test result
+    private static final ReentrantLock creating = new ReentrantLock();
+
+    private final ITestResult result;
+    private final String id;
+    private final String hash;
+    final Queue<String> pendingMessages = new ConcurrentLinkedQueue<>();
+    volatile ExtentTest reportNode;
+    volatile boolean reportEnded;
+    volatile Instrumentation.Span span;
+    final AtomicReference<Instrumentation.Span> step = new AtomicReference<>();
+    volatile CommandTracer.Trace trace;
+
+    private TestContext(ITestResult result) {
+        this.result = result;
+        StringBuilder parameters = new StringBuilder();
+        StringJoiner listed = new StringJoiner(",", "[", "]").setEmptyValue("");
+        for (Object param : result.getParameters()) {
+            parameters.append(param);
+            listed.add(String.valueOf(param));
+        }
+        this.id = result.getTestClass().getRealClass().getSimpleName() + "." + result.getMethod().getMethodName() + listed;
+        this.hash = String.valueOf((result.getMethod().getMethodName() + parameters).hashCode());
+    }
+
+    /**
+     * Returns the context of the current thread, or of TestNG's current test result when none
+     * is bound
+     *
+     * @return context, or null outside any test
+     */
+    public static TestContext current() {
+        TestContext context = bound.get();
+        if (context != null) {
+            return context;
+        }
+        ITestResult iTestResult = Reporter.getCurrentTestResult();
+        return iTestResult == null ? null : of(iTestResult);
+    }
+
+    /**
+     * Returns the context of a test result, creating it on first use
+     *
+     * @param iTestResult - test or configuration method result
+     * @return context
+     */
+    public static TestContext of(ITestResult iTestResult) {
+        Object context = iTestResult.getAttribute(ATTRIBUTE);
+        if (context == null) {
+            creating.lock();
+            try {
+                context = iTestResult.getAttribute(ATTRIBUTE);
+                if (context == null) {
+                    context = new TestContext(iTestResult);
+                    iTestResult.setAttribute(ATTRIBUTE, context);
+                }
+            } finally {
+                creating.unlock();
+            }
+        }
+        return (TestContext) context;
+    }
+
+    /**
+     * Binds the context to the current thread until the returned scope is closed, restoring the
+     * previous context and TestNG current test result
+     *
+     * @return scope to close
+     */
+    public Scope bind() {
+        TestContext previous = bound.get();
+        ITestResult previousResult = Reporter.getCurrentTestResult();
+        bound.set(this);
+        Reporter.setCurrentTestResult(result);
+        return () -> {
+            if (previous == null) {
+                bound.remove();
+            } else {
+                bound.set(previous);
+            }
+            Reporter.setCurrentTestResult(previousResult);
+        };
+    }
+
+    /**
+     * Binds the context of a starting test or configuration method to its thread
+     *
+     * @param iTestResult - invoked method's result
+     */
+    static void enter(ITestResult iTestResult) {
+        TestContext previous = bound.get();
+        entered.get().push(previous != null ? previous : NONE);
+        bound.set(of(iTestResult));
+    }
+
+    /**
+     * Restores the context bound before the matching {@link #enter(ITestResult)}, e.g. the
+     * outer test's context after a nested TestNG run on the same thread. TestNG's current test
+     * result is left alone for the listeners that run after the method.
+     */
+    static void exit() {
+        Deque<Object> previous = entered.get();
+        Object context = previous.isEmpty() ? NONE : previous.pop();
+        if (previous.isEmpty()) {
+            entered.remove();
+        }
+        if (context == NONE) {
+            bound.remove();
+        } else {
+            bound.set((TestContext) context);
+        }
+    }
+
+    /**
+     * Wraps a task to run with the current thread's context bound
+     *
+     * @param task - task to hand to an executor
+     * @param <T> - result type
+     * @return task carrying the context, or the task itself outside any test
+     */
+    public static <T> Callable<T> wrap(Callable<T> task) {
+        TestContext context = current();
+        if (context == null) {
+            return task;
+        }
+        return () -> {
+            try (Scope ignored = context.bind()) {
+                return task.call();
+            }
+        };
+    }
+
+    /**
+     * Wraps a task to run with the current thread's context bound
+     *
+     * @param task - task to hand to an executor
+     * @return task carrying the context, or the task itself outside any test
+     */
+    public static Runnable wrap(Runnable task) {
+        TestContext context = current();
+        if (context == null) {
+            return task;
+        }
+        return () -> {
+            try (Scope ignored = context.bind()) {
+                task.run();
+            }
+        };
+    }
+
+    public ITestResult getResult() {
+        return result;
+    }
+
+    /**
+     * Returns the test class, method and parameters
+     *
+     * @return id such as "LoginTest.login[admin]"
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Returns the hash of the method name and parameters used to tag the test's report log
+     *
+     * @return hash
+     */
+    public String getHash() {
+        return hash;
+    }
+
+    public Instrumentation.Span getSpan() {
+        return span;
+    }
+
+    /**
+     * Ends the test's running step and starts the next one, which lasts until the following
+     * step or the end of the test. Configuration methods, which have no test span, have no
+     * steps, and neither have the reports listeners log once the test method has returned.
+     *
+     * @param description - step reported by {@link Log#message(String)}
+     */
+    void nextStep(String description) {
+        Instrumentation.Span test = span;
+        if (test == null || test.isClosed() || result.getStatus() != ITestResult.STARTED) {
+            return;
+        }
+        endStep();
+        Instrumentation.Span raced = step.getAndSet(Instrumentation.start(Instrumentation.Kind.STEP, description));
+        if (raced != null) {
+            raced.close();
+        }
+    }
+
+    /**
+     * Ends the test's running step, if any
+     */
+    void endStep() {
+        Instrumentation.Span running = step.getAndSet(null);
+        if (running != null) {
+            running.close();
+        }
+    }
+
+    /**
+     * Binding of a context to a thread
+     */
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
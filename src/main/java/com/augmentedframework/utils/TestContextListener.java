@@ -0,0 +1,26 @@
+package com.augmentedframework.utils;
+
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestResult;
+
+/**
+ * TestContextListener binds the {@link TestContext} of every test and configuration method to
+ * the thread invoking it, and releases it when the method returns
+ *
+ * @author YSabato
+ * @version 1.0
+ * @since 10/18/2026
+ */
+public class TestContextListener implements IInvokedMethodListener {
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        TestContext.enter(testResult);
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        TestContext.exit();
+    }
+}
@@ -0,0 +1,195 @@
+package com.augmentedframework.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IAlterSuiteListener;
+import org.testng.IExecutorServiceFactory;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.TestNG;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * VirtualThreadExecution runs API-only tests on virtual threads. A &lt;test&gt; is API-only when
+ * it includes just the virtualThreads.group group (default api); once the execution mode is
+ * installed on a TestNG run such tests run their methods in parallel with up to
+ * virtualThreads.concurrency (default 1000) running at once, one virtual thread per method, while
+ * every other &lt;test&gt; keeps its platform thread pool.
+ * TestNG only takes an executor factory programmatically, so the mode is installed with
+ * {@link #install(TestNG)} or by running suites through {@link #main(String[])}; under a runner
+ * that does not install it, such as surefire, API-only tests keep their configured threads.
+ * Framework code that such tests reach guards its shared state with locks rather than
+ * synchronized: up to Java 23, the project's target, a virtual thread blocking inside a
+ * synchronized block pins its carrier thread and holds up the other tests.
+ *
+ * @author YSabato
+ * @version 1.0
+ * @since 10/18/2026
+ */
+public class VirtualThreadExecution implements IExecutorServiceFactory, IAlterSuiteListener, ITestListener {
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadExecution.class);
+
+    // state of one TestNG run: a listener only named in testng.xml is not installed on its run
+    private final boolean installed;
+    // <test> being started on this thread; TestNG creates its executor right after onStart
+    private final ThreadLocal<XmlTest> starting = new ThreadLocal<>();
+
+    public VirtualThreadExecution() {
+        this(false);
+    }
+
+    private VirtualThreadExecution(boolean installed) {
+        this.installed = installed;
+    }
+
+    /**
+     * Installs the execution mode on a TestNG run, as executor factory and as listener. TestNG
+     * keeps the first listener of a class, so the installed one takes precedence over one
+     * named in testng.xml.
+     *
+     * @param testng - run to install on
+     * @return the run
+     */
+    public static TestNG install(TestNG testng) {
+        VirtualThreadExecution execution = new VirtualThreadExecution(true);
+        testng.setExecutorServiceFactory(execution);
+        testng.addListener(execution);
+        return testng;
+    }
+
+    /**
+     * Runs suite files with the execution mode installed and exits with TestNG's status
+     *
+     * @param args - testng.xml files
+     */
+    public static void main(String[] args) {
+        TestNG testng = install(new TestNG());
+        testng.setTestSuites(Arrays.asList(args));
+        testng.run();
+        System.exit(testng.getStatus());
+    }
+
+    /**
+     * Returns whether the test includes only the API group
+     *
+     * @param xmlTest - test
+     * @return true for API-only tests
+     */
+    public static boolean isApiOnly(XmlTest xmlTest) {
+        List<String> groups = xmlTest.getIncludedGroups();
+        return !groups.isEmpty() && groups.stream().allMatch(getGroup()::equals);
+    }
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        if (!isActive()) {
+            return;
+        }
+        int concurrency = getConcurrency();
+        for (XmlSuite suite : suites) {
+            for (XmlTest test : suite.getTests()) {
+                if (isApiOnly(test)) {
+                    test.setParallel(XmlSuite.ParallelMode.METHODS);
+                    test.setThreadCount(concurrency);
+                    logger.info("Test '" + test.getName() + "' runs on virtual threads, " + concurrency + " at once");
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onStart(ITestContext context) {
+        starting.set(context.getCurrentXmlTest());
+    }
+
+    @Override
+    public void onFinish(ITestContext context) {
+        starting.remove();
+    }
+
+    @Override
+    public ExecutorService create(int corePoolSize, int maximumPoolSize, long keepAliveTime, TimeUnit unit,
+                                  BlockingQueue<Runnable> workQueue, ThreadFactory threadFactory) {
+        XmlTest xmlTest = starting.get();
+        if (isActive() && xmlTest != null && isApiOnly(xmlTest)) {
+            return new BoundedVirtualThreadExecutor(xmlTest.getName(), Math.max(1, maximumPoolSize));
+        }
+        return new ThreadPoolExecutor(corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue, threadFactory);
+    }
+
+    private boolean isActive() {
+        return installed && EnvironmentPropertiesReader.getInstance().getBoolean("virtualThreads.enabled", true);
+    }
+
+    private static String getGroup() {
+        return EnvironmentPropertiesReader.getInstance().getString("virtualThreads.group", "api");
+    }
+
+    private static int getConcurrency() {
+        return Math.max(1, EnvironmentPropertiesReader.getInstance().getInt("virtualThreads.concurrency", 1000));
+    }
+
+    /**
+     * Starts a virtual thread per task; a task waits for one of the permits before it runs, so
+     * no more than the test's thread count run at once
+     */
+    private static final class BoundedVirtualThreadExecutor extends AbstractExecutorService {
+        private final ExecutorService delegate;
+        private final Semaphore permits;
+
+        private BoundedVirtualThreadExecutor(String testName, int concurrency) {
+            this.delegate = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("api-" + testName + "-", 1).factory());
+            this.permits = new Semaphore(concurrency);
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            delegate.execute(() -> {
+                permits.acquireUninterruptibly();
+                try {
+                    task.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        }
+
+        @Override
+        public void shutdown() {
+            delegate.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return new ArrayList<>(delegate.shutdownNow());
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return delegate.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return delegate.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return delegate.awaitTermination(timeout, unit);
+        }
+    }
+}
@@ -1,14 +1,12 @@
 package com.augmentedframework.utils;
 
-import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebDriverException;
-import org.openqa.selenium.support.ui.FluentWait;
-import org.openqa.selenium.support.ui.WebDriverWait;
 import org.testng.Assert;
 
 import java.time.Duration;
+import java.time.temporal.ChronoUnit;
 
 /**
  * Wait class provides actions to wait for page load and page load with user defined max time
@@ -24,31 +22,63 @@ public class WaitUtils {
         waitForPageLoad(driver, WebDriverFactory.maxPageLoadWait);
     }
 
+    /**
+     * Waits for the page to load within maxWait in total. The first attempt may spend the
+     * budget minus the pageLoad.refreshReserve share; if it times out the page is refreshed
+     * once and the reserve is spent on a second attempt. Polling starts at a few milli seconds
+     * and adapts to the load time learned for the URL pattern.
+     *
+     * @param driver
+     * @param maxWait - total wait budget, including the refresh attempt
+     */
     public static void waitForPageLoad(final WebDriver driver, Duration maxWait) {
-        long startTime = StopWatch.startTime();
-        FluentWait<WebDriver> wait = new WebDriverWait(driver, maxWait)
-                .pollingEvery(Duration.ofSeconds(500))
-                .ignoring(StaleElementReferenceException.class,WebDriverException.class)
-                .withMessage("Page Load Timed Out");
-        try {
-            wait.until(WebDriverFactory.documentLoad);
-            wait.until(WebDriverFactory.imagesLoad);
-            wait.until(WebDriverFactory.framesLoad);
-            String title = driver.getTitle().toLowerCase();
-            String url = driver.getCurrentUrl().toLowerCase();
-            Log.event("Page URL:: " + url);
-
-            if ("Page cannot be found".equalsIgnoreCase(title) || title.contains("is not available") ||
-                    url.contains("/error/") || url.toLowerCase().contains("/errorpage/")) {
-                Assert.fail("Site is down. [Title: " + title + ", URL:" + url + "]");
+        try (Instrumentation.Span wait = Instrumentation.start(Instrumentation.Kind.WAIT, "waitForPageLoad")) {
+            PollingWait.Budget budget = PollingWait.Budget.of(maxWait);
+            String expectedUrl = getCurrentUrl(driver);
+            PageReadiness readiness = PageReadiness.all(isNetworkIdleWait(), PageReadiness.getNetworkIdleQuietMillis());
+            try {
+                PollingWait.until(driver, "Page Load", readiness, budget.slice(1 - getRefreshReserve()), getPollingStrategy(expectedUrl));
+                LoadTimeHistory.record(expectedUrl, wait.elapsedMillis());
+                String title = driver.getTitle().toLowerCase();
+                String url = driver.getCurrentUrl().toLowerCase();
+                Log.event("Page URL:: " + url);
+
+                if ("Page cannot be found".equalsIgnoreCase(title) || title.contains("is not available") ||
+                        url.contains("/error/") || url.toLowerCase().contains("/errorpage/")) {
+                    Assert.fail("Site is down. [Title: " + title + ", URL:" + url + "]");
+                }
+            } catch (TimeoutException e) {
+                readiness.report();
+                driver.navigate().refresh();
+                readiness = PageReadiness.all(isNetworkIdleWait(), PageReadiness.getNetworkIdleQuietMillis());
+                PollingWait.until(driver, "Page Load (Refresh)", readiness, budget, getPollingStrategy(expectedUrl));
             }
-        } catch (TimeoutException e) {
-            driver.navigate().refresh();
-            wait.until(WebDriverFactory.documentLoad);
-            wait.until(WebDriverFactory.imagesLoad);
-            wait.until(WebDriverFactory.framesLoad);
+
+            readiness.report();
+            Log.event("Page Load Wait (ms): (Sync)", wait.elapsedMillis());
         }
+    }
 
-        Log.event("Page Load Wait: (Sync)", StopWatch.elapsedTime(startTime));
+    private static PollingStrategy getPollingStrategy(String url) {
+        return PollingStrategy.adaptive(LoadTimeHistory.expected(url),
+                EnvironmentPropertiesReader.getInstance().getDuration("pageLoad.initialPollMillis", Duration.ofMillis(5), ChronoUnit.MILLIS),
+                EnvironmentPropertiesReader.getInstance().getDuration("pageLoad.maxPollMillis", Duration.ofMillis(500), ChronoUnit.MILLIS));
     }
+
+    private static double getRefreshReserve() {
+        return EnvironmentPropertiesReader.getInstance().getDouble("pageLoad.refreshReserve", 0.25);
+    }
+
+    private static String getCurrentUrl(WebDriver driver) {
+        try {
+            return driver.getCurrentUrl();
+        } catch (WebDriverException e) {
+            return "";
+        }
+    }
+
+    private static boolean isNetworkIdleWait() {
+        return EnvironmentPropertiesReader.getInstance().getBoolean("pageLoad.networkIdle", false);
+    }
+
 }
@@ -5,25 +5,30 @@ import java.net.URL;
 import java.util.*;
 
 import com.augmentedframework.ui.config.grid.BrowserStackCapabilitiesConfiguration;
-import io.restassured.RestAssured;
-import org.json.JSONObject;
-import org.openqa.selenium.By;
+import org.openqa.selenium.Capabilities;
 import org.openqa.selenium.Dimension;
+import org.openqa.selenium.ImmutableCapabilities;
 import org.openqa.selenium.JavascriptExecutor;
-import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.UnsupportedCommandException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebDriverException;
-import org.openqa.selenium.WebElement;
 import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.remote.CommandExecutor;
 import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.HttpCommandExecutor;
 import org.openqa.selenium.remote.RemoteWebDriver;
 import org.openqa.selenium.support.ui.ExpectedCondition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.testng.ITestResult;
+import org.testng.Reporter;
 
 import java.time.Duration;
-import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 /**
  * WebdriverFactory class create a web driver instance
@@ -39,8 +44,16 @@ import java.util.List;
 public class WebDriverFactory {
     private static Logger logger = LoggerFactory.getLogger(WebDriverFactory.class);
 
-    private static String userName;
-    private static String accessKey;
+    private static volatile String userName;
+    private static volatile String accessKey;
+
+    private static final ExecutorService sessionExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private static final Map<WebDriver, SessionTimings> sessionTimings = new ConcurrentHashMap<>();
+    private static final ThreadLocal<WebDriver> currentDriver = new ThreadLocal<>();
+    private static final Map<String, Capabilities> resolvedCapabilities = new ConcurrentHashMap<>();
+    private static final List<String> CAPABILITY_SETTINGS = List.of("os_v_browser_v", "BUILD_ID", "userName", "accessKey", "local", "networkLogs");
+    private static final BrowserStackSessionResolver sessionResolver = new BrowserStackSessionResolver(
+            sessionId -> String.format("<browserstack url>", userName, accessKey, sessionId), getSessionLookupsPerSecond());
 
     public static ExpectedCondition<Boolean> documentLoad;
     public static ExpectedCondition<Boolean> framesLoad;
@@ -48,68 +61,10 @@ public class WebDriverFactory {
     public static Duration maxPageLoadWait = Duration.ofSeconds(120);
 
     static {
-        documentLoad = driver -> {
-            final JavascriptExecutor js = (JavascriptExecutor) driver;
-            boolean docReadyState = false;
-            try {
-                docReadyState = (Boolean) js.executeScript("return (function() { if (document.readyState != 'complete') {  return false; } if (window.jQuery != null && window.jQuery != undefined && window.jQuery.active) { return false;} if (window.jQuery != null && window.jQuery != undefined && window.jQuery.ajax != null && window.jQuery.ajax != undefined && window.jQuery.ajax.active) {return false;}  if (window.angular != null && angular.element(document).injector() != null && angular.element(document).injector().get('$http').pendingRequests.length) return false; return true;})();");
-            } catch (WebDriverException e) {
-                docReadyState = true;
-            }
-            return docReadyState;
-        };
-
-        imagesLoad = driver -> {
-            boolean docReadyState = true;
-            try {
-                JavascriptExecutor js;
-                List<WebElement> images = driver.findElements(By.cssSelector("img[src]"));
-                for (int i = 0; i < images.size(); i++) {
-                    try {
-                        js = (JavascriptExecutor) driver;
-                        docReadyState = docReadyState && (Boolean) js.executeScript("return arguments[0].complete && typeof arguments[0].naturalWidth != \"undefined\" && arguments[0].naturalWidth > 0", images.get(i));
-                        if (!docReadyState) {
-                            break;
-                        }
-                    } catch (StaleElementReferenceException e) {
-                        images = driver.findElements(By.cssSelector("img[src]"));
-                        i--;
-                    } catch (WebDriverException e) {
-                        docReadyState = true;
-                    }
-                }
-            } catch (WebDriverException e) {
-                docReadyState = true;
-            }
-            return docReadyState;
-        };
-
-        framesLoad = driver -> {
-            boolean docReadyState = true;
-            try {
-                JavascriptExecutor js;
-                List<WebElement> frames = driver.findElements(By.cssSelector("iframe[style*='hidden']"));
-                for (WebElement frame : frames) {
-                    try {
-                        driver.switchTo().defaultContent();
-                        driver.switchTo().frame(frame);
-                        js = (JavascriptExecutor) driver;
-                        docReadyState = (Boolean) js.executeScript("return (document.readyState==\"complete\")");
-                        driver.switchTo().defaultContent();
-                        if (!docReadyState) {
-                            break;
-                        }
-                    } catch (WebDriverException e) {
-                        docReadyState = true;
-                    }
-                }
-            } catch (WebDriverException e) {
-                docReadyState = true;
-            } finally {
-                driver.switchTo().defaultContent();
-            }
-            return docReadyState;
-        };
+        // each condition is evaluated with a single injected script per poll, see PageReadiness
+        documentLoad = PageReadiness.of(PageReadiness.Condition.DOCUMENT, PageReadiness.Condition.AJAX);
+        imagesLoad = PageReadiness.of(PageReadiness.Condition.IMAGES);
+        framesLoad = PageReadiness.of(PageReadiness.Condition.FRAMES);
     }
 
     /**
@@ -126,12 +81,189 @@ public class WebDriverFactory {
      * @return
      */
     public static WebDriver get() {
-        BrowserStackCapabilitiesConfiguration caps = setCapabilityBasedOnEnvironment(true, null);
-        Map<String, String> capsToOverride = new HashMap<>();
         String testName = new Exception().getStackTrace()[1].getMethodName();
-        capsToOverride.put("name", testName);
-        caps.override(capsToOverride);
-        return getNewSession(setBrowserOptions(caps), testName);
+        DesiredCapabilities caps = getTestCapabilities(testName);
+        if (WebDriverSessionPool.isEnabled()) {
+            Log.event("Requesting pooled browser instance...");
+            WebDriver driver = acquirePooledSession(caps, testName);
+            attachPublicUrl(driver, testName, Reporter.getCurrentTestResult());
+            currentDriver.set(driver);
+            return driver;
+        }
+        WebDriver driver = getNewSession(caps, testName);
+        attachPublicUrl(driver, testName, Reporter.getCurrentTestResult());
+        currentDriver.set(driver);
+        SessionTimings timings = getSessionTimings(driver);
+        if (timings != null) {
+            Log.event("Grid queue wait (ms)", timings.getQueueWaitMillis());
+            Log.event("Session creation (ms)", timings.getCreationMillis());
+        }
+        return driver;
+    }
+
+    /**
+     * Requests a session without blocking the calling thread. Sessions are created in
+     * parallel up to grid.parallelSessions; further requests queue in arrival order and
+     * fail with a SessionNotCreatedException after grid.queueTimeout seconds.
+     * Queue wait and creation time are available through {@link #getSessionTimings(WebDriver)}.
+     *
+     * @return future completed with the new session
+     */
+    public static CompletableFuture<WebDriver> getAsync() {
+        String testName = new Exception().getStackTrace()[1].getMethodName();
+        DesiredCapabilities caps = getTestCapabilities(testName);
+        ITestResult iTestResult = Reporter.getCurrentTestResult();
+        CompletableFuture<WebDriver> session = WebDriverSessionPool.isEnabled()
+                ? CompletableFuture.supplyAsync(() -> acquirePooledSession(caps, testName), sessionExecutor)
+                : CompletableFuture.supplyAsync(() -> createSession(caps, testName), sessionExecutor);
+        return session.thenApply(driver -> {
+            attachPublicUrl(driver, testName, iTestResult);
+            return driver;
+        });
+    }
+
+    /**
+     * Resolves the BrowserStack public URL in the background and attaches it to the
+     * log and report once available, keeping the REST lookup off session creation
+     *
+     * @param driver
+     * @param testName
+     * @param iTestResult
+     */
+    private static void attachPublicUrl(WebDriver driver, String testName, ITestResult iTestResult) {
+        if (driver instanceof RemoteWebDriver && ((RemoteWebDriver) driver).getSessionId() != null) {
+            sessionResolver.attach(((RemoteWebDriver) driver).getSessionId().toString(), testName, iTestResult);
+        }
+    }
+
+    /**
+     * Returns the session last handed to the calling thread by {@link #get()}, or null
+     *
+     * @return
+     */
+    public static WebDriver getCurrentDriver() {
+        return currentDriver.get();
+    }
+
+    /**
+     * Returns the grid queue wait and creation time of a session created by this factory,
+     * or null if the session is unknown
+     *
+     * @param driver
+     * @return
+     */
+    public static SessionTimings getSessionTimings(WebDriver driver) {
+        return driver == null ? null : sessionTimings.get(driver);
+    }
+
+    /**
+     * Returns the capabilities for the test. Only the test name is applied per call,
+     * on top of {@link #getResolvedCapabilities()}.
+     *
+     * @param testName
+     * @return
+     */
+    private static DesiredCapabilities getTestCapabilities(String testName) {
+        DesiredCapabilities caps = new DesiredCapabilities(getResolvedCapabilities());
+        caps.setCapability("name", testName);
+        return caps;
+    }
+
+    /**
+     * Returns the environment and browser options, resolved once per combination of the
+     * settings they are built from and the emulated device, and cached as immutable capabilities
+     *
+     * @return
+     */
+    public static Capabilities getResolvedCapabilities() {
+        return resolvedCapabilities.computeIfAbsent(getCapabilitiesKey(),
+                key -> new ImmutableCapabilities(setBrowserOptions(setCapabilityBasedOnEnvironment(true, null))));
+    }
+
+    /**
+     * Cache key of the resolved capabilities: the value of every setting read by
+     * {@link #setCapabilityBasedOnEnvironment(boolean, String)} and the capabilities
+     * configuration, as the reader currently layers them
+     *
+     * @return
+     */
+    private static String getCapabilitiesKey() {
+        EnvironmentPropertiesReader.Snapshot config = EnvironmentPropertiesReader.getInstance().getSnapshot();
+        StringJoiner key = new StringJoiner("|");
+        CAPABILITY_SETTINGS.forEach(setting -> key.add(config.getString(setting, "")));
+        return key + getDeviceSuffix();
+    }
+
+    private static String getDeviceSuffix() {
+        MobileEmulationUserAgentConfiguration.Device device = MobileEmulationUserAgentConfiguration.getConfiguredDevice();
+        return device == null ? "" : "_" + device.getName();
+    }
+
+    private static WebDriver acquirePooledSession(DesiredCapabilities caps, String testName) {
+        WebDriver driver = WebDriverSessionPool.acquire(getPlatformKey(caps), () -> createSession(caps, testName));
+        setSessionName(driver, testName);
+        return driver;
+    }
+
+    /**
+     * Returns the session to the pool when pooling is enabled, otherwise quits it
+     *
+     * @param driver
+     */
+    public static void release(WebDriver driver) {
+        if (driver != null) {
+            sessionTimings.remove(driver);
+        }
+        if (currentDriver.get() == driver) {
+            currentDriver.remove();
+        }
+        // a pooled session is resolved again by the next test that gets it
+        if (driver instanceof RemoteWebDriver && ((RemoteWebDriver) driver).getSessionId() != null) {
+            sessionResolver.forget(((RemoteWebDriver) driver).getSessionId().toString());
+        }
+        if (WebDriverSessionPool.isEnabled()) {
+            WebDriverSessionPool.release(driver);
+        } else if (driver != null) {
+            try {
+                driver.quit();
+            } finally {
+                GridSlotAdmission.free(driver);
+            }
+        }
+    }
+
+    private static double getSessionLookupsPerSecond() {
+        return EnvironmentPropertiesReader.getInstance().getDouble("browserstack.sessionLookupsPerSecond", 2);
+    }
+
+    /**
+     * Pool key for the resolved platform, in the same os_v_browser_v format accepted by the build,
+     * followed by the emulated device if any
+     *
+     * @param caps
+     * @return
+     */
+    private static String getPlatformKey(Capabilities caps) {
+        return caps.getCapability("os") + "_" + caps.getCapability("os_version") + "_"
+                + caps.getCapability("browser") + "_" + caps.getCapability("browser_version") + getDeviceSuffix();
+    }
+
+    /**
+     * Renames a reused BrowserStack session to the test that now owns it
+     *
+     * @param driver
+     * @param testName
+     */
+    private static void setSessionName(WebDriver driver, String testName) {
+        if (driver == null) {
+            return;
+        }
+        try {
+            ((JavascriptExecutor) driver).executeScript("browserstack_executor: {\"action\": \"setSessionName\", \"arguments\": {\"name\": \""
+                    + testName + "\"}}");
+        } catch (WebDriverException e) {
+            logger.debug("Unable to rename session to " + testName + ": " + e.getMessage());
+        }
     }
 
     /**
@@ -140,23 +272,63 @@ public class WebDriverFactory {
      * @param testName
      * @return
      */
-    private synchronized static WebDriver getNewSession(DesiredCapabilities caps, String testName) {
+    private static WebDriver getNewSession(DesiredCapabilities caps, String testName) {
         Log.event("Requesting browser instance...");
-        synchronized (System.class) {
-            logger.debug("Capabilities setup is complete. Creating a Remote Web Driver...");
-            RemoteWebDriver driver;
+        return createSession(caps, testName);
+    }
+
+    /**
+     * Creates the remote session once a grid slot is admitted. Runs concurrently on
+     * any thread and is kept free of test-thread logging so the session pool and
+     * {@link #getAsync()} can call it from background threads.
+     *
+     * @param caps
+     * @param testName
+     * @return
+     */
+    private static WebDriver createSession(DesiredCapabilities caps, String testName) {
+        long queueWait = GridSlotAdmission.admit();
+        long createdAt = System.nanoTime();
+        logger.debug("Capabilities setup is complete. Creating a Remote Web Driver...");
+        CommandExecutor executor;
+        try {
+            HttpCommandExecutor http = new HttpCommandExecutor(getHubUrl());
+            executor = GridSlotAdmission.hold(CommandTracer.isEnabled() ? CommandTracer.wrap(http) : http);
+        } catch(MalformedURLException e) {
+            GridSlotAdmission.cancel();
+            logger.error("This is not a valid URL to be passed to the Remote web driver");
+            return null;
+        }
+        RemoteWebDriver driver = null;
+        try {
+            driver = new RemoteWebDriver(executor, caps);
+            long creation = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - createdAt);
+            sessionTimings.put(driver, new SessionTimings(queueWait, creation));
+            logger.debug(String.format("Remote Web driver for %s created in %d ms after %d ms in the grid queue", testName, creation, queueWait));
+            maximize(driver, caps);
+            return driver;
+        } catch (RuntimeException e) {
+            discard(driver, executor);
+            throw e;
+        }
+    }
+
+    /**
+     * Quits a session that failed during setup and returns its grid slot
+     *
+     * @param driver - session, or null if it was not created
+     * @param executor - executor holding the slot
+     */
+    private static void discard(RemoteWebDriver driver, CommandExecutor executor) {
+        if (driver != null) {
+            sessionTimings.remove(driver);
             try {
-                driver = new RemoteWebDriver(getHubUrl(), caps);
-                logger.debug("Remote Web driver has been successfully created");
-                String bsLink = getPublicBSUrl(driver);
-                logger.debug("BrowserStack link for " + testName + ":: " + bsLink);
-                maximize(driver, caps);
-                return driver;
-            } catch(MalformedURLException e) {
-                logger.error("This is not a valid URL to be passed to the Remote web driver");
+                driver.quit();
+            } catch (WebDriverException e) {
+                logger.debug("Unable to quit failed session: " + e.getMessage());
             }
         }
-        return null;
+        GridSlotAdmission.free(executor);
     }
 
     /**
@@ -184,8 +356,8 @@ public class WebDriverFactory {
         Map<String, String> capsToOverride = new HashMap<>();
         try {
             if(isJenkinsRun) {
-                overrideWithSysProp(caps);
-                capsToOverride.put("build", System.getenv("BUILD_ID"));
+                overrideWithEnvironment(caps);
+                capsToOverride.put("build", EnvironmentPropertiesReader.getInstance().getProperty("BUILD_ID"));
             } else {
                 overrideWithPlatformParam(platform, caps);
                 capsToOverride.put("build", "Local Build");
@@ -199,18 +371,18 @@ public class WebDriverFactory {
     }
 
     /**
+     * Applies the credentials and os_v_browser_v platform of the configuration, where a
+     * system property overrides an environment variable of the same name
      *
      * @param caps
      * @throws Exception
      */
-    private static void overrideWithSysProp(BrowserStackCapabilitiesConfiguration caps) throws Exception {
-        Properties sysProp = System.getProperties();
-        userName = System.getenv().containsKey("userName") ? System.getenv().get("userName") : userName;
-        accessKey = System.getenv().containsKey("accessKey") ? System.getenv().get("accessKey") : accessKey;
-        if (sysProp.containsKey("os_v_browser_v")) {
-            overrideWithPlatformParam(sysProp.getProperty("os_v_browser_v"), caps);
-        } else if (System.getenv().containsKey("os_v_browser_v")) {
-            overrideWithPlatformParam(System.getenv("os_v_browser_v"), caps);
+    private static void overrideWithEnvironment(BrowserStackCapabilitiesConfiguration caps) throws Exception {
+        EnvironmentPropertiesReader config = EnvironmentPropertiesReader.getInstance();
+        userName = config.getString("userName", userName);
+        accessKey = config.getString("accessKey", accessKey);
+        if (config.hasProperty("os_v_browser_v")) {
+            overrideWithPlatformParam(config.getProperty("os_v_browser_v"), caps);
         }
     }
 
@@ -240,10 +412,7 @@ public class WebDriverFactory {
      */
     public static String getPublicBSUrl(WebDriver driver) {
         try {
-            String sessionUrl = String.format("<browserstack url>", userName, accessKey,
-                    ((RemoteWebDriver)driver).getSessionId());
-            String sessionBody = RestAssured.get(sessionUrl).body().asString();
-            return new JSONObject(sessionBody).getJSONObject("automation_session").getString("public_url");
+            return sessionResolver.resolve(((RemoteWebDriver)driver).getSessionId().toString()).join();
         } catch(Exception e) {
             e.printStackTrace();
             return "Issue getting public URL of BrowserStack";
@@ -260,7 +429,8 @@ public class WebDriverFactory {
         desiredCapabilities.setCapability("<browserstack url", false);
         switch (caps.getBrowser()) {
             case "Chrome":
-                desiredCapabilities.setCapability(ChromeOptions.CAPABILITY, WebDriverOptions.setChromeOptions());
+                desiredCapabilities.setCapability(ChromeOptions.CAPABILITY,
+                        WebDriverOptions.getChromeOptions(MobileEmulationUserAgentConfiguration.getConfiguredDevice()));
                 break;
             case "Firefox":
                 // FirefoxOptions To-Do
@@ -271,5 +441,25 @@ public class WebDriverFactory {
         }
         return desiredCapabilities;
     }
-}
 
+    /**
+     * Grid queue wait and session creation time of a single session
+     */
+    public static class SessionTimings {
+        private final long queueWaitMillis;
+        private final long creationMillis;
+
+        SessionTimings(long queueWaitMillis, long creationMillis) {
+            this.queueWaitMillis = queueWaitMillis;
+            this.creationMillis = creationMillis;
+        }
+
+        public long getQueueWaitMillis() {
+            return queueWaitMillis;
+        }
+
+        public long getCreationMillis() {
+            return creationMillis;
+        }
+    }
+}
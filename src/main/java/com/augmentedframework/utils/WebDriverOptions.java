@@ -5,18 +5,42 @@ import org.openqa.selenium.edge.EdgeOptions;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  *
- * Helper class to setup general browser options
+ * Helper class to setup general browser options.
+ * Chrome options are built once per emulated device and shared by every session asking for
+ * them, so callers must not modify the returned options; copy them first if needed.
  *
  * @author Sabato
  * @version 1.0
  * @since 01/01/2020
  */
 public class WebDriverOptions {
+    private static final ChromeOptions desktopChromeOptions = buildChromeOptions(null);
+    private static final Map<MobileEmulationUserAgentConfiguration.Device, ChromeOptions> emulatedChromeOptions = new ConcurrentHashMap<>();
 
+    /**
+     * Returns the shared desktop Chrome options
+     *
+     * @return options, not to be modified
+     */
     public static ChromeOptions setChromeOptions() {
+        return desktopChromeOptions;
+    }
+
+    /**
+     * Returns the shared Chrome options emulating the device, built on first use
+     *
+     * @param device - emulated device, or null for desktop
+     * @return options, not to be modified
+     */
+    public static ChromeOptions getChromeOptions(MobileEmulationUserAgentConfiguration.Device device) {
+        return device == null ? desktopChromeOptions : emulatedChromeOptions.computeIfAbsent(device, WebDriverOptions::buildChromeOptions);
+    }
+
+    private static ChromeOptions buildChromeOptions(MobileEmulationUserAgentConfiguration.Device device) {
         ChromeOptions chromeOptions = new ChromeOptions();
         chromeOptions.addArguments("--ignore-certificate-errors");
         chromeOptions.addArguments("--disable-extensions");
@@ -28,6 +52,9 @@ public class WebDriverOptions {
         prefs.put("profile.default_content_setting_values.plugins", 1);
         prefs.put("profile.content_settings.plugin_whitelist.adobe-flash-player", 1);
         prefs.put("profile.content_settings.exceptions.plugins.*,*.per_resource.adobe-flash-player", 1);
+        if (device != null) {
+            chromeOptions.setExperimentalOption("mobileEmulation", device.toMobileEmulation());
+        }
         return chromeOptions;
     }
 
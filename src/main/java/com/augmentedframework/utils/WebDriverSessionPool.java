@@ -0,0 +1,255 @@
+package com.augmentedframework.utils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * WebDriverSessionPool keeps idle remote sessions keyed by the resolved platform
+ * (os_os_version_browser_browser_version) so tests can reuse a session instead of
+ * paying the full grid handshake. Sessions are reset before they are handed out,
+ * evicted when unhealthy or idle for too long, and closed at suite end. The pre-warm and
+ * eviction threads and the shutdown hook start with the first acquisition, so runs with the
+ * pool switched off do not pay for them.
+ *
+ * @author YSabato
+ * @version 1.0
+ * @since 10/18/2026
+ */
+public class WebDriverSessionPool {
+    private static final Logger logger = LoggerFactory.getLogger(WebDriverSessionPool.class);
+
+    private static final Map<String, Deque<PooledSession>> idleSessions = new ConcurrentHashMap<>();
+    private static final Map<WebDriver, String> leasedSessions = new ConcurrentHashMap<>();
+    private static final Set<String> prewarmedKeys = ConcurrentHashMap.newKeySet();
+
+    private static final String RESET_STORAGE_SCRIPT = "try { window.localStorage.clear(); } catch (e) {} try { window.sessionStorage.clear(); } catch (e) {}";
+
+    private WebDriverSessionPool() {
+    }
+
+    /**
+     * Returns true when session pooling is switched on through the
+     * sessionPool.enabled system property or config.properties
+     *
+     * @return pooling flag
+     */
+    public static boolean isEnabled() {
+        return EnvironmentPropertiesReader.getInstance().getBoolean("sessionPool.enabled", false);
+    }
+
+    /**
+     * Returns a healthy, reset session for the given platform key. Idle sessions are
+     * reused first; a new one is created through the factory otherwise. The first
+     * acquisition for a key also pre-warms the configured number of sessions.
+     *
+     * @param key - platform key (os_os_version_browser_browser_version)
+     * @param factory - creates a new remote session
+     * @return {@link WebDriver} - leased session
+     */
+    public static WebDriver acquire(String key, Supplier<WebDriver> factory) {
+        Background.start();
+        if (prewarmedKeys.add(key)) {
+            prewarm(key, getPrewarmCount(), factory);
+        }
+        Deque<PooledSession> sessions = idleSessions.computeIfAbsent(key, k -> new ConcurrentLinkedDeque<>());
+        PooledSession session;
+        while ((session = sessions.pollFirst()) != null) {
+            if (session.isExpired(getIdleTimeoutMillis()) || !reset(session.driver)) {
+                quit(session.driver);
+                continue;
+            }
+            leasedSessions.put(session.driver, key);
+            logger.debug("Reusing pooled session for " + key);
+            return session.driver;
+        }
+        WebDriver driver = factory.get();
+        if (driver != null) {
+            leasedSessions.put(driver, key);
+        }
+        return driver;
+    }
+
+    /**
+     * Returns the leased session to the pool. Sessions that were not leased by the
+     * pool are quit.
+     *
+     * @param driver - session to release
+     */
+    public static void release(WebDriver driver) {
+        if (driver == null) {
+            return;
+        }
+        String key = leasedSessions.remove(driver);
+        if (key == null || !isHealthy(driver)) {
+            quit(driver);
+            return;
+        }
+        idleSessions.computeIfAbsent(key, k -> new ConcurrentLinkedDeque<>()).offerFirst(new PooledSession(driver));
+    }
+
+    /**
+     * Creates sessions in the background and parks them in the pool
+     *
+     * @param key - platform key
+     * @param count - number of sessions to create
+     * @param factory - creates a new remote session
+     */
+    public static void prewarm(String key, int count, Supplier<WebDriver> factory) {
+        for (int i = 0; i < count; i++) {
+            Background.prewarmExecutor.submit(() -> {
+                try {
+                    WebDriver driver = factory.get();
+                    if (driver != null) {
+                        idleSessions.computeIfAbsent(key, k -> new ConcurrentLinkedDeque<>()).offerLast(new PooledSession(driver));
+                        logger.debug("Pre-warmed session for " + key);
+                    }
+                } catch (WebDriverException e) {
+                    logger.error("Unable to pre-warm session for " + key + ": " + e.getMessage());
+                }
+            });
+        }
+    }
+
+    /**
+     * Quits every idle and leased session. Called at suite end and on JVM shutdown.
+     */
+    public static void closeAll() {
+        List<WebDriver> drivers = new ArrayList<>(leasedSessions.keySet());
+        leasedSessions.clear();
+        idleSessions.values().forEach(sessions -> {
+            PooledSession session;
+            while ((session = sessions.pollFirst()) != null) {
+                drivers.add(session.driver);
+            }
+        });
+        prewarmedKeys.clear();
+        drivers.forEach(WebDriverSessionPool::quit);
+    }
+
+    /**
+     * Quits sessions that have been idle longer than sessionPool.idleTimeout
+     */
+    static void evictExpired() {
+        long idleTimeout = getIdleTimeoutMillis();
+        idleSessions.forEach((key, sessions) -> {
+            for (PooledSession session : sessions) {
+                // remove() loses the race against a concurrent acquire, so a leased session is never quit here
+                if (session.isExpired(idleTimeout) && sessions.remove(session)) {
+                    quit(session.driver);
+                    logger.debug("Evicted idle session for " + key);
+                }
+            }
+        });
+    }
+
+    /**
+     * Clears cookies and storage, closes extra windows and navigates to a blank page
+     *
+     * @param driver - session to reset
+     * @return true if the session responded to every reset command
+     */
+    private static boolean reset(WebDriver driver) {
+        try {
+            Set<String> handles = driver.getWindowHandles();
+            String first = handles.iterator().next();
+            for (String handle : handles) {
+                if (!handle.equals(first)) {
+                    driver.switchTo().window(handle).close();
+                }
+            }
+            driver.switchTo().window(first);
+            driver.manage().deleteAllCookies();
+            ((JavascriptExecutor) driver).executeScript(RESET_STORAGE_SCRIPT);
+            driver.navigate().to("about:blank");
+            return true;
+        } catch (WebDriverException | NoSuchElementException e) {
+            logger.debug("Pooled session failed reset: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static boolean isHealthy(WebDriver driver) {
+        try {
+            return !driver.getWindowHandles().isEmpty();
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+
+    private static void quit(WebDriver driver) {
+        try {
+            driver.quit();
+        } catch (WebDriverException e) {
+            logger.debug("Session already closed: " + e.getMessage());
+        } finally {
+            GridSlotAdmission.free(driver);
+        }
+    }
+
+    private static int getPrewarmCount() {
+        return EnvironmentPropertiesReader.getInstance().getInt("sessionPool.prewarm", 0);
+    }
+
+    private static long getIdleTimeoutMillis() {
+        return EnvironmentPropertiesReader.getInstance().getDuration("sessionPool.idleTimeout", Duration.ofSeconds(60), ChronoUnit.SECONDS).toMillis();
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Threads and shutdown hook of the pool, started when the class is first used
+     */
+    private static final class Background {
+        private static final ExecutorService prewarmExecutor = Executors.newCachedThreadPool(daemon("session-prewarm"));
+        private static final ScheduledExecutorService evictionExecutor = Executors.newSingleThreadScheduledExecutor(daemon("session-eviction"));
+
+        static {
+            long sweep = Math.max(1, getIdleTimeoutMillis() / 2);
+            evictionExecutor.scheduleWithFixedDelay(WebDriverSessionPool::evictExpired, sweep, sweep, TimeUnit.MILLISECONDS);
+            Runtime.getRuntime().addShutdownHook(new Thread(WebDriverSessionPool::closeAll, "session-pool-shutdown"));
+        }
+
+        private static void start() {
+            // loading the class is what starts the pool
+        }
+    }
+
+    private static class PooledSession {
+        private final WebDriver driver;
+        private final long idleSince = System.nanoTime();
+
+        private PooledSession(WebDriver driver) {
+            this.driver = driver;
+        }
+
+        private boolean isExpired(long idleTimeoutMillis) {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - idleSince) > idleTimeoutMillis;
+        }
+    }
+}
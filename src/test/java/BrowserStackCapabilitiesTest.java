@@ -0,0 +1,74 @@
+import com.augmentedframework.ui.config.grid.BrowserStackCapabilitiesConfiguration;
+import com.augmentedframework.utils.EnvironmentPropertiesReader;
+import com.augmentedframework.utils.WebDriverFactory;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.ImmutableCapabilities;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class BrowserStackCapabilitiesTest {
+
+    @Test
+    public void overridesKnownCapabilitiesAndSkipsUnknownOnes() {
+        BrowserStackCapabilitiesConfiguration config = new BrowserStackCapabilitiesConfiguration();
+        Map<String, String> overrides = new LinkedHashMap<>();
+        overrides.put("browser", "Chrome");
+        overrides.put("maskCommands", "setValues, getValues,,");
+        overrides.put("noSuchCapability", "ignored");
+        overrides.put("idleTimeout", "300");
+        config.override(overrides);
+
+        Assert.assertEquals(config.getBrowser(), "Chrome");
+        Assert.assertEquals(config.getMaskCommands(), new String[] {"setValues", "getValues"});
+        Assert.assertEquals(config.getIdleTimeout(), "300");
+
+        DesiredCapabilities caps = config.getDesiredCapabilities();
+        Assert.assertEquals(caps.getCapability("browser"), "Chrome");
+        // list capabilities are sent as a comma separated string
+        Assert.assertEquals(caps.getCapability("maskCommands"), "setValues,getValues");
+        Assert.assertNull(caps.getCapability("noSuchCapability"));
+        // excluded fields are only sent under their browserstack. name
+        Assert.assertNull(caps.getCapability("idleTimeout"));
+        Assert.assertEquals(caps.getCapability("browserstack.idleTimeout"), "300");
+        Assert.assertNull(caps.getCapability("os"), "unset capabilities are not sent");
+    }
+
+    @Test
+    public void resolvesCapabilitiesOncePerSettingAndDevice() {
+        EnvironmentPropertiesReader config = EnvironmentPropertiesReader.getInstance();
+        System.setProperty("os_v_browser_v", "Windows_11_Chrome_120");
+        config.reload();
+        try {
+            Capabilities chrome = WebDriverFactory.getResolvedCapabilities();
+            Assert.assertTrue(chrome instanceof ImmutableCapabilities);
+            Assert.assertEquals(chrome.getCapability("browser_version"), "120");
+            Assert.assertSame(WebDriverFactory.getResolvedCapabilities(), chrome);
+
+            System.setProperty("os_v_browser_v", "Windows_11_Firefox_121");
+            config.reload();
+            Capabilities firefox = WebDriverFactory.getResolvedCapabilities();
+            Assert.assertNotSame(firefox, chrome);
+            Assert.assertEquals(firefox.getCapability("browser"), "Firefox");
+
+            System.setProperty("os_v_browser_v", "Windows_11_Chrome_120");
+            System.setProperty("emulation.device", "Pixel 7");
+            config.reload();
+            Capabilities pixel = WebDriverFactory.getResolvedCapabilities();
+            Assert.assertNotSame(pixel, chrome);
+            Assert.assertTrue(String.valueOf(pixel.getCapability(ChromeOptions.CAPABILITY)).contains("mobileEmulation"));
+
+            System.clearProperty("emulation.device");
+            config.reload();
+            Assert.assertSame(WebDriverFactory.getResolvedCapabilities(), chrome);
+        } finally {
+            System.clearProperty("os_v_browser_v");
+            System.clearProperty("emulation.device");
+            config.reload();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+import com.augmentedframework.utils.BrowserStackSessionResolver;
+import com.augmentedframework.utils.ExtentReporter;
+import com.sun.net.httpserver.HttpServer;
+import org.testng.Assert;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BrowserStackSessionResolverTest {
+    private HttpServer server;
+    private final AtomicInteger hits = new AtomicInteger();
+
+    @BeforeClass
+    public void startStub() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/sessions/", exchange -> {
+            if (hits.incrementAndGet() == 1 && exchange.getRequestURI().getPath().contains("flaky")) {
+                exchange.sendResponseHeaders(503, -1);
+                exchange.close();
+                return;
+            }
+            if (exchange.getRequestURI().getPath().contains("slow")) {
+                try {
+                    Thread.sleep(300);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            String id = exchange.getRequestURI().getPath().replaceAll(".*/(.+)\\.json", "$1");
+            byte[] body = ("{\"automation_session\":{\"public_url\":\"https://stub/builds/" + id + "\"}}").getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopStub() {
+        server.stop(0);
+    }
+
+    @Test
+    public void resolvesAndCachesBySessionId() {
+        BrowserStackSessionResolver resolver = new BrowserStackSessionResolver(this::sessionUrl, 100);
+        hits.set(0);
+        Assert.assertEquals(resolver.resolve("abc").join(), "https://stub/builds/abc");
+        Assert.assertEquals(resolver.resolve("abc").join(), "https://stub/builds/abc");
+        Assert.assertEquals(hits.get(), 1);
+    }
+
+    @Test
+    public void retriesFailedLookups() {
+        BrowserStackSessionResolver resolver = new BrowserStackSessionResolver(this::sessionUrl, 100);
+        hits.set(0);
+        Assert.expectThrows(CompletionException.class, () -> resolver.resolve("flaky").join());
+        Assert.assertEquals(resolver.resolve("flaky").join(), "https://stub/builds/flaky");
+        Assert.assertEquals(hits.get(), 2);
+    }
+
+    @Test
+    public void throttlesCallsToTheEndpoint() {
+        BrowserStackSessionResolver resolver = new BrowserStackSessionResolver(this::sessionUrl, 5);
+        long start = System.nanoTime();
+        CompletableFuture.allOf(resolver.resolve("s1"), resolver.resolve("s2"), resolver.resolve("s3")).join();
+        Assert.assertTrue((System.nanoTime() - start) / 1_000_000 >= 350, "Lookups were not throttled");
+    }
+
+    @Test
+    public void reportsUrlsArrivingAfterTheTestEnded() throws Exception {
+        BrowserStackSessionResolver resolver = new BrowserStackSessionResolver(this::sessionUrl, 100);
+        ITestResult iTestResult = Reporter.getCurrentTestResult();
+        ExtentReporter.info("started");
+        resolver.attach("slow", "reportsUrlsArrivingAfterTheTestEnded", iTestResult);
+        ExtentReporter.endTest(iTestResult);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (Reporter.getOutput(iTestResult).stream().noneMatch(line -> line.contains("https://stub/builds/slow"))) {
+            Assert.assertTrue(System.nanoTime() < deadline, "late URL was dropped: " + Reporter.getOutput(iTestResult));
+            Thread.sleep(20);
+        }
+    }
+
+    private String sessionUrl(String sessionId) {
+        return "http://localhost:" + server.getAddress().getPort() + "/sessions/" + sessionId + ".json";
+    }
+}
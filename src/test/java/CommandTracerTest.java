@@ -0,0 +1,63 @@
+import com.augmentedframework.utils.CommandTracer;
+import org.openqa.selenium.ImmutableCapabilities;
+import org.openqa.selenium.remote.CommandExecutor;
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.Response;
+import org.openqa.selenium.remote.SessionId;
+import org.testng.Assert;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+
+public class CommandTracerTest {
+
+    private static CommandExecutor fakeGrid() {
+        return command -> {
+            Response response = new Response(new SessionId("fake-session"));
+            response.setState("success");
+            switch (command.getName()) {
+                case DriverCommand.NEW_SESSION:
+                    response.setValue(Map.of("browserName", "chrome"));
+                    break;
+                case DriverCommand.GET_TITLE:
+                    response.setValue("Fake page");
+                    break;
+                case DriverCommand.GET_CURRENT_URL:
+                    response.setValue("https://example.com/");
+                    break;
+                default:
+                    response.setValue(null);
+                    break;
+            }
+            return response;
+        };
+    }
+
+    @Test
+    public void tracesCommandsAndFlagsLoops() {
+        RemoteWebDriver driver = new RemoteWebDriver(CommandTracer.wrap(fakeGrid()), new ImmutableCapabilities("browserName", "chrome"));
+        for (int i = 0; i < 12; i++) {
+            driver.executeScript("return 1");
+            Assert.assertEquals(driver.getTitle(), "Fake page");
+        }
+        for (int i = 0; i < 3; i++) {
+            driver.getCurrentUrl();
+        }
+
+        ITestResult iTestResult = Reporter.getCurrentTestResult();
+        CommandTracer.Trace trace = CommandTracer.report(iTestResult);
+        Assert.assertNotNull(trace);
+        Assert.assertEquals(trace.getRoundTrips(), 1 + 24 + 3);
+        Assert.assertEquals((long) trace.getCommandCounts().get(DriverCommand.EXECUTE_SCRIPT), 12);
+        Assert.assertEquals((long) trace.getCommandCounts().get(DriverCommand.GET_CURRENT_URL), 3);
+
+        List<String> patterns = trace.getChattyPatterns();
+        Assert.assertEquals(patterns.size(), 1, patterns.toString());
+        Assert.assertTrue(patterns.get(0).startsWith("executeScript > getTitle repeated 12 times"), patterns.get(0));
+        Assert.assertNull(CommandTracer.getTrace(iTestResult), "trace was not detached after the report");
+    }
+}
@@ -0,0 +1,145 @@
+import com.augmentedframework.utils.DataUtils;
+import com.augmentedframework.utils.EnvironmentPropertiesReader;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+public class DataUtilsTest {
+    private static final int ROWS = 5000;
+    private Path workbook;
+
+    @BeforeClass
+    public void writeWorkbook() throws Exception {
+        workbook = Files.createTempFile("testdata", ".xlsx");
+        try (SXSSFWorkbook wb = new SXSSFWorkbook(); OutputStream out = Files.newOutputStream(workbook)) {
+            Sheet sheet = wb.createSheet("Login");
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("TestDataId");
+            header.createCell(1).setCellValue("User");
+            header.createCell(2).setCellValue("Attempts");
+            for (int i = 1; i <= ROWS; i++) {
+                Row row = sheet.createRow(i);
+                row.createCell(0).setCellValue("TD" + i);
+                row.createCell(1).setCellValue("user" + i);
+                if (i % 2 == 0) {
+                    row.createCell(2).setCellValue(i);
+                }
+            }
+            wb.write(out);
+        }
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void deleteWorkbook() throws Exception {
+        Files.deleteIfExists(workbook);
+    }
+
+    /**
+     * Every reading case runs against the streaming reader and the compiled cache
+     */
+    @DataProvider
+    public Object[][] cacheModes() {
+        return new Object[][] {{false}, {true}};
+    }
+
+    private static void withCache(boolean cache, Runnable check) {
+        EnvironmentPropertiesReader config = EnvironmentPropertiesReader.getInstance();
+        System.setProperty("testdata.cache", String.valueOf(cache));
+        config.reload();
+        try {
+            check.run();
+        } finally {
+            System.clearProperty("testdata.cache");
+            config.reload();
+        }
+    }
+
+    @Test(dataProvider = "cacheModes")
+    public void indexesHeadersAndCountsRows(boolean cache) {
+        withCache(cache, () -> {
+            Assert.assertEquals(DataUtils.getHeaders(workbook.toString(), "Login"), Arrays.asList("TestDataId", "User", "Attempts"));
+            Assert.assertEquals(DataUtils.getColumnCount(workbook.toString(), "Login"), 3);
+            Assert.assertEquals(DataUtils.getRowCount(workbook.toString(), null), ROWS);
+        });
+    }
+
+    @Test(dataProvider = "cacheModes")
+    public void looksUpRowsByTestDataId(boolean cache) {
+        withCache(cache, () -> {
+            Map<String, String> row = DataUtils.getTestData(workbook.toString(), "Login", "TD42");
+            Assert.assertEquals(row.get("User"), "user42");
+            Assert.assertEquals(row.get("Attempts"), "42");
+            Assert.assertEquals(DataUtils.getTestDataValue(workbook.toString(), "Login", "TD" + ROWS, "User"), "user" + ROWS);
+            Assert.assertEquals(DataUtils.getTestDataValue(workbook.toString(), "Login", "TD41", "Attempts"), "");
+            Assert.assertTrue(DataUtils.getTestData(workbook.toString(), "Login", "missing").isEmpty());
+        });
+    }
+
+    @Test(dataProvider = "cacheModes")
+    @SuppressWarnings("unchecked")
+    public void providerStreamsEveryRowInOrder(boolean cache) {
+        withCache(cache, () -> {
+            Iterator<Object[]> rows = DataUtils.dataProvider(workbook.toString(), "Login");
+            int count = 0;
+            while (rows.hasNext()) {
+                Map<String, String> row = (Map<String, String>) rows.next()[0];
+                count++;
+                Assert.assertEquals(row.get("TestDataId"), "TD" + count);
+            }
+            Assert.assertEquals(count, ROWS);
+        });
+    }
+
+    @Test
+    public void providerStopsItsReaderWhenClosedOrAbandoned() throws Exception {
+        EnvironmentPropertiesReader config = EnvironmentPropertiesReader.getInstance();
+        System.setProperty("testdata.cache", "false");
+        System.setProperty("testdata.prefetchRows", "4");
+        config.reload();
+        try {
+            Iterator<Object[]> closed = DataUtils.dataProvider(workbook.toString(), "Login");
+            closed.next();
+            ((AutoCloseable) closed).close();
+            Assert.assertFalse(closed.hasNext());
+
+            // never read to the end and never closed: the reader stops once the iterator is collected
+            DataUtils.dataProvider(workbook.toString(), "Login").next();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (runningReaders() > 0 && System.nanoTime() < deadline) {
+                System.gc();
+                Thread.sleep(50);
+            }
+            Assert.assertEquals(runningReaders(), 0, "test data reader threads still running");
+        } finally {
+            System.clearProperty("testdata.cache");
+            System.clearProperty("testdata.prefetchRows");
+            config.reload();
+        }
+    }
+
+    private static long runningReaders() {
+        return Thread.getAllStackTraces().keySet().stream().filter(thread -> thread.getName().equals("testdata-reader")).count();
+    }
+
+    @Test
+    public void compilesOncePerWorkbookContent() throws Exception {
+        Path compiled = DataUtils.compile(workbook.toString(), "Login");
+        Assert.assertTrue(Files.size(compiled) > 0);
+        long modified = Files.getLastModifiedTime(compiled).toMillis();
+        Assert.assertEquals(DataUtils.compile(workbook.toString(), "Login"), compiled);
+        Assert.assertEquals(Files.getLastModifiedTime(compiled).toMillis(), modified);
+    }
+}
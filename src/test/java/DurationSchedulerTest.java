@@ -0,0 +1,87 @@
+import com.augmentedframework.utils.DurationScheduler;
+import com.augmentedframework.utils.EnvironmentPropertiesReader;
+import org.json.JSONObject;
+import org.testng.Assert;
+import org.testng.TestNG;
+import org.testng.annotations.Test;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class DurationSchedulerTest {
+    private static final List<String> started = new CopyOnWriteArrayList<>();
+
+    public static class Scheduled {
+        @Test
+        public void fast() {
+            started.add("fast");
+        }
+
+        @Test
+        public void medium() {
+            started.add("medium");
+        }
+
+        @Test
+        public void slow() {
+            started.add("slow");
+        }
+
+        @Test
+        public void unknown() {
+            started.add("unknown");
+        }
+    }
+
+    @Test
+    public void runsLongestFirstAndRecordsDurations() throws Exception {
+        Path history = Paths.get("target", "scheduler-test", "durations.json");
+        Files.createDirectories(history.getParent());
+        String prefix = Scheduled.class.getName() + ".";
+        Files.writeString(history, new JSONObject().put("tests", new JSONObject()
+                .put(prefix + "fast", new JSONObject().put("millis", 10).put("runs", 1))
+                .put(prefix + "medium", new JSONObject().put("millis", 100).put("runs", 1))
+                .put(prefix + "slow", new JSONObject().put("millis", 400).put("runs", 1))
+                .put("SomeOtherTest.other", new JSONObject().put("millis", 150).put("runs", 1))).toString());
+
+        EnvironmentPropertiesReader config = EnvironmentPropertiesReader.getInstance();
+        System.setProperty("scheduler.enabled", "true");
+        System.setProperty("scheduler.historyFile", history.toString());
+        System.setProperty("scheduler.threads", "1");
+        config.reload();
+        try {
+            XmlSuite suite = new XmlSuite();
+            suite.setName("scheduled");
+            XmlTest test = new XmlTest(suite);
+            test.setName("scheduled");
+            test.setXmlClasses(Collections.singletonList(new XmlClass(Scheduled.class)));
+            TestNG testng = new TestNG();
+            testng.setUseDefaultListeners(false);
+            testng.setOutputDirectory(Paths.get("target", "scheduler-test", "test-output").toString());
+            testng.setXmlSuites(Collections.singletonList(suite));
+            testng.addListener(new DurationScheduler());
+            started.clear();
+            testng.run();
+        } finally {
+            System.clearProperty("scheduler.enabled");
+            System.clearProperty("scheduler.historyFile");
+            System.clearProperty("scheduler.threads");
+            config.reload();
+        }
+
+        // the test without history is estimated at the median, 150 ms
+        Assert.assertEquals(started, List.of("slow", "unknown", "medium", "fast"));
+        JSONObject tests = new JSONObject(Files.readString(history)).getJSONObject("tests");
+        Assert.assertEquals(tests.getJSONObject(prefix + "slow").getInt("runs"), 2);
+        Assert.assertEquals(tests.getJSONObject(prefix + "unknown").getInt("runs"), 1);
+        Assert.assertTrue(tests.getJSONObject(prefix + "slow").getDouble("millis") < 400);
+        Assert.assertEquals(tests.getJSONObject("SomeOtherTest.other").getInt("runs"), 1);
+    }
+}
@@ -0,0 +1,83 @@
+import com.augmentedframework.utils.EnvironmentPropertiesReader;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+
+public class EnvironmentPropertiesReaderTest {
+
+    @Test
+    public void laterLayersOverrideEarlierOnes() {
+        EnvironmentPropertiesReader config = EnvironmentPropertiesReader.getInstance();
+        Assert.assertEquals(config.getInt("grid.parallelSessions", 0), 5, "config.properties default");
+        // environment variables only override declared keys
+        Assert.assertNull(config.getProperty("PATH"), "undeclared environment variable");
+        Assert.assertFalse(config.getSnapshot().asMap().containsKey("PATH"));
+        try {
+            System.setProperty("env", "layering");
+            config.reload();
+            Assert.assertEquals(config.getInt("grid.parallelSessions", 0), 3, "env file overrides the defaults");
+            Assert.assertEquals(config.getProperty("layering.only"), "from env file");
+
+            System.setProperty("grid.parallelSessions", "7");
+            System.setProperty("PATH", "/from/system/property");
+            config.reload();
+            Assert.assertEquals(config.getInt("grid.parallelSessions", 0), 7, "system property overrides the env file");
+            Assert.assertEquals(config.getProperty("PATH"), "/from/system/property", "system property sets an undeclared key");
+        } finally {
+            System.clearProperty("env");
+            System.clearProperty("grid.parallelSessions");
+            System.clearProperty("PATH");
+            config.reload();
+        }
+        Assert.assertNull(config.getProperty("layering.only"));
+        Assert.assertEquals(config.getInt("grid.parallelSessions", 0), 5);
+    }
+
+    @Test
+    public void parsesTypedValuesAndFallsBackToTheDefault() {
+        EnvironmentPropertiesReader config = EnvironmentPropertiesReader.getInstance();
+        EnvironmentPropertiesReader.Snapshot before = config.getSnapshot();
+        try {
+            System.setProperty("typed.int", " 42 ");
+            System.setProperty("typed.long", "9000000000");
+            System.setProperty("typed.double", "0.25");
+            System.setProperty("typed.boolean", "TRUE");
+            System.setProperty("typed.invalid", "many");
+            System.setProperty("typed.blank", " ");
+            System.setProperty("typed.iso", "PT30S");
+            System.setProperty("typed.millis", "250ms");
+            System.setProperty("typed.minutes", "2m");
+            System.setProperty("typed.hours", "1h");
+            System.setProperty("typed.bare", "15");
+            config.reload();
+
+            Assert.assertEquals(config.getInt("typed.int", 0), 42);
+            Assert.assertEquals(config.getLong("typed.long", 0), 9_000_000_000L);
+            Assert.assertEquals(config.getDouble("typed.double", 0), 0.25);
+            Assert.assertTrue(config.getBoolean("typed.boolean", false));
+            Assert.assertEquals(config.getInt("typed.invalid", 11), 11);
+            Assert.assertEquals(config.getInt("typed.blank", 12), 12);
+            Assert.assertTrue(config.getBoolean("typed.missing", true));
+            Assert.assertFalse(config.hasProperty("typed.blank"));
+
+            Assert.assertEquals(config.getDuration("typed.iso", null, ChronoUnit.SECONDS), Duration.ofSeconds(30));
+            Assert.assertEquals(config.getDuration("typed.millis", null, ChronoUnit.SECONDS), Duration.ofMillis(250));
+            Assert.assertEquals(config.getDuration("typed.minutes", null, ChronoUnit.SECONDS), Duration.ofMinutes(2));
+            Assert.assertEquals(config.getDuration("typed.hours", null, ChronoUnit.SECONDS), Duration.ofHours(1));
+            // a bare number is read in the unit the caller asks for
+            Assert.assertEquals(config.getDuration("typed.bare", null, ChronoUnit.SECONDS), Duration.ofSeconds(15));
+            Assert.assertEquals(config.getDuration("typed.bare", null, ChronoUnit.MILLIS), Duration.ofMillis(15));
+            Assert.assertEquals(config.getDuration("typed.invalid", Duration.ofSeconds(3), ChronoUnit.SECONDS), Duration.ofSeconds(3));
+
+            // snapshots are immutable: the one taken before the reload never sees the new values
+            Assert.assertEquals(before.getInt("typed.int", -1), -1);
+        } finally {
+            for (String key : new String[] {"int", "long", "double", "boolean", "invalid", "blank", "iso", "millis", "minutes", "hours", "bare"}) {
+                System.clearProperty("typed." + key);
+            }
+            config.reload();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+import com.augmentedframework.utils.EnvironmentPropertiesReader;
+import com.augmentedframework.utils.ExtentReporter;
+import com.augmentedframework.utils.LogFlushListener;
+import com.augmentedframework.utils.TestContextListener;
+import org.testng.Assert;
+import org.testng.TestNG;
+import org.testng.annotations.Test;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ExtentReporterTest {
+    private static final int TESTS = 200;
+    private static final AtomicInteger maxRunning = new AtomicInteger();
+    // the reported tests only run inside the nested run, not when the suite picks up Reported itself
+    private static volatile boolean nested;
+
+    public static class Reported {
+        @Test(invocationCount = TESTS, threadPoolSize = 16)
+        public void reports() {
+            if (!nested) {
+                return;
+            }
+            ExtentReporter.info("started on " + Thread.currentThread().getName());
+            maxRunning.accumulateAndGet(ExtentReporter.getRunningTestCount(), Math::max);
+            ExtentReporter.pass("reported");
+        }
+    }
+
+    @Test
+    public void registersConcurrentTestsAndReleasesFinishedParts() throws Exception {
+        Path directory = Paths.get("target", "extent-test", "test-output");
+        for (String part : List.of("ExtentReport.html", "ExtentReport-part2.html", "ExtentReport-part3.html", "ExtentReport-part4.html")) {
+            Files.deleteIfExists(directory.resolve(part));
+        }
+        int running = ExtentReporter.getRunningTestCount();
+        int openParts = ExtentReporter.getOpenPartCount();
+
+        EnvironmentPropertiesReader config = EnvironmentPropertiesReader.getInstance();
+        System.setProperty("report.maxTestsPerFile", "50");
+        config.reload();
+        try {
+            XmlSuite suite = new XmlSuite();
+            suite.setName("reported");
+            XmlTest test = new XmlTest(suite);
+            test.setName("reported");
+            test.setXmlClasses(List.of(new XmlClass(Reported.class)));
+            TestNG testng = new TestNG();
+            testng.setUseDefaultListeners(false);
+            testng.setOutputDirectory(directory.toString());
+            testng.setXmlSuites(List.of(suite));
+            // the nested run executes on this test's thread, so it binds its own test contexts
+            testng.addListener(new TestContextListener());
+            testng.addListener(new LogFlushListener());
+            nested = true;
+            testng.run();
+            Assert.assertEquals(testng.getStatus(), 0);
+        } finally {
+            nested = false;
+            System.clearProperty("report.maxTestsPerFile");
+            config.reload();
+        }
+
+        Assert.assertTrue(maxRunning.get() > running + 1, "tests did not run concurrently: " + maxRunning.get());
+        // every nested test was removed from the registry when it ended
+        Assert.assertEquals(ExtentReporter.getRunningTestCount(), running);
+        // the three full parts were written and released; only the last one stays open for more tests,
+        // and switching to the nested run's directory may have released the suite's own part as well
+        for (String part : List.of("ExtentReport.html", "ExtentReport-part2.html", "ExtentReport-part3.html")) {
+            Assert.assertTrue(Files.size(directory.resolve(part)) > 0, part + " was not written");
+            Assert.assertTrue(Files.readString(directory.resolve(part)).contains("reports"), part + " holds no test");
+        }
+        Assert.assertTrue(ExtentReporter.getOpenPartCount() <= openParts + 1, "open parts: " + ExtentReporter.getOpenPartCount());
+        ExtentReporter.flush();
+        Assert.assertTrue(Files.readString(directory.resolve("ExtentReport-part4.html")).contains("reports"));
+    }
+}
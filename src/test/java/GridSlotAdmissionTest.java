@@ -0,0 +1,73 @@
+import com.augmentedframework.utils.EnvironmentPropertiesReader;
+import com.augmentedframework.utils.GridSlotAdmission;
+import org.openqa.selenium.ImmutableCapabilities;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.remote.CommandExecutor;
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.Response;
+import org.openqa.selenium.remote.SessionId;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class GridSlotAdmissionTest {
+
+    private static RemoteWebDriver admittedSession(boolean failQuit) {
+        GridSlotAdmission.admit();
+        CommandExecutor grid = command -> {
+            if (failQuit && command.getName().equals(DriverCommand.QUIT)) {
+                throw new IOException("grid went away");
+            }
+            Response response = new Response(new SessionId("fake-session"));
+            response.setState("success");
+            response.setValue(command.getName().equals(DriverCommand.NEW_SESSION) ? Map.of("browserName", "chrome") : null);
+            return response;
+        };
+        return new RemoteWebDriver(GridSlotAdmission.hold(grid), new ImmutableCapabilities("browserName", "chrome"));
+    }
+
+    @Test
+    public void admitsUpToTheSlotsAndReturnsThemOnQuit() {
+        int slots = GridSlotAdmission.getAvailableSlots();
+        Assert.assertTrue(slots > 0, "slots leaked by an earlier session");
+        EnvironmentPropertiesReader config = EnvironmentPropertiesReader.getInstance();
+        System.setProperty("grid.queueTimeout", "1");
+        config.reload();
+        List<RemoteWebDriver> sessions = new ArrayList<>();
+        try {
+            for (int i = 0; i < slots; i++) {
+                sessions.add(admittedSession(i == 0));
+            }
+            Assert.assertEquals(GridSlotAdmission.getAvailableSlots(), 0);
+
+            long start = System.nanoTime();
+            Assert.expectThrows(SessionNotCreatedException.class, GridSlotAdmission::admit);
+            Assert.assertTrue(System.nanoTime() - start >= 900_000_000L, "gave up before grid.queueTimeout");
+
+            // a failing quit still returns the slot, and releasing twice returns it once
+            Assert.expectThrows(RuntimeException.class, () -> sessions.get(0).quit());
+            GridSlotAdmission.free(sessions.get(0));
+            Assert.assertEquals(GridSlotAdmission.getAvailableSlots(), 1);
+            sessions.add(admittedSession(false));
+        } finally {
+            sessions.subList(1, sessions.size()).forEach(RemoteWebDriver::quit);
+            System.clearProperty("grid.queueTimeout");
+            config.reload();
+        }
+        Assert.assertEquals(GridSlotAdmission.getAvailableSlots(), slots);
+    }
+
+    @Test
+    public void cancelReturnsASlotNeverHeldBySession() {
+        int slots = GridSlotAdmission.getAvailableSlots();
+        GridSlotAdmission.admit();
+        Assert.assertEquals(GridSlotAdmission.getAvailableSlots(), slots - 1);
+        GridSlotAdmission.cancel();
+        Assert.assertEquals(GridSlotAdmission.getAvailableSlots(), slots);
+    }
+}
@@ -0,0 +1,111 @@
+import com.augmentedframework.utils.Instrumentation;
+import com.augmentedframework.utils.Log;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+public class InstrumentationTest {
+
+    @Test
+    public void nestsSpansUnderTheTest() throws Exception {
+        Instrumentation.Span test = Instrumentation.current();
+        Assert.assertNotNull(test, "listener did not open a test span");
+        Assert.assertEquals(test.getKind(), Instrumentation.Kind.TEST);
+        Assert.assertEquals(test.getName(), "InstrumentationTest.nestsSpansUnderTheTest");
+
+        try (Instrumentation.Span step = Instrumentation.start(Instrumentation.Kind.STEP, "instrumented step")) {
+            try (Instrumentation.Span wait = Instrumentation.start(Instrumentation.Kind.WAIT, "instrumented wait")) {
+                Assert.assertSame(wait.getParent(), step);
+                Assert.assertEquals(wait.getPath(), "InstrumentationTest.nestsSpansUnderTheTest > instrumented step > instrumented wait");
+                Thread.sleep(20);
+            }
+            Assert.assertSame(Instrumentation.current(), step);
+        }
+        Assert.assertSame(Instrumentation.current(), test);
+
+        JSONObject wait = span(Instrumentation.toJson(), "wait", "instrumented wait");
+        Assert.assertEquals(wait.getLong("count"), 1);
+        Assert.assertTrue(wait.getDouble("totalMillis") >= 20, "wait recorded " + wait.getDouble("totalMillis"));
+        Assert.assertTrue(wait.getDouble("p99Millis") >= 19, "wait p99 " + wait.getDouble("p99Millis"));
+    }
+
+    @Test
+    public void accumulatesCountersAcrossThreads() throws Exception {
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            workers.add(Thread.ofPlatform().start(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    Instrumentation.count("instrumented.counter");
+                    Instrumentation.start(Instrumentation.Kind.COMMAND, "instrumented command").close();
+                }
+            }));
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        Instrumentation.count("instrumented.counter", 5);
+
+        JSONObject metrics = Instrumentation.toJson();
+        Assert.assertEquals(metrics.getJSONObject("counters").getLong("instrumented.counter"), 4005);
+        Assert.assertEquals(span(metrics, "command", "instrumented command").getLong("count"), 4000);
+
+        Path json = Instrumentation.export(Paths.get("target", "instrumentation-test"));
+        Assert.assertTrue(Files.exists(json));
+        String prometheus = Files.readString(json.resolveSibling("instrumentation.prom"));
+        Assert.assertTrue(prometheus.contains("ataf_span_duration_seconds_count{kind=\"command\",name=\"instrumented command\"} 4000"), prometheus);
+        Assert.assertTrue(prometheus.contains("ataf_events_total{name=\"instrumented.counter\"} 4005"), prometheus);
+    }
+
+    @Test(dependsOnMethods = "nestsSpansUnderTheTest")
+    public void breaksDownFinishedTestsByKind() throws Exception {
+        JSONArray tests = Instrumentation.toJson().getJSONArray("tests");
+        for (int i = 0; i < tests.length(); i++) {
+            JSONObject test = tests.getJSONObject(i);
+            if (test.getString("name").equals("InstrumentationTest.nestsSpansUnderTheTest")) {
+                Assert.assertTrue(test.getDouble("stepMillis") >= 20);
+                // the wait runs inside the step, and is counted under both kinds
+                Assert.assertTrue(test.getDouble("waitMillis") >= 20);
+                Assert.assertTrue(test.getDouble("durationMillis") >= test.getDouble("stepMillis"));
+                return;
+            }
+        }
+        Assert.fail("no breakdown for the finished test in " + tests);
+    }
+
+    @Test
+    public void timesEveryLoggedMessageAsAStep() throws Exception {
+        Instrumentation.Span test = Instrumentation.current();
+
+        Log.message("open the login page");
+        Instrumentation.Span first = Instrumentation.current();
+        Assert.assertEquals(first.getKind(), Instrumentation.Kind.STEP);
+        Assert.assertSame(first.getParent(), test);
+        Thread.sleep(20);
+
+        Log.message("sign in");
+        Instrumentation.Span second = Instrumentation.current();
+        Assert.assertTrue(first.isClosed(), "previous step still running");
+        Assert.assertTrue(first.elapsedMillis() >= 20, first.toString());
+        Assert.assertEquals(second.getPath(), "InstrumentationTest.timesEveryLoggedMessageAsAStep > sign in");
+        // steps are named after free text, and share one histogram
+        Assert.assertTrue(span(Instrumentation.toJson(), "step", "step").getLong("count") >= 1);
+    }
+
+    private static JSONObject span(JSONObject metrics, String kind, String name) throws Exception {
+        JSONArray spans = metrics.getJSONArray("spans");
+        for (int i = 0; i < spans.length(); i++) {
+            JSONObject span = spans.getJSONObject(i);
+            if (span.getString("kind").equals(kind) && span.getString("name").equals(name)) {
+                return span;
+            }
+        }
+        throw new AssertionError("no " + kind + " span named " + name);
+    }
+}
@@ -0,0 +1,54 @@
+import com.augmentedframework.utils.JsonUtil;
+import com.augmentedframework.utils.JsonUtil.Options;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+public class JsonUtilTest {
+
+    @Test
+    public void strictReportsPointerPaths() {
+        JsonUtil.Result result = JsonUtil.compare(
+                "{\"id\":1,\"tags\":[\"a\",\"b\"],\"owner\":{\"name\":\"x/y\"}}",
+                "{\"id\":2,\"tags\":[\"b\",\"a\"],\"owner\":{\"name\":\"x/y\",\"extra\":true}}",
+                Options.strict());
+        Assert.assertEquals(result.getDifferences().stream().map(JsonUtil.Difference::getPath).collect(Collectors.toList()),
+                Arrays.asList("/id", "/tags/0", "/tags/1", "/owner/extra"), result.toString());
+    }
+
+    @Test
+    public void lenientMatchesArraysInAnyOrderAndAllowsExtraMembers() {
+        String expected = "{\"items\":[{\"id\":1,\"v\":\"a\"},{\"id\":2,\"v\":\"b\"},{\"id\":3,\"v\":\"c\"}]}";
+        String actual = "{\"extra\":0,\"items\":[{\"v\":\"c\",\"id\":3,\"x\":1},{\"id\":1,\"v\":\"a\"},{\"id\":2,\"v\":\"b\"}]}";
+        Assert.assertTrue(JsonUtil.isEqual(expected, actual, Options.lenient()));
+        Assert.assertFalse(JsonUtil.isEqual(expected, actual.replace("\"c\"", "\"d\""), Options.lenient()));
+    }
+
+    @Test
+    public void ignoresPathsAndAppliesNumericTolerance() {
+        String expected = "{\"ts\":100,\"rows\":[{\"id\":1,\"at\":\"t1\",\"amount\":10.00}]}";
+        String actual = "{\"ts\":999,\"rows\":[{\"id\":1,\"at\":\"t2\",\"amount\":10.004}]}";
+        Options options = Options.strict().withIgnoredPaths("/ts", "/rows/*/at");
+        Assert.assertFalse(JsonUtil.isEqual(expected, actual, options));
+        Assert.assertTrue(JsonUtil.isEqual(expected, actual, options.withNumericTolerance(0.01)));
+        Assert.assertTrue(JsonUtil.isEqual("[1.0, 2]", "[1, 2.00]", Options.strict()));
+    }
+
+    @Test
+    public void streamsLargeOrderedArraysAndFallsBackOnMemberOrder() {
+        StringBuilder expected = new StringBuilder("{\"a\":1,\"b\":2,\"list\":[");
+        StringBuilder actual = new StringBuilder("{\"b\":2,\"a\":1,\"list\":[");
+        for (int i = 0; i < 10000; i++) {
+            expected.append(i == 0 ? "" : ",").append("{\"n\":").append(i).append('}');
+            actual.append(i == 0 ? "" : ",").append("{\"n\":").append(i == 9000 ? -1 : i).append('}');
+        }
+        expected.append("]}");
+        actual.append("]}");
+        JsonUtil.Result result = JsonUtil.compare(new StringReader(expected.toString()), new StringReader(actual.toString()), Options.strict());
+        Assert.assertEquals(result.getDifferences().size(), 1, result.toString());
+        Assert.assertEquals(result.getDifferences().get(0).getPath(), "/list/9000/n");
+    }
+}
@@ -0,0 +1,37 @@
+import com.augmentedframework.utils.LoadTimeHistory;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+
+public class LoadTimeHistoryTest {
+
+    @Test
+    public void reducesUrlsToOnePatternPerPage() {
+        Assert.assertEquals(LoadTimeHistory.pattern("https://shop.test/Orders/123?tab=items#summary"), "https://shop.test/orders/*");
+        Assert.assertEquals(LoadTimeHistory.pattern("https://shop.test/orders/456/lines"), "https://shop.test/orders/*/lines");
+        Assert.assertEquals(LoadTimeHistory.pattern("https://shop.test/users/3f2a9c1e-77b0-4d1a-9e4f-0c8d2b6a1f55"), "https://shop.test/users/*");
+        Assert.assertEquals(LoadTimeHistory.pattern("https://shop.test/v2/cart#top"), "https://shop.test/v2/cart");
+        Assert.assertEquals(LoadTimeHistory.pattern(null), "");
+    }
+
+    @Test
+    public void learnsAWeightedAverageOfLoadTimes() {
+        String url = "https://history.test/reports/1";
+        Assert.assertNull(LoadTimeHistory.expected(url));
+
+        LoadTimeHistory.record(url, 1000);
+        Assert.assertEquals(LoadTimeHistory.expected(url), Duration.ofMillis(1000));
+        // other ids of the same page fold into the one estimate, 30 % towards each observation
+        LoadTimeHistory.record("https://history.test/reports/2?page=4", 2000);
+        Assert.assertEquals(LoadTimeHistory.expected(url), Duration.ofMillis(1300));
+        LoadTimeHistory.record("https://history.test/reports/3", 2000);
+        Assert.assertEquals(LoadTimeHistory.expected("https://history.test/reports/99"), Duration.ofMillis(1510));
+
+        // a single outlier moves the estimate only part of the way
+        LoadTimeHistory.record(url, 20_000);
+        long afterOutlier = LoadTimeHistory.expected(url).toMillis();
+        Assert.assertTrue(afterOutlier > 1510 && afterOutlier < 8000, afterOutlier + " ms");
+        Assert.assertNull(LoadTimeHistory.expected("https://history.test/settings"));
+    }
+}
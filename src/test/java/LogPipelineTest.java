@@ -0,0 +1,182 @@
+import com.augmentedframework.utils.EnvironmentPropertiesReader;
+import com.augmentedframework.utils.Log;
+import com.augmentedframework.utils.LogFlushListener;
+import com.augmentedframework.utils.TestContextListener;
+import org.testng.Assert;
+import org.testng.ITestClass;
+import org.testng.ITestListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+import org.testng.TestNG;
+import org.testng.annotations.Test;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class LogPipelineTest {
+    // more than the default log.bufferSize of 8192, so producers block on a full buffer
+    private static final int MESSAGES = 3000;
+    private static final int TESTS = 4;
+    // the logging test only runs inside the nested run, not when the suite picks up Logging itself
+    private static volatile boolean nested;
+
+    public static class Logging {
+        @Test(invocationCount = TESTS, threadPoolSize = TESTS)
+        public void logs() {
+            if (!nested) {
+                return;
+            }
+            for (int i = 0; i < MESSAGES; i++) {
+                Log.event("ordered " + i);
+            }
+        }
+    }
+
+    /**
+     * Test result whose report name can not be read, so writing its log to the Extent report fails
+     */
+    private static ITestResult brokenSink() {
+        Map<String, Object> attributes = new HashMap<>();
+        ITestNGMethod method = (ITestNGMethod) Proxy.newProxyInstance(LogPipelineTest.class.getClassLoader(), new Class<?>[] {ITestNGMethod.class},
+                (proxy, called, args) -> switch (called.getName()) {
+                    case "getMethodName" -> "brokenSink";
+                    case "isTest" -> true;
+                    case "getGroups" -> new String[0];
+                    default -> throw new UnsupportedOperationException(called.getName());
+                });
+        ITestClass testClass = (ITestClass) Proxy.newProxyInstance(LogPipelineTest.class.getClassLoader(), new Class<?>[] {ITestClass.class},
+                (proxy, called, args) -> {
+                    if (called.getName().equals("getRealClass")) {
+                        return LogPipelineTest.class;
+                    }
+                    throw new UnsupportedOperationException(called.getName());
+                });
+        return (ITestResult) Proxy.newProxyInstance(LogPipelineTest.class.getClassLoader(), new Class<?>[] {ITestResult.class},
+                (proxy, called, args) -> switch (called.getName()) {
+                    case "getAttribute" -> attributes.get((String) args[0]);
+                    case "setAttribute" -> attributes.put((String) args[0], args[1]);
+                    case "getParameters" -> new Object[0];
+                    case "getTestClass" -> testClass;
+                    case "getMethod" -> method;
+                    case "getStatus" -> ITestResult.STARTED;
+                    case "id" -> "brokenSink@" + System.identityHashCode(proxy);
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "brokenSink";
+                    case "getName", "getTestContext" -> throw new IllegalStateException("report sink failed");
+                    default -> throw new UnsupportedOperationException(called.getName());
+                });
+    }
+
+    /**
+     * Logs a message for the broken test result on a thread of its own
+     *
+     * @param flush - flush after logging
+     * @return failure thrown by Log.message or Log.flush
+     */
+    private static Throwable logBroken(boolean flush) {
+        return CompletableFuture.supplyAsync(() -> {
+            Reporter.setCurrentTestResult(brokenSink());
+            try {
+                Log.message("never reported");
+                if (flush) {
+                    Log.flush();
+                }
+                return null;
+            } catch (RuntimeException e) {
+                return e;
+            } finally {
+                Reporter.setCurrentTestResult(null);
+            }
+        }, command -> Thread.ofPlatform().start(command)).join();
+    }
+
+    @Test
+    public void keepsEveryTestsLogInOrder() {
+        List<ITestResult> results = new CopyOnWriteArrayList<>();
+        XmlSuite suite = new XmlSuite();
+        suite.setName("logging");
+        XmlTest test = new XmlTest(suite);
+        test.setName("logging");
+        test.setXmlClasses(List.of(new XmlClass(Logging.class)));
+        TestNG testng = new TestNG();
+        testng.setUseDefaultListeners(false);
+        testng.setOutputDirectory("target/log-pipeline-test/test-output");
+        testng.setXmlSuites(List.of(suite));
+        testng.addListener(new TestContextListener());
+        testng.addListener(new LogFlushListener());
+        testng.addListener(new ITestListener() {
+            @Override
+            public void onTestSuccess(ITestResult result) {
+                results.add(result);
+            }
+        });
+        nested = true;
+        try {
+            testng.run();
+        } finally {
+            nested = false;
+        }
+
+        Assert.assertEquals(results.size(), TESTS);
+        for (ITestResult result : results) {
+            List<String> ordered = new ArrayList<>();
+            for (String line : Reporter.getOutput(result)) {
+                if (line.contains("ordered ")) {
+                    ordered.add(line.replaceAll(".*ordered (\\d+).*", "$1"));
+                }
+            }
+            Assert.assertEquals(ordered.size(), MESSAGES, "log of " + result.getMethod().getMethodName());
+            for (int i = 0; i < MESSAGES; i++) {
+                Assert.assertEquals(ordered.get(i), String.valueOf(i), "log out of order");
+            }
+        }
+    }
+
+    @Test
+    public void rethrowsSinkFailuresAtTheFlush() {
+        Throwable failure = logBroken(true);
+        Assert.assertTrue(failure instanceof IllegalStateException, String.valueOf(failure));
+        Assert.assertEquals(failure.getMessage(), "report sink failed");
+    }
+
+    @Test
+    public void writesOnTheCallingThreadWhenNotAsync() {
+        EnvironmentPropertiesReader config = EnvironmentPropertiesReader.getInstance();
+        Log.event("buffered before the switch");
+        System.setProperty("log.async", "false");
+        config.reload();
+        try {
+            Log.event("written at once");
+            List<String> output = Reporter.getOutput(Reporter.getCurrentTestResult());
+            int buffered = indexOf(output, "buffered before the switch");
+            int direct = indexOf(output, "written at once");
+            Assert.assertTrue(buffered >= 0 && direct > buffered, output.toString());
+
+            // a failing sink throws from the call itself
+            Throwable failure = logBroken(false);
+            Assert.assertTrue(failure instanceof IllegalStateException, String.valueOf(failure));
+        } finally {
+            System.clearProperty("log.async");
+            config.reload();
+        }
+    }
+
+    private static int indexOf(List<String> output, String text) {
+        for (int i = 0; i < output.size(); i++) {
+            if (output.get(i).contains(text)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
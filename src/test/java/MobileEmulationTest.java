@@ -0,0 +1,103 @@
+import com.augmentedframework.utils.EnvironmentPropertiesReader;
+import com.augmentedframework.utils.MobileEmulationUserAgentConfiguration;
+import com.augmentedframework.utils.MobileEmulationUserAgentConfiguration.Device;
+import com.augmentedframework.utils.MultiDeviceSession;
+import com.augmentedframework.utils.WebDriverOptions;
+import org.openqa.selenium.ImmutableCapabilities;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.remote.CommandExecutor;
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.Response;
+import org.openqa.selenium.remote.SessionId;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class MobileEmulationTest {
+
+    @Test
+    public void buildsChromeOptionsOncePerDevice() {
+        Device pixel = MobileEmulationUserAgentConfiguration.getDevice("pixel-7");
+        Assert.assertEquals(pixel.getName(), "Pixel 7");
+        Assert.assertEquals(pixel.getWidth(), 412);
+        Assert.assertSame(WebDriverOptions.getChromeOptions(pixel), WebDriverOptions.getChromeOptions(MobileEmulationUserAgentConfiguration.getDevice("Pixel 7")));
+        Assert.assertSame(WebDriverOptions.setChromeOptions(), WebDriverOptions.getChromeOptions(null));
+        Assert.assertNotSame(WebDriverOptions.getChromeOptions(pixel), WebDriverOptions.setChromeOptions());
+
+        Map<?, ?> chrome = (Map<?, ?>) WebDriverOptions.getChromeOptions(pixel).asMap().get(ChromeOptions.CAPABILITY);
+        Map<?, ?> emulation = (Map<?, ?>) chrome.get("mobileEmulation");
+        Assert.assertEquals(((Map<?, ?>) emulation.get("deviceMetrics")).get("pixelRatio"), 2.625);
+        Assert.assertTrue(emulation.get("userAgent").toString().contains("Pixel 7"));
+        Assert.assertNull(((Map<?, ?>) WebDriverOptions.setChromeOptions().asMap().get(ChromeOptions.CAPABILITY)).get("mobileEmulation"));
+
+        EnvironmentPropertiesReader config = EnvironmentPropertiesReader.getInstance();
+        System.setProperty("emulation.device.Kiosk", "1080x1920, 1, true, Mozilla/5.0 (Linux; Android 12; Kiosk) Mobile");
+        config.reload();
+        try {
+            Device kiosk = MobileEmulationUserAgentConfiguration.getDevice("kiosk");
+            Assert.assertEquals(kiosk.getHeight(), 1920);
+            Assert.assertTrue(kiosk.hasTouch());
+            Assert.assertEquals(kiosk.getUserAgent(), "Mozilla/5.0 (Linux; Android 12; Kiosk) Mobile");
+        } finally {
+            System.clearProperty("emulation.device.Kiosk");
+            config.reload();
+        }
+        Assert.expectThrows(IllegalArgumentException.class, () -> MobileEmulationUserAgentConfiguration.getDevice("Nokia 3310"));
+    }
+
+    @Test
+    public void emulatesEveryDeviceInItsOwnWindow() {
+        List<String> calls = new ArrayList<>();
+        String[] window = {"main"};
+        int[] opened = {0};
+        CommandExecutor grid = command -> {
+            Response response = new Response(new SessionId("fake-session"));
+            response.setState("success");
+            switch (command.getName()) {
+                case DriverCommand.NEW_SESSION:
+                    response.setValue(Map.of("browserName", "chrome"));
+                    break;
+                case DriverCommand.GET_CURRENT_WINDOW_HANDLE:
+                    response.setValue(window[0]);
+                    break;
+                case DriverCommand.SWITCH_TO_NEW_WINDOW:
+                    response.setValue(Map.of("handle", "device-" + ++opened[0], "type", "window"));
+                    break;
+                case DriverCommand.SWITCH_TO_WINDOW:
+                    window[0] = command.getParameters().get("handle").toString();
+                    break;
+                case "executeCdpCommand":
+                    calls.add(window[0] + " " + command.getParameters().get("cmd") + " " + command.getParameters().get("params"));
+                    response.setValue(Map.of());
+                    break;
+                case DriverCommand.CLOSE:
+                    calls.add(window[0] + " close");
+                    response.setValue(List.of("main"));
+                    break;
+                default:
+                    response.setValue(null);
+                    break;
+            }
+            return response;
+        };
+        RemoteWebDriver driver = new RemoteWebDriver(grid, new ImmutableCapabilities("browserName", "chrome"));
+        List<Device> devices = MobileEmulationUserAgentConfiguration.getDevices("iPhone 14, Pixel 7, iPhone 14");
+        List<String> checked = new ArrayList<>();
+        try (MultiDeviceSession session = MultiDeviceSession.open(driver, devices)) {
+            Assert.assertEquals(session.getDevices().size(), 2);
+            session.forEach((device, page) -> checked.add(device.getName() + "@" + page.getWindowHandle()));
+        }
+
+        Assert.assertEquals(checked, List.of("iPhone 14@device-1", "Pixel 7@device-2"));
+        Assert.assertEquals(window[0], "main", "original window is not current again");
+        Assert.assertTrue(calls.get(0).startsWith("device-1 Emulation.setDeviceMetricsOverride"), calls.toString());
+        Assert.assertTrue(calls.get(0).contains("width=390") && calls.get(0).contains("deviceScaleFactor=3.0"), calls.get(0));
+        Assert.assertTrue(calls.get(1).startsWith("device-1 Emulation.setUserAgentOverride") && calls.get(1).contains("iPhone"), calls.get(1));
+        Assert.assertTrue(calls.get(3).startsWith("device-2 Emulation.setDeviceMetricsOverride") && calls.get(3).contains("width=412"), calls.get(3));
+        Assert.assertEquals(calls.subList(6, calls.size()), List.of("device-1 close", "device-2 close"));
+    }
+}
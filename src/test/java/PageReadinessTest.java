@@ -0,0 +1,124 @@
+import com.augmentedframework.utils.EnvironmentPropertiesReader;
+import com.augmentedframework.utils.PageReadiness;
+import com.augmentedframework.utils.PageReadiness.Condition;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class PageReadinessTest {
+
+    /**
+     * Page answering the readiness script with one state per poll, and recording the quiet
+     * period it was given
+     */
+    private static final class Page {
+        private final Deque<Object> states = new ArrayDeque<>();
+        private final List<Object> quietArguments = new ArrayList<>();
+        private final WebDriver driver = (WebDriver) Proxy.newProxyInstance(PageReadinessTest.class.getClassLoader(),
+                new Class<?>[] {WebDriver.class, JavascriptExecutor.class}, (proxy, method, args) -> {
+                    if (!method.getName().equals("executeScript")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    quietArguments.add(((Object[]) args[1])[0]);
+                    Object state = states.poll();
+                    if (state instanceof RuntimeException) {
+                        throw (RuntimeException) state;
+                    }
+                    return state;
+                });
+
+        private Page then(Object state) {
+            states.add(state);
+            return this;
+        }
+    }
+
+    private static Map<String, Object> state(boolean document, boolean ajax, boolean images, boolean frames) {
+        return Map.of("document", document, "ajax", ajax, "images", images, "frames", frames);
+    }
+
+    @Test
+    public void waitsForEveryConditionAndTimesEach() throws Exception {
+        Page page = new Page()
+                .then(state(false, true, false, true))
+                .then(state(true, true, false, true))
+                .then(state(true, false, true, true))
+                .then(state(true, true, true, true));
+        PageReadiness readiness = PageReadiness.all(false, 500);
+
+        Assert.assertFalse(readiness.apply(page.driver));
+        Assert.assertEquals(readiness.getReadyAfter().keySet(), Set.of(Condition.AJAX, Condition.FRAMES));
+        long ajaxMet = readiness.getReadyAfter().get(Condition.AJAX);
+        Thread.sleep(30);
+        Assert.assertFalse(readiness.apply(page.driver));
+        long documentMet = readiness.getReadyAfter().get(Condition.DOCUMENT);
+        Assert.assertTrue(documentMet >= ajaxMet + 30, "document met after " + documentMet + " ms");
+        Thread.sleep(30);
+        // a request starting again resets the condition's timing
+        Assert.assertFalse(readiness.apply(page.driver));
+        Assert.assertFalse(readiness.getReadyAfter().containsKey(Condition.AJAX));
+        Assert.assertTrue(readiness.apply(page.driver));
+
+        Map<Condition, Long> readyAfter = readiness.getReadyAfter();
+        Assert.assertEquals(readyAfter.get(Condition.DOCUMENT).longValue(), documentMet, "a condition that stayed met kept its time");
+        Assert.assertTrue(readyAfter.get(Condition.AJAX) >= documentMet + 30, readyAfter.toString());
+        Assert.assertTrue(readyAfter.get(Condition.IMAGES) >= documentMet + 30, readyAfter.toString());
+        Assert.assertFalse(readyAfter.containsKey(Condition.NETWORK_IDLE));
+        Assert.assertEquals(readiness.getPolls(), 4);
+        Assert.assertEquals(page.quietArguments, List.of(-1L, -1L, -1L, -1L));
+    }
+
+    @Test
+    public void waitsForTheNetworkToGoQuiet() {
+        Page page = new Page()
+                .then(Map.of("document", true, "ajax", true, "images", true, "frames", true, "networkIdle", false))
+                .then(Map.of("document", true, "ajax", true, "images", true, "frames", true, "networkIdle", true));
+        PageReadiness readiness = PageReadiness.all(true, 250);
+
+        Assert.assertFalse(readiness.apply(page.driver));
+        Assert.assertTrue(readiness.apply(page.driver));
+        Assert.assertTrue(readiness.getReadyAfter().containsKey(Condition.NETWORK_IDLE));
+        Assert.assertEquals(page.quietArguments, List.of(250L, 250L));
+    }
+
+    @Test
+    public void checksOnlyTheRequestedConditions() {
+        Page page = new Page()
+                .then(state(false, false, true, false))
+                .then(state(true, true, false, true));
+        ExpectedCondition<Boolean> images = PageReadiness.of(Condition.IMAGES);
+        Assert.assertTrue(images.apply(page.driver));
+        Assert.assertFalse(images.apply(page.driver));
+
+        EnvironmentPropertiesReader config = EnvironmentPropertiesReader.getInstance();
+        System.setProperty("pageLoad.networkIdleQuietMillis", "120");
+        config.reload();
+        try {
+            Page idle = new Page().then(Map.of("document", false, "networkIdle", true));
+            Assert.assertTrue(PageReadiness.of(Condition.NETWORK_IDLE).apply(idle.driver));
+            Assert.assertEquals(idle.quietArguments, List.of(120L));
+        } finally {
+            System.clearProperty("pageLoad.networkIdleQuietMillis");
+            config.reload();
+        }
+    }
+
+    @Test
+    public void treatsPagesRefusingScriptsAsLoaded() {
+        Page page = new Page().then(new WebDriverException("scripts are disabled"));
+        PageReadiness readiness = PageReadiness.all(false, 500);
+        Assert.assertTrue(readiness.apply(page.driver));
+        Assert.assertEquals(readiness.getReadyAfter().size(), 4);
+    }
+}
@@ -0,0 +1,59 @@
+import com.augmentedframework.utils.PollingStrategy;
+import com.augmentedframework.utils.PollingWait;
+import org.openqa.selenium.TimeoutException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PollingStrategyTest {
+
+    @Test
+    public void backsOffExponentiallyUpToTheMaximum() {
+        PollingStrategy fixed = PollingStrategy.fixed(Duration.ofMillis(250));
+        Assert.assertEquals(fixed.nextInterval(1, Duration.ZERO), Duration.ofMillis(250));
+        Assert.assertEquals(fixed.nextInterval(40, Duration.ofSeconds(10)), Duration.ofMillis(250));
+
+        PollingStrategy exponential = PollingStrategy.exponential(Duration.ofMillis(50), 2, Duration.ofMillis(500));
+        Assert.assertEquals(exponential.nextInterval(1, Duration.ZERO), Duration.ofMillis(50));
+        Assert.assertEquals(exponential.nextInterval(2, Duration.ZERO), Duration.ofMillis(100));
+        Assert.assertEquals(exponential.nextInterval(4, Duration.ZERO), Duration.ofMillis(400));
+        Assert.assertEquals(exponential.nextInterval(5, Duration.ZERO), Duration.ofMillis(500));
+        Assert.assertEquals(exponential.nextInterval(60, Duration.ZERO), Duration.ofMillis(500));
+    }
+
+    @Test
+    public void approachesTheExpectedDurationThenBacksOff() {
+        Duration initial = Duration.ofMillis(50);
+        Duration max = Duration.ofMillis(2000);
+        // expected 5 s: approach point at 4 s, halving the distance to it
+        PollingStrategy adaptive = PollingStrategy.adaptive(Duration.ofSeconds(5), initial, max);
+        Assert.assertEquals(adaptive.nextInterval(1, Duration.ZERO), Duration.ofMillis(2000));
+        Assert.assertEquals(adaptive.nextInterval(2, Duration.ofMillis(2000)), Duration.ofMillis(1000));
+        Assert.assertEquals(adaptive.nextInterval(3, Duration.ofMillis(3000)), Duration.ofMillis(500));
+        Assert.assertEquals(adaptive.nextInterval(4, Duration.ofMillis(3950)), Duration.ofMillis(50));
+        Assert.assertEquals(adaptive.nextInterval(5, Duration.ofMillis(4000)), Duration.ofMillis(100));
+        Assert.assertEquals(adaptive.nextInterval(6, Duration.ofMillis(4100)), Duration.ofMillis(200));
+
+        PollingStrategy unknown = PollingStrategy.adaptive(null, initial, max);
+        Assert.assertEquals(unknown.nextInterval(1, Duration.ZERO), Duration.ofMillis(50));
+        Assert.assertEquals(unknown.nextInterval(3, Duration.ZERO), Duration.ofMillis(200));
+    }
+
+    @Test
+    public void timesOutWhenTheBudgetRunsOut() {
+        AtomicInteger polls = new AtomicInteger();
+        long start = System.nanoTime();
+        TimeoutException timeout = Assert.expectThrows(TimeoutException.class, () -> PollingWait.until(null, "never met",
+                driver -> polls.incrementAndGet() < 0, PollingWait.Budget.of(Duration.ofMillis(300)),
+                PollingStrategy.exponential(Duration.ofMillis(10), 2, Duration.ofMillis(1000))));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        Assert.assertTrue(timeout.getMessage().startsWith("never met timed out after"), timeout.getMessage());
+        // the last sleep is cut to what is left of the budget instead of the 1 s maximum
+        Assert.assertTrue(elapsedMillis >= 250 && elapsedMillis < 900, "waited " + elapsedMillis + " ms");
+        // 10, 20, 40, 80, 160 ms, then the remainder
+        Assert.assertTrue(polls.get() >= 5 && polls.get() <= 8, polls.get() + " polls");
+    }
+}
@@ -0,0 +1,45 @@
+import com.augmentedframework.utils.PollingStrategy;
+import com.augmentedframework.utils.PollingWait;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PollingWaitTest {
+    private static final PollingStrategy FAST = PollingStrategy.fixed(Duration.ofMillis(5));
+
+    @Test
+    public void treatsWebDriverErrorsAsNotYetMetAndCountsPolls() {
+        AtomicInteger polls = new AtomicInteger();
+        String value = PollingWait.until(null, "stale then found", driver -> {
+            int poll = polls.incrementAndGet();
+            if (poll == 1) {
+                throw new StaleElementReferenceException("detached");
+            }
+            return poll < 3 ? null : "found";
+        }, PollingWait.Budget.of(Duration.ofSeconds(5)), FAST);
+
+        Assert.assertEquals(value, "found");
+        PollingWait.Statistics statistics = PollingWait.getStatistics().get("stale then found");
+        Assert.assertEquals(statistics.getWaits(), 1);
+        Assert.assertEquals(statistics.getPolls(), 3);
+    }
+
+    @Test
+    public void conditionsShareOneBudget() {
+        PollingWait.Budget budget = PollingWait.Budget.of(Duration.ofMillis(400));
+        long start = System.nanoTime();
+        Assert.expectThrows(TimeoutException.class, () -> PollingWait.until(null, "first", driver -> false, budget, FAST));
+        // the second wait only gets what the first left over
+        Assert.expectThrows(TimeoutException.class, () -> PollingWait.until(null, "second", driver -> false, budget, FAST));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        Assert.assertTrue(elapsedMillis < 800, "two waits took " + elapsedMillis + " ms of a 400 ms budget");
+
+        PollingWait.Budget parent = PollingWait.Budget.of(Duration.ofSeconds(10));
+        long slice = parent.slice(0.25).remainingMillis();
+        Assert.assertTrue(slice > 2000 && slice <= 2500, slice + " ms");
+    }
+}
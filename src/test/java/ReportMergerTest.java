@@ -0,0 +1,154 @@
+import com.augmentedframework.utils.EnvironmentPropertiesReader;
+import com.augmentedframework.utils.Log;
+import com.augmentedframework.utils.LogFlushListener;
+import com.augmentedframework.utils.ReportMerger;
+import com.augmentedframework.utils.ShardResultListener;
+import com.augmentedframework.utils.TestContextListener;
+import org.json.JSONObject;
+import org.testng.Assert;
+import org.testng.TestNG;
+import org.testng.annotations.Test;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.io.BufferedReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ReportMergerTest {
+    private static final Path dir = Paths.get("target", "merge-test");
+
+    public static class Shard {
+        @Test
+        public void passes() {
+            Log.message("passing step");
+        }
+
+        @Test
+        public void passesToo() {
+            Log.event("another step");
+        }
+    }
+
+    private static TestNG shardRun(String name, List<XmlSuite> suites) {
+        TestNG testng = new TestNG();
+        testng.setUseDefaultListeners(false);
+        testng.setOutputDirectory(dir.resolve(name).resolve("test-output").toString());
+        testng.setXmlSuites(suites);
+        // the nested run executes on this test's thread, so it binds its own test contexts
+        testng.addListener(new TestContextListener());
+        testng.addListener(new LogFlushListener());
+        testng.addListener(new ShardResultListener());
+        return testng;
+    }
+
+    private static XmlSuite suite(String name) {
+        XmlSuite suite = new XmlSuite();
+        suite.setName(name);
+        XmlTest test = new XmlTest(suite);
+        test.setName(name);
+        test.setXmlClasses(List.of(new XmlClass(Shard.class)));
+        return suite;
+    }
+
+    private static void runShard(String name) {
+        EnvironmentPropertiesReader config = EnvironmentPropertiesReader.getInstance();
+        System.setProperty("results.shardName", name);
+        config.reload();
+        try {
+            shardRun(name, List.of(suite("merged"))).run();
+        } finally {
+            System.clearProperty("results.shardName");
+            config.reload();
+        }
+    }
+
+    @Test
+    public void mergesShardResultsAndLogs() throws Exception {
+        runShard("a");
+        runShard("b");
+        Files.writeString(dir.resolve("a").resolve("TestCasesLogs.log"), "first\nsecond\n");
+        Files.writeString(dir.resolve("b").resolve("TestCasesLogs.log"), "third\n");
+        Files.createDirectories(dir.resolve("c"));
+        Files.writeString(dir.resolve("c").resolve("shard-results.jsonl"), new JSONObject().put("shard", "c").put("class", "Other")
+                .put("method", "fails").put("status", "FAIL").put("start", 0).put("end", 1).put("millis", 1)
+                .put("error", "java.lang.AssertionError: expected <failure>") + "\nnot json\n");
+
+        Path output = dir.resolve("merged");
+        int merged = ReportMerger.merge(output, List.of(dir.resolve("a"), dir.resolve("b"), dir.resolve("c")));
+        Assert.assertEquals(merged, 5);
+
+        List<JSONObject> results = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(output.resolve("results.jsonl"))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                results.add(new JSONObject(line));
+            }
+        }
+        Assert.assertEquals(results.size(), 5);
+        Assert.assertEquals(results.get(0).getString("method"), "fails");
+        for (int i = 1; i < results.size(); i++) {
+            Assert.assertTrue(results.get(i - 1).getLong("end") <= results.get(i).getLong("end"), "results are not in finishing order");
+        }
+        JSONObject passed = null;
+        for (JSONObject result : results) {
+            if (result.getString("shard").equals("b") && result.getString("method").equals("passes")) {
+                passed = result;
+            }
+        }
+        Assert.assertNotNull(passed);
+        Assert.assertEquals(passed.getString("status"), "PASS");
+        Assert.assertTrue(passed.getJSONArray("log").toString().contains("passing step"), passed.toString());
+
+        String report = Files.readString(output.resolve("MergedReport.html"));
+        Assert.assertTrue(report.contains("<h2>Merged test report: 5 tests</h2>"));
+        Assert.assertTrue(report.contains("<tr><th>total</th><td>4</td><td>1</td><td>0</td>"), report);
+        Assert.assertTrue(report.contains("expected &lt;failure&gt;"));
+
+        String log = Files.readString(output.resolve("TestCasesLogs.log"));
+        List<String> index = Files.readAllLines(output.resolve("log-index.tsv"));
+        Assert.assertEquals(index.size(), 3);
+        String[] second = index.get(2).split("\t");
+        Assert.assertEquals(second[0], "2-b");
+        int offset = Integer.parseInt(second[2]);
+        Assert.assertEquals(log.substring(offset, offset + Integer.parseInt(second[3])), "third\n");
+    }
+
+    @Test
+    public void keepsTheResultsOfEverySuiteOfARun() throws Exception {
+        Path results = dir.resolve("suites").resolve("test-output").resolve("shard-results.jsonl");
+        for (int run = 0; run < 2; run++) {
+            shardRun("suites", List.of(suite("first"), suite("second"))).run();
+            // a new run replaces the file, the second suite of a run appends to it
+            Assert.assertEquals(Files.readAllLines(results).size(), 4);
+        }
+    }
+
+    @Test
+    public void namesShardsWhoseFoldersShareAName() throws Exception {
+        for (String node : List.of("node1", "node2")) {
+            Path reports = dir.resolve("nodes").resolve(node).resolve("test-output");
+            Files.createDirectories(reports);
+            Files.writeString(reports.resolve("TestCasesLogs.log"), node + "\n");
+            Files.writeString(reports.resolve("ExtentReport.html"), "<html>" + node + "</html>");
+            Files.createDirectories(reports.resolve("ScreenShot"));
+            Files.writeString(reports.resolve("ScreenShot").resolve("1_failure.png"), node);
+        }
+
+        Path output = dir.resolve("nodes").resolve("merged");
+        ReportMerger.merge(output, List.of(dir.resolve("nodes").resolve("node1").resolve("test-output"),
+                dir.resolve("nodes").resolve("node2").resolve("test-output")));
+
+        Assert.assertEquals(Files.readString(output.resolve("shards").resolve("1-test-output").resolve("ExtentReport.html")), "<html>node1</html>");
+        Assert.assertEquals(Files.readString(output.resolve("shards").resolve("2-test-output").resolve("ExtentReport.html")), "<html>node2</html>");
+        // the reports' relative ScreenShot/ links still resolve in the copies
+        Assert.assertEquals(Files.readString(output.resolve("shards").resolve("2-test-output").resolve("ScreenShot").resolve("1_failure.png")), "node2");
+        List<String> index = Files.readAllLines(output.resolve("log-index.tsv"));
+        Assert.assertEquals(index.get(1).split("\t")[0], "1-test-output");
+        Assert.assertEquals(index.get(2).split("\t")[0], "2-test-output");
+    }
+}
@@ -0,0 +1,198 @@
+import com.augmentedframework.utils.EnvironmentPropertiesReader;
+import com.augmentedframework.utils.LoadProfile;
+import com.augmentedframework.utils.LoadResult;
+import com.augmentedframework.utils.RestAssuredAPI;
+import com.sun.net.httpserver.HttpServer;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class RestAssuredAPITest {
+    private static final int CALLS = 300;
+    private HttpServer server;
+    private ExecutorService stubThreads;
+    private String baseUri;
+    private final Set<InetSocketAddress> clients = ConcurrentHashMap.newKeySet();
+
+    @BeforeClass
+    public void startStub() throws Exception {
+        // without it the stub's split header/body writes wait on delayed ACKs for every call
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/items/", exchange -> {
+            clients.add(exchange.getRemoteAddress());
+            String id = exchange.getRequestURI().getPath().substring("/items/".length());
+            byte[] body = ("{\"id\":\"" + id + "\"}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/session", exchange -> {
+            byte[] body = "{\"signedIn\":true}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.getResponseHeaders().add("Set-Cookie", "token=secret-session");
+            exchange.getResponseHeaders().add("X-Trace", "edge");
+            exchange.getResponseHeaders().add("X-Trace", "origin");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        stubThreads = Executors.newFixedThreadPool(16);
+        server.setExecutor(stubThreads);
+        server.start();
+        baseUri = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopStub() {
+        server.stop(0);
+        stubThreads.shutdownNow();
+        System.clearProperty("sun.net.httpserver.nodelay");
+    }
+
+    private static int getMaxConnectionsPerRoute() {
+        return EnvironmentPropertiesReader.getInstance().getInt("api.maxConnectionsPerRoute", 50);
+    }
+
+    @Test
+    public void fansOutOverPooledConnections() {
+        clients.clear();
+        List<Callable<String>> calls = new ArrayList<>();
+        for (int i = 0; i < CALLS; i++) {
+            String id = Integer.toString(i);
+            calls.add(() -> RestAssuredAPI.given(baseUri).get("/items/" + id).then().statusCode(200).extract().path("id"));
+        }
+        List<String> ids = RestAssuredAPI.fanOut(calls);
+        for (int i = 0; i < CALLS; i++) {
+            Assert.assertEquals(ids.get(i), Integer.toString(i));
+        }
+        Assert.assertTrue(clients.size() <= getMaxConnectionsPerRoute(), "connections beyond the per-route pool: " + clients.size());
+    }
+
+    @Test
+    public void sendsThroughSharedHttpClient() {
+        clients.clear();
+        List<Callable<Integer>> calls = new ArrayList<>();
+        for (int i = 0; i < CALLS; i++) {
+            String uri = baseUri + "/items/" + i;
+            calls.add(() -> RestAssuredAPI.send("GET", uri, null).statusCode());
+        }
+        RestAssuredAPI.fanOut(calls).forEach(status -> Assert.assertEquals((int) status, 200));
+        Assert.assertTrue(clients.size() < CALLS, "connections were not reused: " + clients.size());
+    }
+
+    @Test
+    public void runsOpenAndClosedModelLoad() {
+        String uri = baseUri + "/items/load";
+        LoadResult open = RestAssuredAPI.load("stub-open", LoadProfile.open(200, Duration.ofSeconds(1)),
+                () -> RestAssuredAPI.send("GET", uri, null));
+        // arrivals are scheduled against the clock: exactly 200 start within the second, however late
+        Assert.assertEquals(open.getIterations(), 200);
+        Assert.assertEquals(open.getErrors(), 0);
+        Assert.assertTrue(open.getPercentileMillis(99) >= open.getServiceTime().getValueAtPercentile(50) / 1000.0);
+
+        LoadResult closed = RestAssuredAPI.load("stub-closed", LoadProfile.closed(4, Duration.ofMillis(500)), () -> {
+            throw new IllegalStateException("scenario failed");
+        });
+        Assert.assertEquals(closed.getErrors(), closed.getIterations());
+        Assert.assertTrue(Files.exists(Paths.get("target/load-reports/stub-closed.json")));
+        Assert.assertTrue(Files.exists(Paths.get("target/load-reports/stub-open.hgrm")));
+    }
+
+    @Test
+    public void saturatedOpenModelStopsAtTheEndOfTheRun() {
+        Assert.expectThrows(IllegalArgumentException.class, () -> LoadProfile.open(10, Duration.ofSeconds(1)).withMaxInFlight(0));
+        Assert.expectThrows(IllegalArgumentException.class, () -> LoadProfile.closed(1, Duration.ofSeconds(1)).withPacing(Duration.ZERO));
+        Assert.expectThrows(IllegalArgumentException.class, () -> LoadProfile.closed(1, Duration.ofSeconds(1)).withPacing(Duration.ofMillis(-5)));
+
+        long start = System.nanoTime();
+        LoadResult saturated = RestAssuredAPI.load("stub-saturated", LoadProfile.open(100, Duration.ofMillis(300)).withMaxInFlight(1), () -> {
+            Thread.sleep(1500);
+            return null;
+        });
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        // the one slot is busy past the end of the run, so no further arrival starts
+        Assert.assertEquals(saturated.getIterations(), 1);
+        Assert.assertTrue(millis < 5000, "took " + millis + " ms");
+    }
+
+    @Test
+    public void recordsAndReplaysExchanges() {
+        EnvironmentPropertiesReader config = EnvironmentPropertiesReader.getInstance();
+        System.setProperty("api.recordingDir", "target/recordings-test");
+        try {
+            System.setProperty("api.recording", "record");
+            config.reload();
+            String live = RestAssuredAPI.given(baseUri).queryParam("b", 2).queryParam("a", 1).get("/items/recorded").asString();
+            Assert.assertEquals(RestAssuredAPI.send("GET", baseUri + "/items/recorded?a=1&b=2", null).body(), live);
+
+            System.setProperty("api.recording", "replay");
+            config.reload();
+            clients.clear();
+            Assert.assertEquals(RestAssuredAPI.given(baseUri).queryParam("a", 1).queryParam("b", 2).get("/items/recorded").asString(), live);
+            Assert.assertEquals(RestAssuredAPI.send("GET", baseUri + "/items/recorded?b=2&a=1", null).statusCode(), 200);
+            Assert.assertTrue(clients.isEmpty(), "replayed calls reached the server");
+            Assert.assertThrows(IllegalStateException.class, () -> RestAssuredAPI.send("GET", baseUri + "/items/unrecorded", null));
+        } finally {
+            System.clearProperty("api.recording");
+            System.clearProperty("api.recordingDir");
+            config.reload();
+        }
+    }
+
+    @Test
+    public void keysOnHeadersAndKeepsSecretsOutOfRecordings() throws Exception {
+        EnvironmentPropertiesReader config = EnvironmentPropertiesReader.getInstance();
+        Path directory = Paths.get("target/recordings-secrets-test");
+        System.setProperty("api.recordingDir", directory.toString());
+        try {
+            System.setProperty("api.recording", "record");
+            config.reload();
+            RestAssuredAPI.given(baseUri).header("Authorization", "Bearer alice").get("/session");
+            RestAssuredAPI.send("POST", baseUri + "/items/posted", "{\"a\":1,\"b\":2}");
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.collect(Collectors.toList())) {
+                    String recorded = Files.readString(file);
+                    Assert.assertFalse(recorded.contains("secret-session") || recorded.contains("Bearer"), file + " holds a secret: " + recorded);
+                }
+            }
+
+            System.setProperty("api.recording", "replay");
+            config.reload();
+            io.restassured.response.Response replayed = RestAssuredAPI.given(baseUri).header("Authorization", "Bearer alice").get("/session");
+            Assert.assertEquals(replayed.getHeaders().getValues("X-Trace"), List.of("edge", "origin"));
+            Assert.assertNull(replayed.getHeader("Set-Cookie"));
+            // another caller's credentials or Accept header is another exchange
+            Assert.assertThrows(IllegalStateException.class, () -> RestAssuredAPI.given(baseUri).header("Authorization", "Bearer bob").get("/session"));
+            Assert.assertThrows(IllegalStateException.class, () -> RestAssuredAPI.given(baseUri).accept("text/plain").header("Authorization", "Bearer alice").get("/session"));
+            // member names are escaped, so this body cannot pass for {"a":1,"b":2}
+            Assert.assertEquals(RestAssuredAPI.send("POST", baseUri + "/items/posted", "{\"b\":2,\"a\":1}").statusCode(), 200);
+            Assert.assertThrows(IllegalStateException.class, () -> RestAssuredAPI.send("POST", baseUri + "/items/posted", "{\"a\\\":1,\\\"b\":2}"));
+        } finally {
+            System.clearProperty("api.recording");
+            System.clearProperty("api.recordingDir");
+            config.reload();
+        }
+    }
+}
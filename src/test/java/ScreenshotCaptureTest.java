@@ -0,0 +1,143 @@
+import com.augmentedframework.utils.EnvironmentPropertiesReader;
+import com.augmentedframework.utils.ExtentReporter;
+import com.augmentedframework.utils.LogFlushListener;
+import com.augmentedframework.utils.ScreenshotCapture;
+import com.augmentedframework.utils.TestContextListener;
+import org.openqa.selenium.ImmutableCapabilities;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.CommandExecutor;
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.Response;
+import org.openqa.selenium.remote.SessionId;
+import org.testng.Assert;
+import org.testng.Reporter;
+import org.testng.TestNG;
+import org.testng.annotations.Test;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+public class ScreenshotCaptureTest {
+    // the capturing test only runs inside the nested run, not when the suite picks up Capturing itself
+    private static volatile boolean nested;
+    private static final Path[] captured = new Path[2];
+
+    public static class Capturing {
+        @Test
+        public void capturesTwoFrames() throws Exception {
+            if (!nested) {
+                return;
+            }
+            ExtentReporter.info("capturing two frames");
+            String[] frame = {png(0x0000ff)};
+            RemoteWebDriver driver = screen(frame);
+            captured[0] = ScreenshotCapture.capture(driver, "blue").get(10, TimeUnit.SECONDS);
+            frame[0] = png(0xffff00);
+            captured[1] = ScreenshotCapture.capture(driver, "yellow").get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private static String png(int rgb) throws IOException {
+        BufferedImage image = new BufferedImage(8, 8, BufferedImage.TYPE_INT_RGB);
+        image.setRGB(3, 3, rgb);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return Base64.getEncoder().encodeToString(out.toByteArray());
+    }
+
+    private static RemoteWebDriver screen(String[] frame) {
+        CommandExecutor grid = command -> {
+            if (command.getName().equals(DriverCommand.SCREENSHOT) && frame[0] == null) {
+                throw new WebDriverException("no browser window");
+            }
+            Response response = new Response(new SessionId("fake-session"));
+            response.setState("success");
+            switch (command.getName()) {
+                case DriverCommand.NEW_SESSION:
+                    response.setValue(Map.of("browserName", "chrome"));
+                    break;
+                case DriverCommand.SCREENSHOT:
+                    response.setValue(frame[0]);
+                    break;
+                default:
+                    response.setValue(null);
+                    break;
+            }
+            return response;
+        };
+        return new RemoteWebDriver(grid, new ImmutableCapabilities("browserName", "chrome"));
+    }
+
+    @Test
+    public void storesIdenticalFramesOnce() throws Exception {
+        String[] frame = {png(0xff0000)};
+        RemoteWebDriver driver = screen(frame);
+
+        Path first = ScreenshotCapture.capture(driver, "red").get(10, TimeUnit.SECONDS);
+        Path again = ScreenshotCapture.capture(driver, "red again").get(10, TimeUnit.SECONDS);
+        frame[0] = png(0x00ff00);
+        Path other = ScreenshotCapture.capture(driver, "green").get(10, TimeUnit.SECONDS);
+
+        Assert.assertTrue(Files.exists(first), first + " was not written");
+        Assert.assertEquals(again, first, "identical frame was stored twice");
+        Assert.assertNotEquals(other, first);
+        Assert.assertEquals(Files.readAllBytes(first), Base64.getDecoder().decode(png(0xff0000)));
+        ScreenshotCapture.awaitPending(Reporter.getCurrentTestResult(), 1000);
+    }
+
+    @Test
+    public void dropsCaptureWhenTheDriverCannotTakeOne() throws Exception {
+        RemoteWebDriver driver = screen(new String[] {null});
+        Assert.assertNull(ScreenshotCapture.capture(driver, "no window").get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void evictsTheOldestFileOverTheCapAndNotesItInTheReport() throws Exception {
+        Path directory = Paths.get("target", "screenshot-test", "test-output");
+        Files.deleteIfExists(directory.resolve("ExtentReport.html"));
+        EnvironmentPropertiesReader config = EnvironmentPropertiesReader.getInstance();
+        // every file is over a cap of 0 MB, so each capture evicts the one before it
+        System.setProperty("screenshot.maxDiskMb", "0");
+        config.reload();
+        try {
+            XmlSuite suite = new XmlSuite();
+            suite.setName("capturing");
+            XmlTest test = new XmlTest(suite);
+            test.setName("capturing");
+            test.setXmlClasses(List.of(new XmlClass(Capturing.class)));
+            TestNG testng = new TestNG();
+            testng.setUseDefaultListeners(false);
+            testng.setOutputDirectory(directory.toString());
+            testng.setXmlSuites(List.of(suite));
+            testng.addListener(new TestContextListener());
+            testng.addListener(new LogFlushListener());
+            nested = true;
+            testng.run();
+            Assert.assertEquals(testng.getStatus(), 0);
+        } finally {
+            nested = false;
+            System.clearProperty("screenshot.maxDiskMb");
+            config.reload();
+        }
+
+        Assert.assertFalse(Files.exists(captured[0]), captured[0] + " was not evicted");
+        Assert.assertTrue(Files.exists(captured[1]), "the newest file is always kept");
+        ExtentReporter.flush();
+        String report = Files.readString(directory.resolve("ExtentReport.html"));
+        Assert.assertTrue(report.contains("Screenshot " + captured[0].getFileName() + " was deleted to stay under screenshot.maxDiskMb"),
+                "evicted link not noted in the report");
+    }
+}
@@ -0,0 +1,111 @@
+import com.augmentedframework.utils.EnvironmentPropertiesReader;
+import com.augmentedframework.utils.ShardSelector;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.testng.Assert;
+import org.testng.TestNG;
+import org.testng.annotations.Test;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+public class ShardSelectorTest {
+    private static final Set<String> ran = new CopyOnWriteArraySet<>();
+    private static final Path dir = Paths.get("target", "shard-test");
+
+    public static class Long {
+        @Test
+        public void first() {
+            ran.add("Long.first");
+        }
+
+        @Test
+        public void second() {
+            ran.add("Long.second");
+        }
+    }
+
+    public static class Medium {
+        @Test
+        public void only() {
+            ran.add("Medium.only");
+        }
+    }
+
+    public static class Unknown {
+        @Test
+        public void only() {
+            ran.add("Unknown.only");
+        }
+    }
+
+    private static Set<String> runShard(String shard) {
+        EnvironmentPropertiesReader config = EnvironmentPropertiesReader.getInstance();
+        System.setProperty("shard", shard);
+        System.setProperty("shard.manifestDir", dir.toString());
+        System.setProperty("scheduler.historyFile", dir.resolve("durations.json").toString());
+        System.setProperty("scheduler.enabled", "false");
+        config.reload();
+        try {
+            XmlSuite suite = new XmlSuite();
+            suite.setName("sharded");
+            XmlTest test = new XmlTest(suite);
+            test.setName("sharded");
+            test.setXmlClasses(Arrays.asList(new XmlClass(Unknown.class), new XmlClass(Medium.class), new XmlClass(Long.class)));
+            TestNG testng = new TestNG();
+            testng.setUseDefaultListeners(false);
+            testng.setOutputDirectory(dir.resolve("test-output").toString());
+            testng.setXmlSuites(List.of(suite));
+            testng.addListener(new ShardSelector());
+            ran.clear();
+            testng.run();
+            return new TreeSet<>(ran);
+        } finally {
+            for (String key : List.of("shard", "shard.manifestDir", "scheduler.historyFile", "scheduler.enabled")) {
+                System.clearProperty(key);
+            }
+            config.reload();
+        }
+    }
+
+    @Test
+    public void splitsClassesByDurationAndMergesManifests() throws Exception {
+        Files.createDirectories(dir);
+        String prefix = ShardSelectorTest.class.getName() + "$";
+        Files.writeString(dir.resolve("durations.json"), new JSONObject().put("tests", new JSONObject()
+                .put(prefix + "Long.first", new JSONObject().put("millis", 300).put("runs", 1))
+                .put(prefix + "Long.second", new JSONObject().put("millis", 300).put("runs", 1))
+                .put(prefix + "Medium.only", new JSONObject().put("millis", 500).put("runs", 1))).toString());
+
+        // Long (600 ms) fills the first shard, Medium (500 ms) and Unknown (median, 300 ms) the second
+        Assert.assertEquals(runShard("1/2"), Set.of("Long.first", "Long.second"));
+        Assert.assertEquals(runShard("2/2"), Set.of("Medium.only", "Unknown.only"));
+        Assert.assertEquals(runShard("1/2"), Set.of("Long.first", "Long.second"), "split is not deterministic");
+
+        JSONObject manifest = new JSONObject(Files.readString(dir.resolve("shard-2-of-2.json")));
+        Assert.assertEquals(manifest.getInt("predictedMillis"), 800);
+        JSONArray units = manifest.getJSONObject("units").getJSONArray("sharded");
+        List<String> classes = new ArrayList<>();
+        for (int i = 0; i < units.length(); i++) {
+            classes.add(units.getString(i));
+        }
+        Assert.assertEquals(classes, List.of(prefix + "Medium", prefix + "Unknown"));
+
+        int merged = ShardSelector.merge(dir.resolve("durations.json"),
+                List.of(dir.resolve("shard-1-of-2.json"), dir.resolve("shard-2-of-2.json")));
+        Assert.assertEquals(merged, 4);
+        JSONObject tests = new JSONObject(Files.readString(dir.resolve("durations.json"))).getJSONObject("tests");
+        Assert.assertEquals(tests.getJSONObject(prefix + "Medium.only").getInt("runs"), 2);
+        Assert.assertEquals(tests.getJSONObject(prefix + "Unknown.only").getInt("runs"), 1);
+    }
+}
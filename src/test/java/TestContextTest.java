@@ -0,0 +1,37 @@
+import com.augmentedframework.utils.Log;
+import com.augmentedframework.utils.TestContext;
+import org.testng.Assert;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class TestContextTest {
+
+    @Test
+    public void carriesTestContextIntoExecutorTasks() throws Exception {
+        ITestResult iTestResult = Reporter.getCurrentTestResult();
+        TestContext context = TestContext.current();
+        Assert.assertNotNull(context);
+        Assert.assertSame(context, TestContext.of(iTestResult));
+        Assert.assertSame(context.getResult(), iTestResult);
+        Assert.assertEquals(context.getId(), "TestContextTest.carriesTestContextIntoExecutorTasks");
+        Assert.assertEquals(Log.getHashCode(), context.getHash());
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            TestContext seen = executor.submit(TestContext.wrap(() -> {
+                Log.message("logged from a helper thread");
+                return TestContext.current();
+            })).get();
+            Assert.assertSame(seen, context);
+        } finally {
+            executor.shutdown();
+        }
+        Log.flush();
+        Assert.assertTrue(String.join("\n", Reporter.getOutput(iTestResult)).contains("logged from a helper thread"),
+                "helper thread did not log to the test");
+    }
+}
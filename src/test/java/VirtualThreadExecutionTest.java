@@ -0,0 +1,88 @@
+import com.augmentedframework.utils.EnvironmentPropertiesReader;
+import com.augmentedframework.utils.Log;
+import com.augmentedframework.utils.VirtualThreadExecution;
+import org.testng.Assert;
+import org.testng.TestNG;
+import org.testng.annotations.Factory;
+import org.testng.annotations.Test;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class VirtualThreadExecutionTest {
+    private static final int TESTS = 300;
+    private static final AtomicInteger running = new AtomicInteger();
+    private static final AtomicInteger maxRunning = new AtomicInteger();
+    private static final AtomicInteger onVirtualThreads = new AtomicInteger();
+    // the calls only run inside the nested run, not when the suite picks up ApiCall itself
+    private static volatile boolean nested;
+
+    public static class ApiCall {
+        private final int id;
+
+        public ApiCall(int id) {
+            this.id = id;
+        }
+
+        @Factory
+        public static Object[] calls() {
+            Object[] calls = new Object[nested ? TESTS : 1];
+            for (int i = 0; i < calls.length; i++) {
+                calls[i] = new ApiCall(i);
+            }
+            return calls;
+        }
+
+        @Test(groups = "api")
+        public void call() throws InterruptedException {
+            if (!nested) {
+                return;
+            }
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            if (Thread.currentThread().isVirtual()) {
+                onVirtualThreads.incrementAndGet();
+            }
+            Log.event("call " + id);
+            // stands in for a blocking HTTP round trip
+            Thread.sleep(200);
+            running.decrementAndGet();
+        }
+    }
+
+    @Test
+    public void runsApiOnlyTestsOnVirtualThreads() {
+        EnvironmentPropertiesReader config = EnvironmentPropertiesReader.getInstance();
+        System.setProperty("virtualThreads.concurrency", "100");
+        config.reload();
+        try {
+            XmlSuite suite = new XmlSuite();
+            suite.setName("virtual");
+            XmlTest test = new XmlTest(suite);
+            test.setName("api");
+            test.addIncludedGroup("api");
+            test.setXmlClasses(List.of(new XmlClass(ApiCall.class)));
+            TestNG testng = VirtualThreadExecution.install(new TestNG());
+            testng.setUseDefaultListeners(false);
+            testng.setOutputDirectory("target/virtual-test/test-output");
+            testng.setXmlSuites(List.of(suite));
+            long start = System.nanoTime();
+            nested = true;
+            testng.run();
+            long millis = (System.nanoTime() - start) / 1_000_000;
+
+            Assert.assertEquals(testng.getStatus(), 0);
+            Assert.assertEquals(onVirtualThreads.get(), TESTS);
+            Assert.assertTrue(maxRunning.get() <= 100, "ran " + maxRunning.get() + " at once");
+            Assert.assertTrue(maxRunning.get() >= 50, "ran only " + maxRunning.get() + " at once");
+            // 300 calls of 200 ms take a minute on one thread, three rounds of 100 at once
+            Assert.assertTrue(millis < 20_000, "took " + millis + " ms");
+        } finally {
+            nested = false;
+            System.clearProperty("virtualThreads.concurrency");
+            config.reload();
+        }
+    }
+}
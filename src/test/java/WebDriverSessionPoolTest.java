@@ -0,0 +1,89 @@
+import com.augmentedframework.utils.WebDriverSessionPool;
+import org.openqa.selenium.ImmutableCapabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.CommandExecutor;
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.Response;
+import org.openqa.selenium.remote.SessionId;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+public class WebDriverSessionPoolTest {
+
+    private static final class FakeSession {
+        private final List<String> commands = new CopyOnWriteArrayList<>();
+        private final AtomicBoolean broken = new AtomicBoolean();
+        private final RemoteWebDriver driver;
+
+        private FakeSession() {
+            CommandExecutor grid = command -> {
+                commands.add(command.getName());
+                if (broken.get() && !command.getName().equals(DriverCommand.QUIT)) {
+                    throw new WebDriverException("session is gone");
+                }
+                Response response = new Response(new SessionId("fake-session"));
+                response.setState("success");
+                switch (command.getName()) {
+                    case DriverCommand.NEW_SESSION:
+                        response.setValue(Map.of("browserName", "chrome"));
+                        break;
+                    case DriverCommand.GET_WINDOW_HANDLES:
+                        response.setValue(List.of("main"));
+                        break;
+                    default:
+                        response.setValue(null);
+                        break;
+                }
+                return response;
+            };
+            driver = new RemoteWebDriver(grid, new ImmutableCapabilities("browserName", "chrome"));
+        }
+    }
+
+    private static boolean evictionRunning() {
+        return Thread.getAllStackTraces().keySet().stream().anyMatch(thread -> thread.getName().equals("session-eviction"));
+    }
+
+    @Test
+    public void reusesResetSessionsAndQuitsBrokenOnes() {
+        // the suite's earlier tests checked isEnabled and closed the pool without using it
+        Assert.assertFalse(WebDriverSessionPool.isEnabled());
+        WebDriverSessionPool.closeAll();
+        Assert.assertFalse(evictionRunning(), "pool threads started before the pool was used");
+
+        List<FakeSession> created = new CopyOnWriteArrayList<>();
+        Supplier<WebDriver> factory = () -> {
+            FakeSession session = new FakeSession();
+            created.add(session);
+            return session.driver;
+        };
+        String key = "Windows_11_Chrome_latest_pool-test";
+
+        WebDriver first = WebDriverSessionPool.acquire(key, factory);
+        Assert.assertTrue(evictionRunning(), "eviction did not start with the first acquisition");
+        WebDriverSessionPool.release(first);
+        Assert.assertSame(WebDriverSessionPool.acquire(key, factory), first, "released session was not reused");
+        Assert.assertEquals(created.size(), 1);
+        Assert.assertTrue(created.get(0).commands.containsAll(List.of(DriverCommand.DELETE_ALL_COOKIES, DriverCommand.EXECUTE_SCRIPT, DriverCommand.GET)),
+                "reused session was not reset: " + created.get(0).commands);
+
+        created.get(0).broken.set(true);
+        WebDriverSessionPool.release(first);
+        Assert.assertTrue(created.get(0).commands.contains(DriverCommand.QUIT), "broken session was not quit");
+        WebDriver second = WebDriverSessionPool.acquire(key, factory);
+        Assert.assertNotSame(second, first);
+        Assert.assertEquals(created.size(), 2);
+
+        WebDriverSessionPool.release(second);
+        WebDriverSessionPool.closeAll();
+        Assert.assertTrue(created.get(1).commands.contains(DriverCommand.QUIT), "idle session was not quit by closeAll");
+    }
+}